@@ -0,0 +1,78 @@
+package com.example.moneytransfer.admission;
+
+import com.example.moneytransfer.domain.dto.AdmissionStatsResponse;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the number of requests doing database work at once. A request that finds no free slot
+ * waits up to the latency budget in a bounded queue; if the queue is full or the budget runs
+ * out it is rejected, so overload degrades into fast 503s instead of a pile-up on the
+ * connection pool's own (much longer) wait.
+ */
+public class AdmissionController {
+
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    public AdmissionController(int maxConcurrent, int maxQueue, Duration queueTimeout) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Max concurrent requests must be greater than zero");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = Math.max(0, maxQueue);
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * @return true if the caller was admitted and must call {@link #release()} when done
+     */
+    public boolean tryAdmit() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            admitted.increment();
+            return true;
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            shed.increment();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                admitted.increment();
+                queued.increment();
+                return true;
+            }
+            shed.increment();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public AdmissionStatsResponse stats() {
+        return AdmissionStatsResponse.builder()
+            .maxConcurrent(maxConcurrent)
+            .inFlight(maxConcurrent - permits.availablePermits())
+            .waiting(waiting.get())
+            .admitted(admitted.sum())
+            .queued(queued.sum())
+            .shed(shed.sum())
+            .build();
+    }
+}
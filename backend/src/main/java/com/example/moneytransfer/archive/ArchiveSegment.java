@@ -0,0 +1,432 @@
+package com.example.moneytransfer.archive;
+
+import com.example.moneytransfer.domain.money.Money;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One immutable archive file holding a run of consecutive {@code transaction_logs} rows. Rows are
+ * stored column by column and each column is deflated on its own, so runs of the same account,
+ * status or close timestamps compress to little. The header carries the id and time range and the
+ * sorted ids of every account involved, which is all that is kept in memory to decide whether a
+ * segment needs to be decoded at all.
+ * <pre>
+ * header   int   magic
+ *          int   row count
+ *          16    first id, last id
+ *          long  oldest and newest created_on, epoch micros
+ *          block accounts involved, ascending, varint deltas
+ * columns  block ids, 16 bytes each
+ *          block from accounts, zigzag varint delta from the previous row
+ *          block to accounts, zigzag varint delta from the previous row
+ *          block amounts, zigzag varint minor units
+ *          block created_on, zigzag varint delta in micros from the previous row
+ *          block status, failure reason and idempotency key strings, column after column
+ * trailer  int   CRC32 of everything before it
+ *
+ * block:  int uncompressed length, int compressed length, deflated bytes
+ * string: varint UTF-8 length + 1 (0 for null), bytes
+ * </pre>
+ */
+final class ArchiveSegment {
+
+    static final int MAGIC = 0x544C4131;
+    static final String SUFFIX = ".seg";
+
+    private final Path file;
+    private final int rowCount;
+    private final UUID firstId;
+    private final UUID lastId;
+    private final Instant oldestCreatedOn;
+    private final Instant newestCreatedOn;
+    private final long[] accountIds;
+
+    private ArchiveSegment(Path file, int rowCount, UUID firstId, UUID lastId,
+                           Instant oldestCreatedOn, Instant newestCreatedOn, long[] accountIds) {
+        this.file = file;
+        this.rowCount = rowCount;
+        this.firstId = firstId;
+        this.lastId = lastId;
+        this.oldestCreatedOn = oldestCreatedOn;
+        this.newestCreatedOn = newestCreatedOn;
+        this.accountIds = accountIds;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    UUID firstId() {
+        return firstId;
+    }
+
+    UUID lastId() {
+        return lastId;
+    }
+
+    Instant oldestCreatedOn() {
+        return oldestCreatedOn;
+    }
+
+    Instant newestCreatedOn() {
+        return newestCreatedOn;
+    }
+
+    boolean involves(long accountId) {
+        return Arrays.binarySearch(accountIds, accountId) >= 0;
+    }
+
+    /**
+     * Writes rows, in ascending id order, to a new segment file. The file is forced to disk
+     * under a temporary name and then renamed, so a crash never leaves a partial segment.
+     */
+    static ArchiveSegment write(Path file, List<ArchivedTransaction> rows) throws IOException {
+        long oldest = Long.MAX_VALUE;
+        long newest = Long.MIN_VALUE;
+        for (ArchivedTransaction row : rows) {
+            long micros = toMicros(row.createdOn());
+            oldest = Math.min(oldest, micros);
+            newest = Math.max(newest, micros);
+        }
+        long[] accountIds = rows.stream()
+            .flatMapToLong(row -> LongStream.of(row.fromAccountId(), row.toAccountId()))
+            .sorted()
+            .distinct()
+            .toArray();
+        UUID firstId = rows.get(0).id();
+        UUID lastId = rows.get(rows.size() - 1).id();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(rows.size());
+        writeId(out, firstId);
+        writeId(out, lastId);
+        out.writeLong(oldest);
+        out.writeLong(newest);
+
+        ByteArrayOutputStream column = new ByteArrayOutputStream();
+        long previous = 0;
+        for (long accountId : accountIds) {
+            writeVarLong(column, accountId - previous);
+            previous = accountId;
+        }
+        writeBlock(out, column);
+
+        for (ArchivedTransaction row : rows) {
+            writeId(new DataOutputStream(column), row.id());
+        }
+        writeBlock(out, column);
+
+        previous = 0;
+        for (ArchivedTransaction row : rows) {
+            writeVarLong(column, zigzag(row.fromAccountId() - previous));
+            previous = row.fromAccountId();
+        }
+        writeBlock(out, column);
+
+        previous = 0;
+        for (ArchivedTransaction row : rows) {
+            writeVarLong(column, zigzag(row.toAccountId() - previous));
+            previous = row.toAccountId();
+        }
+        writeBlock(out, column);
+
+        for (ArchivedTransaction row : rows) {
+            writeVarLong(column, zigzag(row.amount().minorUnits()));
+        }
+        writeBlock(out, column);
+
+        previous = 0;
+        for (ArchivedTransaction row : rows) {
+            long micros = toMicros(row.createdOn());
+            writeVarLong(column, zigzag(micros - previous));
+            previous = micros;
+        }
+        writeBlock(out, column);
+
+        for (ArchivedTransaction row : rows) {
+            writeString(column, row.status());
+        }
+        for (ArchivedTransaction row : rows) {
+            writeString(column, row.failureReason());
+        }
+        for (ArchivedTransaction row : rows) {
+            writeString(column, row.idempotencyKey());
+        }
+        writeBlock(out, column);
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+
+        Path monthDirectory = file.getParent();
+        boolean newDirectory = !Files.isDirectory(monthDirectory);
+        Files.createDirectories(monthDirectory);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        // The rename and a new month's directory entry must be durable before the rows are deleted
+        forceDirectory(monthDirectory);
+        if (newDirectory) {
+            forceDirectory(monthDirectory.getParent());
+        }
+
+        return new ArchiveSegment(file, rows.size(), firstId, lastId, fromMicros(oldest), fromMicros(newest),
+            accountIds);
+    }
+
+    /**
+     * Reads only the header of a segment file.
+     */
+    static ArchiveSegment open(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an archive segment: " + file);
+            }
+            int rowCount = in.readInt();
+            UUID firstId = new UUID(in.readLong(), in.readLong());
+            UUID lastId = new UUID(in.readLong(), in.readLong());
+            Instant oldest = fromMicros(in.readLong());
+            Instant newest = fromMicros(in.readLong());
+
+            int length = in.readInt();
+            byte[] compressed = new byte[in.readInt()];
+            in.readFully(compressed);
+            ByteBuffer accounts = inflate(compressed, 0, compressed.length, length);
+            List<Long> accountIds = new ArrayList<>();
+            long accountId = 0;
+            while (accounts.hasRemaining()) {
+                accountId += readVarLong(accounts);
+                accountIds.add(accountId);
+            }
+            return new ArchiveSegment(file, rowCount, firstId, lastId, oldest, newest,
+                accountIds.stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+
+    /**
+     * Decodes every row of the segment, in ascending id order.
+     *
+     * @throws IOException if the file is damaged
+     */
+    List<ArchivedTransaction> read() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length < 4) {
+            throw new IOException("Truncated archive segment: " + file);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        if ((int) crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+            throw new IOException("Checksum mismatch in archive segment: " + file);
+        }
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes, 0, bytes.length - 4);
+            // Magic, row count, ids and time range were read by open(); the accounts are in memory
+            in.position(56);
+            readBlock(in);
+
+            ByteBuffer ids = readBlock(in);
+            ByteBuffer from = readBlock(in);
+            ByteBuffer to = readBlock(in);
+            ByteBuffer amounts = readBlock(in);
+            ByteBuffer createdOn = readBlock(in);
+            ByteBuffer strings = readBlock(in);
+
+            UUID[] rowIds = new UUID[rowCount];
+            long[] fromAccounts = new long[rowCount];
+            long[] toAccounts = new long[rowCount];
+            long[] minorUnits = new long[rowCount];
+            long[] micros = new long[rowCount];
+            long previousFrom = 0;
+            long previousTo = 0;
+            long previousMicros = 0;
+            for (int i = 0; i < rowCount; i++) {
+                rowIds[i] = new UUID(ids.getLong(), ids.getLong());
+                previousFrom += unzigzag(readVarLong(from));
+                fromAccounts[i] = previousFrom;
+                previousTo += unzigzag(readVarLong(to));
+                toAccounts[i] = previousTo;
+                minorUnits[i] = unzigzag(readVarLong(amounts));
+                previousMicros += unzigzag(readVarLong(createdOn));
+                micros[i] = previousMicros;
+            }
+            String[] statuses = new String[rowCount];
+            String[] failureReasons = new String[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                statuses[i] = readString(strings);
+            }
+            for (int i = 0; i < rowCount; i++) {
+                failureReasons[i] = readString(strings);
+            }
+
+            List<ArchivedTransaction> rows = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                rows.add(new ArchivedTransaction(rowIds[i], fromAccounts[i], toAccounts[i],
+                    Money.ofMinor(minorUnits[i]), statuses[i], failureReasons[i], readString(strings),
+                    fromMicros(micros[i])));
+            }
+            return rows;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Malformed archive segment: " + file, e);
+        }
+    }
+
+    private static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static void writeId(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static void writeBlock(DataOutputStream out, ByteArrayOutputStream column) throws IOException {
+        byte[] raw = column.toByteArray();
+        column.reset();
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 16);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+        out.writeInt(raw.length);
+        out.writeInt(compressed.size());
+        compressed.writeTo(out);
+    }
+
+    private static ByteBuffer readBlock(ByteBuffer in) throws IOException {
+        int length = in.getInt();
+        int compressedLength = in.getInt();
+        if (compressedLength < 0 || compressedLength > in.remaining()) {
+            throw new IOException("Truncated column block");
+        }
+        ByteBuffer block = inflate(in.array(), in.arrayOffset() + in.position(), compressedLength, length);
+        in.position(in.position() + compressedLength);
+        return block;
+    }
+
+    private static ByteBuffer inflate(byte[] input, int offset, int length, int inflatedLength) throws IOException {
+        if (inflatedLength < 0) {
+            throw new IOException("Malformed column block");
+        }
+        byte[] raw = new byte[inflatedLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, length);
+            int filled = 0;
+            while (filled < inflatedLength) {
+                int inflated = inflater.inflate(raw, filled, inflatedLength - filled);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("Truncated column block");
+                }
+                filled += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column block", e);
+        } finally {
+            inflater.end();
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length - 1, StandardCharsets.UTF_8);
+        in.position(in.position() + length - 1);
+        return value;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long toMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.moneytransfer.archive;
+
+import com.example.moneytransfer.domain.dto.TransactionResponse;
+import com.example.moneytransfer.domain.money.Money;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * A {@code transaction_logs} row as kept in the archive.
+ */
+public record ArchivedTransaction(UUID id, long fromAccountId, long toAccountId, Money amount, String status,
+                                  String failureReason, String idempotencyKey, Instant createdOn) {
+
+    /**
+     * History order: newest first, ties broken by id the way MySQL sorts {@code BINARY(16)}.
+     */
+    static final Comparator<ArchivedTransaction> NEWEST_FIRST = Comparator
+        .comparing(ArchivedTransaction::createdOn)
+        .thenComparing(ArchivedTransaction::id, ArchivedTransaction::compareIds)
+        .reversed();
+
+    public boolean involves(long accountId) {
+        return fromAccountId == accountId || toAccountId == accountId;
+    }
+
+    public TransactionResponse toResponse() {
+        return TransactionResponse.builder()
+            .id(id.toString())
+            .fromAccountId(fromAccountId)
+            .toAccountId(toAccountId)
+            .amount(amount.toBigDecimal())
+            .status(status)
+            .failureReason(failureReason)
+            .idempotencyKey(idempotencyKey)
+            .createdOn(createdOn)
+            .build();
+    }
+
+    /**
+     * Compares ids as unsigned big-endian bytes, the order of the {@code BINARY(16)} column.
+     */
+    static int compareIds(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.moneytransfer.archive;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransactionResponse;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.repository.TransactionCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cold storage for {@code transaction_logs} rows moved out by the {@link TransactionArchiver}.
+ * Rows live in immutable {@link ArchiveSegment} files under one directory per UTC month of their
+ * ids, so a month can be copied to cheaper storage or dropped as a whole. Only segment headers
+ * stay in memory; decoded segments are kept in a small LRU cache for history reads.
+ * <p>
+ * Rows are archived in id order, so the archive holds every row up to its {@link #watermark()}.
+ * A row may briefly be both archived and still in the table; readers of the table skip rows at
+ * or below the watermark, or de-duplicate by id.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.archive", name = "enabled", havingValue = "true")
+@Slf4j
+public class TransactionArchive {
+
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM").withZone(ZoneOffset.UTC);
+
+    private static final Comparator<TransactionResponse> NEWEST_FIRST = Comparator
+        .comparing(TransactionResponse::getCreatedOn)
+        .thenComparing(row -> UUID.fromString(row.getId()), ArchivedTransaction::compareIds)
+        .reversed();
+
+    private final Path directory;
+    private final Map<Path, List<ArchivedTransaction>> decoded;
+
+    // Ascending by id, so the last segment ends at the watermark
+    private volatile List<ArchiveSegment> segments = List.of();
+
+    public TransactionArchive(TransferProperties transferProperties) throws IOException {
+        TransferProperties.Archive config = transferProperties.getArchive();
+        // Segments are the only copy of archived rows, so they must not land in whatever directory
+        // the process happens to be started from
+        if (config.getDirectory() == null || !Paths.get(config.getDirectory()).isAbsolute()) {
+            throw new IllegalStateException(
+                "transfer.archive.directory must be an absolute path when the archive is enabled");
+        }
+        this.directory = Paths.get(config.getDirectory());
+        int cacheSize = config.getCachedSegments();
+        this.decoded = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, List<ArchivedTransaction>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+
+        Files.createDirectories(directory);
+        refresh();
+        log.info("Transaction archive at {} holds {} segments up to {}", directory.toAbsolutePath(),
+            segments.size(), watermark());
+    }
+
+    /**
+     * Picks up segments written since the last call, e.g. by the archiver of another node.
+     */
+    public synchronized void refresh() throws IOException {
+        Set<Path> known = segments.stream().map(ArchiveSegment::file).collect(Collectors.toSet());
+        List<ArchiveSegment> all = new ArrayList<>(segments);
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(directory, 2)) {
+            files = walk.filter(file -> file.getFileName().toString().endsWith(ArchiveSegment.SUFFIX)).toList();
+        }
+        for (Path file : files) {
+            if (!known.contains(file)) {
+                all.add(ArchiveSegment.open(file));
+            }
+        }
+        all.sort(Comparator.comparing(ArchiveSegment::lastId, ArchivedTransaction::compareIds));
+        segments = List.copyOf(all);
+    }
+
+    /**
+     * Writes rows, ascending by id, above the watermark and all from one month, as a new segment.
+     */
+    public synchronized void append(List<ArchivedTransaction> rows) throws IOException {
+        UUID firstId = rows.get(0).id();
+        UUID lastId = rows.get(rows.size() - 1).id();
+        UUID watermark = watermark();
+        if (watermark != null && ArchivedTransaction.compareIds(firstId, watermark) <= 0) {
+            throw new IllegalArgumentException("Rows up to " + watermark + " are already archived");
+        }
+
+        Path file = directory.resolve(MONTH.format(TimeOrderedUuid.timestampOf(firstId)))
+            .resolve(lastId + ArchiveSegment.SUFFIX);
+        List<ArchiveSegment> all = new ArrayList<>(segments);
+        all.add(ArchiveSegment.write(file, rows));
+        segments = List.copyOf(all);
+    }
+
+    /**
+     * @return the id of the newest archived row, or null if nothing is archived yet
+     */
+    public UUID watermark() {
+        List<ArchiveSegment> current = segments;
+        return current.isEmpty() ? null : current.get(current.size() - 1).lastId();
+    }
+
+    /**
+     * @return whether a {@code transaction_logs} row is also in the archive below {@code watermark}
+     */
+    public static boolean covers(UUID watermark, String id) {
+        return watermark != null && ArchivedTransaction.compareIds(UUID.fromString(id), watermark) <= 0;
+    }
+
+    public long rowCount() {
+        return segments.stream().mapToLong(ArchiveSegment::rowCount).sum();
+    }
+
+    /**
+     * Completes a page of history read from {@code transaction_logs} with archived rows. Both
+     * sides are read up to {@code limit} rows past the cursor and merged, so the result is the
+     * page that one table holding every row would have returned. The archive is not touched
+     * when the table page is full and newer than everything archived.
+     *
+     * @param tableRows up to {@code limit} rows from the table, newest first
+     */
+    public List<TransactionResponse> mergePage(List<TransactionResponse> tableRows, long accountId,
+                                               TransactionCursor after, int limit) {
+        Instant newestArchived = segments.stream()
+            .map(ArchiveSegment::newestCreatedOn)
+            .max(Comparator.naturalOrder())
+            .orElse(null);
+        if (newestArchived == null
+            || (tableRows.size() >= limit && tableRows.get(limit - 1).getCreatedOn().isAfter(newestArchived))) {
+            return tableRows;
+        }
+
+        // A row being archived right now may be read from both sides
+        Set<String> seen = new HashSet<>();
+        List<TransactionResponse> merged = new ArrayList<>(tableRows.size() + limit);
+        for (TransactionResponse row : tableRows) {
+            if (seen.add(row.getId())) {
+                merged.add(row);
+            }
+        }
+        for (ArchivedTransaction row : findPage(accountId, after, limit)) {
+            TransactionResponse response = row.toResponse();
+            if (seen.add(response.getId())) {
+                merged.add(response);
+            }
+        }
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    /**
+     * Returns up to {@code limit} archived transactions of the account older than the cursor (or
+     * the newest, if null), newest first. Segments are visited newest first and skipped when the
+     * account is not involved or they cannot hold rows for the page.
+     */
+    List<ArchivedTransaction> findPage(long accountId, TransactionCursor after, int limit) {
+        ArchivedTransaction cursor = after == null ? null : new ArchivedTransaction(UUID.fromString(after.getId()),
+            0, 0, null, null, null, null, after.getCreatedOn());
+        List<ArchiveSegment> candidates = new ArrayList<>(segments);
+        candidates.sort(Comparator.comparing(ArchiveSegment::newestCreatedOn).reversed());
+
+        List<ArchivedTransaction> found = new ArrayList<>();
+        for (ArchiveSegment segment : candidates) {
+            if (found.size() >= limit && segment.newestCreatedOn().isBefore(found.get(limit - 1).createdOn())) {
+                break;
+            }
+            if (!segment.involves(accountId)
+                || (cursor != null && segment.oldestCreatedOn().isAfter(cursor.createdOn()))) {
+                continue;
+            }
+            for (ArchivedTransaction row : rows(segment)) {
+                if (row.involves(accountId)
+                    && (cursor == null || ArchivedTransaction.NEWEST_FIRST.compare(row, cursor) > 0)) {
+                    found.add(row);
+                }
+            }
+            found.sort(ArchivedTransaction.NEWEST_FIRST);
+            if (found.size() > limit) {
+                found = new ArrayList<>(found.subList(0, limit));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Pushes every archived transaction of the account up to {@code watermark} to the consumer,
+     * newest segment first and newest first within each segment.
+     */
+    public void stream(long accountId, UUID watermark, Consumer<TransactionResponse> consumer) {
+        if (watermark == null) {
+            return;
+        }
+        List<ArchiveSegment> current = segments;
+        for (int i = current.size() - 1; i >= 0; i--) {
+            ArchiveSegment segment = current.get(i);
+            if (ArchivedTransaction.compareIds(segment.lastId(), watermark) > 0 || !segment.involves(accountId)) {
+                continue;
+            }
+            rows(segment).stream()
+                .filter(row -> row.involves(accountId))
+                .sorted(ArchivedTransaction.NEWEST_FIRST)
+                .forEach(row -> consumer.accept(row.toResponse()));
+        }
+    }
+
+    /**
+     * @return the rows of every segment present now, one segment at a time and in id order;
+     * segments are decoded as they are iterated and bypass the cache
+     */
+    public Iterable<List<ArchivedTransaction>> segmentRows() {
+        List<ArchiveSegment> current = segments;
+        return () -> current.stream().map(TransactionArchive::read).iterator();
+    }
+
+    private List<ArchivedTransaction> rows(ArchiveSegment segment) {
+        List<ArchivedTransaction> rows;
+        synchronized (decoded) {
+            rows = decoded.get(segment.file());
+        }
+        if (rows == null) {
+            rows = read(segment);
+            synchronized (decoded) {
+                decoded.put(segment.file(), rows);
+            }
+        }
+        return rows;
+    }
+
+    private static List<ArchivedTransaction> read(ArchiveSegment segment) {
+        try {
+            return segment.read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.moneytransfer.archive;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.domain.money.Money;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves transfers older than {@code transfer.archive.hot-retention} from {@code transaction_logs}
+ * to the {@link TransactionArchive}, so the table, its indexes and their share of the buffer pool
+ * stay bounded by the retention instead of growing with the age of the system.
+ * <p>
+ * Rows are taken in primary-key order from the archive's watermark up to the first id of the
+ * retention cutoff, which is a cheap range scan because ids are time-ordered. Each chunk holds at
+ * most {@code chunk-size} rows of one month, is written and forced to disk as a segment, and only
+ * then deleted from the table by id range. After a crash in between, the next run first deletes
+ * whatever the archive already holds. Rows converted from older random ids are archived by where
+ * their id sorts rather than by age.
+ * <p>
+ * Idempotency keys are only enforced while their transfer is still in the table. The archiver
+ * starts once the application is ready, so a rollup backfill run at startup sees a stable split.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.archive", name = "enabled", havingValue = "true")
+@Slf4j
+public class TransactionArchiver {
+
+    private static final Duration MIN_RETENTION = Duration.ofDays(1);
+
+    private static final String SELECT_SQL =
+        "SELECT id, from_account, to_account, amount, status, failure_reason, idempotency_key, created_on "
+            + "FROM transaction_logs WHERE id > ? AND id < ? ORDER BY id LIMIT ?";
+
+    private static final RowMapper<ArchivedTransaction> ROW_MAPPER = (rs, rowNum) -> new ArchivedTransaction(
+        TimeOrderedUuid.fromBytes(rs.getBytes("id")),
+        rs.getLong("from_account"),
+        rs.getLong("to_account"),
+        Money.of(rs.getBigDecimal("amount")),
+        rs.getString("status"),
+        rs.getString("failure_reason"),
+        rs.getString("idempotency_key"),
+        rs.getTimestamp("created_on").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionArchive archive;
+    private final TransferProperties.Archive config;
+    private final ScheduledExecutorService scheduler;
+
+    public TransactionArchiver(JdbcTemplate jdbcTemplate, TransactionArchive archive,
+                               TransferProperties transferProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archive = archive;
+        this.config = transferProperties.getArchive();
+        if (config.getHotRetention().compareTo(MIN_RETENTION) < 0) {
+            throw new IllegalStateException("transfer.archive.hot-retention must be at least " + MIN_RETENTION);
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long intervalMillis = Math.max(1, config.getInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::runOnce, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void runOnce() {
+        try {
+            if (config.isArchiver()) {
+                archiveAged(Instant.now().minus(config.getHotRetention()));
+            } else {
+                archive.refresh();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Archiving transaction_logs failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Archives every row whose id is older than the cutoff.
+     *
+     * @return the number of rows moved
+     */
+    long archiveAged(Instant cutoff) throws IOException, InterruptedException {
+        int chunkSize = Math.max(1, config.getChunkSize());
+        long pauseMillis = config.getChunkPause().toMillis();
+
+        UUID watermark = archive.watermark();
+        byte[] lastId = watermark == null ? new byte[16] : TimeOrderedUuid.toBytes(watermark);
+        // Rows archived just before a crash may not have been deleted yet
+        long leftover = 0;
+        int deleted;
+        while ((deleted = jdbcTemplate.update(
+            "DELETE FROM transaction_logs WHERE id <= ? LIMIT ?", lastId, chunkSize)) > 0) {
+            leftover += deleted;
+        }
+        if (leftover > 0) {
+            log.info("Deleted {} transaction_logs rows that were already archived", leftover);
+        }
+
+        byte[] upperBound = TimeOrderedUuid.toBytes(TimeOrderedUuid.lowerBound(cutoff));
+        long moved = 0;
+        while (true) {
+            List<ArchivedTransaction> rows = jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, lastId, upperBound, chunkSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            rows = firstMonth(rows);
+            archive.append(rows);
+
+            byte[] chunkEnd = TimeOrderedUuid.toBytes(rows.get(rows.size() - 1).id());
+            jdbcTemplate.update("DELETE FROM transaction_logs WHERE id > ? AND id <= ?", lastId, chunkEnd);
+            lastId = chunkEnd;
+            moved += rows.size();
+            if (pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        }
+        if (moved > 0) {
+            log.info("Archived {} transaction_logs rows created before {}", moved, cutoff);
+        }
+        return moved;
+    }
+
+    // Cuts the chunk where the month of the ids changes, so each segment belongs to one month
+    private static List<ArchivedTransaction> firstMonth(List<ArchivedTransaction> rows) {
+        YearMonth month = monthOf(rows.get(0).id());
+        for (int i = 1; i < rows.size(); i++) {
+            if (!monthOf(rows.get(i).id()).equals(month)) {
+                return rows.subList(0, i);
+            }
+        }
+        return rows;
+    }
+
+    private static YearMonth monthOf(UUID id) {
+        return YearMonth.from(TimeOrderedUuid.timestampOf(id).atOffset(ZoneOffset.UTC));
+    }
+}
@@ -1,35 +1,52 @@
 package com.example.moneytransfer.aspect;
 
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.metrics.LatencyMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records the latency of every service and controller call into {@link LatencyMetrics}.
+ * Per-call log lines are opt-in and sampled via {@code transfer.metrics.log-sample-rate}.
+ */
 @Aspect
 @Component
 @Slf4j
 public class LoggingAspect {
 
+    private final LatencyMetrics latencyMetrics;
+    private final double logSampleRate;
+
+    public LoggingAspect(LatencyMetrics latencyMetrics, TransferProperties transferProperties) {
+        this.latencyMetrics = latencyMetrics;
+        this.logSampleRate = transferProperties.getMetrics().getLogSampleRate();
+    }
+
     @Around("execution(* com.example.moneytransfer.service.*.*(..)) || " +
             "execution(* com.example.moneytransfer.controller.*.*(..))")
     public Object logExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
-        String methodName = joinPoint.getSignature().getName();
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-
-        log.info("Executing method: {}.{}", className, methodName);
-
+        long startTime = System.nanoTime();
+        boolean failed = true;
         try {
             Object result = joinPoint.proceed();
-            long executionTime = System.currentTimeMillis() - startTime;
-            log.info("Method {}.{} executed in {} ms", className, methodName, executionTime);
+            failed = false;
             return result;
-        } catch (Exception e) {
-            long executionTime = System.currentTimeMillis() - startTime;
-            log.error("Method {}.{} failed after {} ms with error: {}", 
-                className, methodName, executionTime, e.getMessage());
-            throw e;
+        } finally {
+            long elapsedNanos = System.nanoTime() - startTime;
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            latencyMetrics.record(method, elapsedNanos, failed);
+
+            if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                log.info("Method {}.{} {} in {} us", method.getDeclaringClass().getSimpleName(), method.getName(),
+                    failed ? "failed" : "executed", elapsedNanos / 1_000);
+            }
         }
     }
 }
@@ -0,0 +1,147 @@
+package com.example.moneytransfer.audit;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.example.moneytransfer.audit.TransferAuditJournal.*;
+
+/**
+ * Reads the segments written by {@link TransferAuditJournal} and exports them as CSV. It only
+ * needs the JDK, so it can be run against a copy of the audit directory on any machine:
+ * <pre>
+ * java -cp money-transfer-system.jar -Dloader.main=com.example.moneytransfer.audit.AuditJournalReader \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher audit --account=42 --from=2024-05-01T00:00:00Z
+ * </pre>
+ * Filters: {@code --account=ID} (either side), {@code --from=} and {@code --to=} (ISO instants,
+ * inclusive from, exclusive to) and {@code --outcome=NAME}.
+ */
+public final class AuditJournalReader {
+
+    private AuditJournalReader() {
+    }
+
+    public record AuditEntry(long sequence, Instant timestamp, AuditOutcome outcome, UUID transactionId,
+                             long fromAccountId, long toAccountId, BigDecimal amount, String idempotencyKey) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: AuditJournalReader <directory> [--account=ID] [--from=ISO] [--to=ISO] [--outcome=NAME]");
+            System.exit(2);
+        }
+        Predicate<AuditEntry> filter = entry -> true;
+        for (int i = 1; i < args.length; i++) {
+            String[] option = args[i].split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+            String value = option[1];
+            switch (option[0]) {
+                case "--account" -> {
+                    long account = Long.parseLong(value);
+                    filter = filter.and(e -> e.fromAccountId() == account || e.toAccountId() == account);
+                }
+                case "--from" -> {
+                    Instant from = Instant.parse(value);
+                    filter = filter.and(e -> !e.timestamp().isBefore(from));
+                }
+                case "--to" -> {
+                    Instant to = Instant.parse(value);
+                    filter = filter.and(e -> e.timestamp().isBefore(to));
+                }
+                case "--outcome" -> {
+                    AuditOutcome outcome = AuditOutcome.valueOf(value);
+                    filter = filter.and(e -> e.outcome() == outcome);
+                }
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        PrintStream out = System.out;
+        out.println("sequence,timestamp,outcome,transaction_id,from_account,to_account,amount,idempotency_key");
+        Predicate<AuditEntry> selected = filter;
+        read(Paths.get(args[0]), entry -> {
+            if (selected.test(entry)) {
+                out.println(entry.sequence() + "," + entry.timestamp() + "," + entry.outcome() + ","
+                    + (entry.transactionId() == null ? "" : entry.transactionId()) + ","
+                    + entry.fromAccountId() + "," + entry.toAccountId() + "," + entry.amount() + ","
+                    + entry.idempotencyKey());
+            }
+        });
+        out.flush();
+    }
+
+    /**
+     * Pushes every record in the directory to the consumer, in sequence order.
+     */
+    public static void read(Path directory, Consumer<AuditEntry> consumer) throws IOException {
+        for (Path segment : segments(directory)) {
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            for (int offset = 0; offset + RECORD_SIZE <= buffer.capacity(); offset += RECORD_SIZE) {
+                if (buffer.getInt(offset) != MAGIC) {
+                    break;
+                }
+                consumer.accept(decode(buffer, offset));
+            }
+        }
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> {
+                    String name = file.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                })
+                // Names are zero-padded, so lexical order is sequence order
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    static String segmentName(long baseSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, baseSequence, SEGMENT_SUFFIX);
+    }
+
+    static long baseSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static AuditEntry decode(MappedByteBuffer buffer, int offset) {
+        long msb = buffer.getLong(offset + TRANSACTION_ID);
+        long lsb = buffer.getLong(offset + TRANSACTION_ID + 8);
+        byte[] key = new byte[Math.min(buffer.getShort(offset + KEY_LENGTH), MAX_KEY_LENGTH)];
+        buffer.get(offset + KEY, key);
+        return new AuditEntry(
+            buffer.getLong(offset + SEQUENCE),
+            Instant.ofEpochMilli(buffer.getLong(offset + TIMESTAMP)),
+            AuditOutcome.fromCode(buffer.get(offset + OUTCOME)),
+            msb == 0 && lsb == 0 ? null : new UUID(msb, lsb),
+            buffer.getLong(offset + FROM_ACCOUNT),
+            buffer.getLong(offset + TO_ACCOUNT),
+            BigDecimal.valueOf(buffer.getLong(offset + AMOUNT), 2),
+            new String(key, StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.moneytransfer.audit;
+
+import com.example.moneytransfer.domain.exception.AccountNotActiveException;
+import com.example.moneytransfer.domain.exception.AccountNotFoundException;
+import com.example.moneytransfer.domain.exception.DuplicateTransferException;
+import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.exception.TransferConflictException;
+
+/**
+ * Outcome of a transfer attempt as stored in the audit journal. The ordinal is the on-disk code,
+ * so constants may only ever be appended.
+ */
+public enum AuditOutcome {
+    COMPLETED,
+    REPLAYED,
+    INVALID_REQUEST,
+    ACCOUNT_NOT_FOUND,
+    ACCOUNT_NOT_ACTIVE,
+    INSUFFICIENT_BALANCE,
+    DUPLICATE_KEY,
+    CONFLICT,
+    ERROR;
+
+    private static final AuditOutcome[] VALUES = values();
+
+    public static AuditOutcome of(Throwable failure) {
+        if (failure instanceof InsufficientBalanceException) {
+            return INSUFFICIENT_BALANCE;
+        }
+        if (failure instanceof AccountNotActiveException) {
+            return ACCOUNT_NOT_ACTIVE;
+        }
+        if (failure instanceof AccountNotFoundException) {
+            return ACCOUNT_NOT_FOUND;
+        }
+        if (failure instanceof DuplicateTransferException) {
+            return DUPLICATE_KEY;
+        }
+        if (failure instanceof TransferConflictException) {
+            return CONFLICT;
+        }
+        if (failure instanceof IllegalArgumentException) {
+            return INVALID_REQUEST;
+        }
+        return ERROR;
+    }
+
+    static AuditOutcome fromCode(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : ERROR;
+    }
+}
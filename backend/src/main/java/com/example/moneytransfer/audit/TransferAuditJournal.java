@@ -0,0 +1,263 @@
+package com.example.moneytransfer.audit;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Binary audit trail of every transfer attempt, written to memory-mapped segment files of
+ * fixed-size records. Writing a record formats nothing and allocates nothing: each field is put
+ * at a fixed offset of the current segment inside a short critical section, and the record's
+ * magic is written last so that readers treat a half-written slot as the end of the segment.
+ * <p>
+ * Segments are named after the sequence number of their first record and are preallocated at
+ * {@code transfer.audit.segment-size}; a full segment is left to the page cache and the next one
+ * is mapped. Durability follows {@code transfer.audit.flush-policy}. Records are read back with
+ * {@link AuditJournalReader}.
+ * <pre>
+ * offset size field
+ *      0    4 magic
+ *      4    1 outcome ({@link AuditOutcome} ordinal)
+ *      5    1 reserved
+ *      6    2 idempotency key length
+ *      8    8 sequence
+ *     16    8 timestamp, epoch millis
+ *     24   16 transaction id (zero if none)
+ *     40    8 from account (zero if none)
+ *     48    8 to account (zero if none)
+ *     56    8 amount in minor units
+ *     64  100 idempotency key, ASCII, non-ASCII characters as '?'
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.audit", name = "enabled", havingValue = "true")
+@Slf4j
+public class TransferAuditJournal {
+
+    static final int MAGIC = 0x54414A31;
+    static final int RECORD_SIZE = 168;
+    static final int MAX_KEY_LENGTH = 100;
+    static final String SEGMENT_PREFIX = "audit-";
+    static final String SEGMENT_SUFFIX = ".bin";
+
+    static final int OUTCOME = 4;
+    static final int KEY_LENGTH = 6;
+    static final int SEQUENCE = 8;
+    static final int TIMESTAMP = 16;
+    static final int TRANSACTION_ID = 24;
+    static final int FROM_ACCOUNT = 40;
+    static final int TO_ACCOUNT = 48;
+    static final int AMOUNT = 56;
+    static final int KEY = 64;
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final TransferProperties.Audit.FlushPolicy flushPolicy;
+    private final LongAdder dropped = new LongAdder();
+    private final ScheduledExecutorService flusher;
+
+    private MappedByteBuffer segment;
+    private long segmentBase;
+    private long nextSequence;
+    private boolean closed;
+
+    public TransferAuditJournal(TransferProperties transferProperties) throws IOException {
+        TransferProperties.Audit config = transferProperties.getAudit();
+        // Each segment is preallocated, so it must not land in whatever directory the process
+        // happens to be started from
+        if (config.getDirectory() == null || !Paths.get(config.getDirectory()).isAbsolute()) {
+            throw new IllegalStateException(
+                "transfer.audit.directory must be an absolute path when the audit journal is enabled");
+        }
+        this.directory = Paths.get(config.getDirectory());
+        this.recordsPerSegment = (int) Math.max(1, Math.min(Integer.MAX_VALUE / RECORD_SIZE,
+            config.getSegmentSize().toBytes() / RECORD_SIZE));
+        this.flushPolicy = config.getFlushPolicy();
+
+        Files.createDirectories(directory);
+        resume();
+
+        if (flushPolicy == TransferProperties.Audit.FlushPolicy.INTERVAL) {
+            long intervalMillis = Math.max(1, config.getFlushInterval().toMillis());
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "audit-journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+        log.info("Audit journal writing to {} from sequence {}", directory.toAbsolutePath(), nextSequence);
+    }
+
+    /**
+     * Records a transfer attempt whose transaction id is only known as its string form.
+     */
+    public void record(TransferRequest request, CharSequence transactionId, AuditOutcome outcome) {
+        long msb = 0;
+        long lsb = 0;
+        if (transactionId != null && transactionId.length() == 36) {
+            int nibbles = 0;
+            for (int i = 0; i < 36; i++) {
+                char c = transactionId.charAt(i);
+                if (c == '-') {
+                    continue;
+                }
+                int digit = Character.digit(c, 16);
+                if (digit < 0) {
+                    msb = 0;
+                    lsb = 0;
+                    break;
+                }
+                if (nibbles++ < 16) {
+                    msb = (msb << 4) | digit;
+                } else {
+                    lsb = (lsb << 4) | digit;
+                }
+            }
+        }
+        write(request, msb, lsb, outcome);
+    }
+
+    public void record(TransferRequest request, UUID transactionId, AuditOutcome outcome) {
+        write(request,
+            transactionId == null ? 0 : transactionId.getMostSignificantBits(),
+            transactionId == null ? 0 : transactionId.getLeastSignificantBits(),
+            outcome);
+    }
+
+    /**
+     * Records that could not be written because a segment could not be mapped.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public void flush() {
+        MappedByteBuffer current;
+        synchronized (this) {
+            current = segment;
+        }
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        synchronized (this) {
+            flush();
+            closed = true;
+            segment = null;
+        }
+    }
+
+    private void write(TransferRequest request, long msb, long lsb, AuditOutcome outcome) {
+        long timestamp = System.currentTimeMillis();
+        long from = request.getFromAccountId() == null ? 0 : request.getFromAccountId();
+        long to = request.getToAccountId() == null ? 0 : request.getToAccountId();
+        long amount = request.getAmount() == null ? 0 : request.getAmount().minorUnits();
+        String key = request.getIdempotencyKey();
+        int keyLength = key == null ? 0 : Math.min(key.length(), MAX_KEY_LENGTH);
+
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (segment == null || nextSequence - segmentBase >= recordsPerSegment) {
+                if (!rotate()) {
+                    dropped.increment();
+                    return;
+                }
+            }
+            MappedByteBuffer buffer = segment;
+            int offset = (int) (nextSequence - segmentBase) * RECORD_SIZE;
+            buffer.put(offset + OUTCOME, (byte) outcome.ordinal());
+            buffer.putShort(offset + KEY_LENGTH, (short) keyLength);
+            buffer.putLong(offset + SEQUENCE, nextSequence);
+            buffer.putLong(offset + TIMESTAMP, timestamp);
+            buffer.putLong(offset + TRANSACTION_ID, msb);
+            buffer.putLong(offset + TRANSACTION_ID + 8, lsb);
+            buffer.putLong(offset + FROM_ACCOUNT, from);
+            buffer.putLong(offset + TO_ACCOUNT, to);
+            buffer.putLong(offset + AMOUNT, amount);
+            for (int i = 0; i < keyLength; i++) {
+                char c = key.charAt(i);
+                buffer.put(offset + KEY + i, c < 0x80 ? (byte) c : (byte) '?');
+            }
+            buffer.putInt(offset, MAGIC);
+            nextSequence++;
+            if (flushPolicy == TransferProperties.Audit.FlushPolicy.EVERY_RECORD) {
+                buffer.force(offset, RECORD_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Continues after the last record of the newest segment, in that segment if it has room.
+     */
+    private void resume() throws IOException {
+        List<Path> segments = AuditJournalReader.segments(directory);
+        if (segments.isEmpty()) {
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        long base = AuditJournalReader.baseSequence(last);
+        MappedByteBuffer buffer = map(last);
+        int records = 0;
+        while (records < recordsPerSegment && (long) (records + 1) * RECORD_SIZE <= buffer.capacity()
+            && buffer.getInt(records * RECORD_SIZE) == MAGIC) {
+            records++;
+        }
+        nextSequence = base + records;
+        if (records < recordsPerSegment && buffer.capacity() == (long) recordsPerSegment * RECORD_SIZE) {
+            segment = buffer;
+            segmentBase = base;
+        }
+    }
+
+    private boolean rotate() {
+        if (segment != null) {
+            segment.force();
+        }
+        try {
+            segment = map(directory.resolve(AuditJournalReader.segmentName(nextSequence)));
+            segmentBase = nextSequence;
+            return true;
+        } catch (IOException e) {
+            segment = null;
+            log.warn("Could not map audit journal segment at sequence {}: {}", nextSequence, e.getMessage());
+            return false;
+        }
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = Files.size(file) > 0 ? Files.size(file) : (long) recordsPerSegment * RECORD_SIZE;
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
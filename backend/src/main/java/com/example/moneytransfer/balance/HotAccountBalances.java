@@ -0,0 +1,152 @@
+package com.example.moneytransfer.balance;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.BalanceBucketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Striped balances for hot accounts. A hot account's balance is its {@code accounts.balance}
+ * plus the sum of its {@code account_balance_buckets}: credits go to a random bucket and never
+ * lock the account row, so credit throughput to one account grows with the number of buckets.
+ * Debits still lock the account row; they draw from the row balance, then from a single bucket
+ * with enough funds, and only as a last resort lock and consolidate every bucket into the row.
+ * <p>
+ * Which accounts are hot is read from the database and cached for the configured refresh
+ * interval. A stale view only costs contention: a credit to an account not yet known as hot
+ * locks its row and is still applied to one of its buckets.
+ */
+@Component
+@Slf4j
+public class HotAccountBalances {
+
+    private final BalanceBucketRepository bucketRepository;
+    private final long refreshIntervalNanos;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Map<Long, Integer> bucketCounts;
+    private volatile long loadedAt;
+
+    public HotAccountBalances(BalanceBucketRepository bucketRepository, TransferProperties transferProperties) {
+        this.bucketRepository = bucketRepository;
+        this.refreshIntervalNanos = transferProperties.getHotAccounts().getRefreshInterval().toNanos();
+    }
+
+    /**
+     * @return true if the account is known to be hot, i.e. credits need not lock its row
+     */
+    public boolean isHot(Long accountId) {
+        return bucketCounts().containsKey(accountId);
+    }
+
+    /**
+     * Debits a locked account, consolidating its buckets into the row if neither the row nor a
+     * single bucket can cover the amount.
+     *
+     * @throws com.example.moneytransfer.domain.exception.InsufficientBalanceException if the
+     *         account's total balance is less than the amount
+     */
+    public void debit(Account account, Money amount) {
+        if (!account.isHot() || !account.getBalance().isLessThan(amount)) {
+            account.debit(amount);
+            return;
+        }
+
+        int bucket = bucketRepository.findBucketWithFunds(account.getId(), amount);
+        if (bucket >= 0 && bucketRepository.debitIfSufficient(account.getId(), bucket, amount) == 1) {
+            return;
+        }
+
+        // Undone together with the rest of the transaction if the debit still fails
+        Money pooled = bucketRepository.drain(account.getId());
+        account.setBalance(account.getBalance().plus(pooled));
+        account.debit(amount);
+    }
+
+    /**
+     * Credits a hot account through one of its buckets, any other account through its row.
+     */
+    public void credit(Account account, Money amount) {
+        if (!account.isHot()) {
+            account.credit(amount);
+            return;
+        }
+        if (amount == null || !amount.isPositive()) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+        int bucket = ThreadLocalRandom.current().nextInt(account.getBalanceBuckets());
+        if (bucketRepository.credit(account.getId(), bucket, amount) == 0) {
+            // Bucket rows are created when the account is marked hot; fall back to the row
+            account.credit(amount);
+        }
+    }
+
+    /**
+     * @return the account's row balance plus whatever its buckets hold
+     */
+    public Money totalBalance(Account account) {
+        if (!account.isHot()) {
+            return account.getBalance();
+        }
+        return account.getBalance().plus(bucketRepository.sumBalance(account.getId()));
+    }
+
+    /**
+     * Splits a locked account's future credits across {@code buckets} sub-balances. Must run
+     * inside the transaction that updates the account row.
+     */
+    public void markHot(Account account, int buckets) {
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("Bucket count must be greater than zero");
+        }
+        bucketRepository.createBuckets(account.getId(), Math.max(buckets, account.getBalanceBuckets()));
+        account.setBalanceBuckets(Math.max(buckets, account.getBalanceBuckets()));
+
+        Long accountId = account.getId();
+        int count = account.getBalanceBuckets();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(accountId, count);
+                }
+            });
+        } else {
+            remember(accountId, count);
+        }
+        log.info("Account {} marked hot with {} balance buckets", accountId, count);
+    }
+
+    private void remember(Long accountId, int count) {
+        Map<Long, Integer> updated = new HashMap<>(bucketCounts());
+        updated.put(accountId, count);
+        bucketCounts = updated;
+    }
+
+    private Map<Long, Integer> bucketCounts() {
+        Map<Long, Integer> current = bucketCounts;
+        if (current != null && System.nanoTime() - loadedAt < refreshIntervalNanos) {
+            return current;
+        }
+        // One caller reloads; the others keep using the previous view meanwhile
+        if (current != null && !refreshing.compareAndSet(false, true)) {
+            return current;
+        }
+        try {
+            Map<Long, Integer> loaded = bucketRepository.findBucketCounts();
+            bucketCounts = loaded;
+            loadedAt = System.nanoTime();
+            return loaded;
+        } finally {
+            refreshing.set(false);
+        }
+    }
+}
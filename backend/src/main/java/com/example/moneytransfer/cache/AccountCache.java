@@ -0,0 +1,142 @@
+package com.example.moneytransfer.cache;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.AccountResponse;
+import com.example.moneytransfer.domain.dto.CacheStatsResponse;
+import com.example.moneytransfer.domain.entity.Account;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of {@link AccountResponse}s stamped with the account's {@code @Version}.
+ * <p>
+ * Writers only publish committed state: transfers hand their accounts to {@link #putAfterCommit},
+ * which applies them from an {@code afterCommit} synchronization. Because a stale read may race
+ * with a commit, an entry is only ever replaced by one with an equal or higher version. Hot
+ * accounts are never cached: their bucket credits change the balance without a version bump.
+ */
+@Component
+public class AccountCache {
+
+    private static final int UNVERSIONED = -1;
+
+    private final boolean enabled;
+    private final Map<Long, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AccountCache(TransferProperties transferProperties) {
+        TransferProperties.AccountCache config = transferProperties.getAccountCache();
+        int maxSize = config.getMaxSize();
+        this.enabled = config.isEnabled() && maxSize > 0;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<AccountResponse> get(Long id) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+        }
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.response);
+    }
+
+    /**
+     * Caches the committed state of an account unless a newer version is already cached. A hot
+     * account is evicted instead.
+     *
+     * @return the response view of the account, with a hot account's row balance only
+     */
+    public AccountResponse put(Account account) {
+        AccountResponse response = AccountResponse.builder()
+            .id(account.getId())
+            .holderName(account.getHolderName())
+            .balance(account.getBalance())
+            .status(account.getStatus().name())
+            .build();
+        if (account.isHot()) {
+            evict(account.getId());
+        } else if (enabled) {
+            int version = account.getVersion() == null ? UNVERSIONED : account.getVersion();
+            Entry candidate = new Entry(response, version);
+            synchronized (entries) {
+                entries.merge(account.getId(), candidate,
+                    (current, next) -> next.version >= current.version ? next : current);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Publishes the accounts once the surrounding transaction commits; nothing is published on
+     * rollback. Without an active transaction the accounts are published immediately.
+     */
+    public void putAfterCommit(Collection<Account> accounts) {
+        if (!enabled || accounts.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accounts.forEach(this::put);
+            return;
+        }
+        List<Account> committed = new ArrayList<>(accounts);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                committed.forEach(AccountCache.this::put);
+            }
+        });
+    }
+
+    public void evict(Long id) {
+        synchronized (entries) {
+            entries.remove(id);
+        }
+    }
+
+    public CacheStatsResponse stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return CacheStatsResponse.builder()
+            .size(size)
+            .hits(hitCount)
+            .misses(missCount)
+            .evictions(evictions.sum())
+            .hitRatio(total == 0 ? 0.0 : (double) hitCount / total)
+            .build();
+    }
+
+    private record Entry(AccountResponse response, int version) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.moneytransfer.config;
+
+import com.example.moneytransfer.admission.AdmissionControlFilter;
+import com.example.moneytransfer.admission.AdmissionController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+@ConditionalOnProperty(prefix = "transfer.admission", name = "enabled", havingValue = "true")
+public class AdmissionConfig {
+
+    private static final int DEFAULT_MAX_CONCURRENT = 10;
+
+    @Bean
+    public AdmissionController admissionController(TransferProperties transferProperties, DataSource dataSource)
+        throws SQLException {
+        TransferProperties.Admission config = transferProperties.getAdmission();
+        int maxConcurrent = config.getMaxConcurrent();
+        // Unwrapping reaches the primary pool also when reads are routed to replicas
+        if (maxConcurrent <= 0 && dataSource.isWrapperFor(HikariDataSource.class)) {
+            maxConcurrent = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        }
+        if (maxConcurrent <= 0) {
+            // Hikari only resolves an unset pool size to its default of 10 when the pool starts
+            maxConcurrent = DEFAULT_MAX_CONCURRENT;
+        }
+        return new AdmissionController(maxConcurrent, config.getMaxQueue(), config.getQueueTimeout());
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdmissionController admissionController,
+                                                                                 ObjectMapper objectMapper) {
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+            new FilterRegistrationBean<>(new AdmissionControlFilter(admissionController, objectMapper));
+        registration.addUrlPatterns("/api/v1/accounts/*", "/api/v1/transfers/*", "/api/v1/transfers");
+        // After authentication, so unauthenticated requests never take a slot
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
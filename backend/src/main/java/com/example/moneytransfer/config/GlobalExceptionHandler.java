@@ -1,30 +1,64 @@
 package com.example.moneytransfer.config;
 
+import com.example.moneytransfer.audit.AuditOutcome;
+import com.example.moneytransfer.audit.TransferAuditJournal;
 import com.example.moneytransfer.domain.dto.ErrorResponse;
+import com.example.moneytransfer.domain.dto.TransferRequest;
 import com.example.moneytransfer.domain.exception.AccountNotActiveException;
 import com.example.moneytransfer.domain.exception.AccountNotFoundException;
 import com.example.moneytransfer.domain.exception.DuplicateTransferException;
 import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.exception.TransactionNotFoundException;
+import com.example.moneytransfer.domain.exception.TransferConflictException;
+import com.example.moneytransfer.domain.exception.TransferRejectedException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @ControllerAdvice
+@RequiredArgsConstructor
 @Slf4j
 public class GlobalExceptionHandler {
 
+    // Insufficient balance is the only rejection with a fixed message, so only its body is shared
+    private static final ErrorResponse INSUFFICIENT_BALANCE = ErrorResponse.builder()
+        .errorCode("TRX-400")
+        .message(InsufficientBalanceException.instance().getMessage())
+        .build();
+
+    private final Optional<TransferAuditJournal> auditJournal;
+
+    /*
+     * Business rejections are expected traffic: they are logged at DEBUG, and their messages are
+     * only built when the response is written. Missing or inactive accounts and duplicate keys
+     * name the account, key or transaction, so each of those still gets its own response body.
+     */
+
     @ExceptionHandler(AccountNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleAccountNotFoundException(AccountNotFoundException ex) {
-        log.error("Account not found: {}", ex.getMessage());
+        log.debug("Account not found: {}", ex.getMessage());
+        return reject(HttpStatus.NOT_FOUND, "ACC-404", ex);
+    }
+
+    @ExceptionHandler(TransactionNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleTransactionNotFoundException(TransactionNotFoundException ex) {
+        log.debug("Transaction not found: {}", ex.getMessage());
         ErrorResponse error = ErrorResponse.builder()
-            .errorCode("ACC-404")
+            .errorCode("TRX-404")
             .message(ex.getMessage())
             .build();
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
@@ -32,38 +66,44 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(AccountNotActiveException.class)
     public ResponseEntity<ErrorResponse> handleAccountNotActiveException(AccountNotActiveException ex) {
-        log.error("Account not active: {}", ex.getMessage());
-        ErrorResponse error = ErrorResponse.builder()
-            .errorCode("ACC-403")
-            .message(ex.getMessage())
-            .build();
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+        log.debug("Account not active: {}", ex.getMessage());
+        return reject(HttpStatus.FORBIDDEN, "ACC-403", ex);
     }
 
     @ExceptionHandler(InsufficientBalanceException.class)
     public ResponseEntity<ErrorResponse> handleInsufficientBalanceException(InsufficientBalanceException ex) {
-        log.error("Insufficient balance: {}", ex.getMessage());
-        ErrorResponse error = ErrorResponse.builder()
-            .errorCode("TRX-400")
-            .message(ex.getMessage())
-            .build();
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        log.debug("Insufficient balance: {}", ex.getMessage());
+        if (ex == InsufficientBalanceException.instance()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(INSUFFICIENT_BALANCE);
+        }
+        return reject(HttpStatus.BAD_REQUEST, "TRX-400", ex);
     }
 
     @ExceptionHandler(DuplicateTransferException.class)
     public ResponseEntity<ErrorResponse> handleDuplicateTransferException(DuplicateTransferException ex) {
-        log.error("Duplicate transfer: {}", ex.getMessage());
+        log.debug("Duplicate transfer: {}", ex.getMessage());
+        return reject(HttpStatus.CONFLICT, "TRX-409", ex);
+    }
+
+    @ExceptionHandler(TransferConflictException.class)
+    public ResponseEntity<ErrorResponse> handleTransferConflictException(TransferConflictException ex) {
+        log.warn("Transfer conflict: {}", ex.getMessage());
         ErrorResponse error = ErrorResponse.builder()
-            .errorCode("TRX-409")
+            .errorCode("TRX-503")
             .message(ex.getMessage())
             .build();
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
-        log.error("Validation error: {}", ex.getMessage());
-        
+        log.debug("Validation error: {}", ex.getMessage());
+
+        // Transfers rejected by bean validation never reach the service, so they are audited here
+        if (auditJournal.isPresent() && ex.getBindingResult().getTarget() instanceof TransferRequest request) {
+            auditJournal.get().record(request, (UUID) null, AuditOutcome.INVALID_REQUEST);
+        }
+
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
@@ -79,9 +119,34 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
     }
 
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleUnreadableMessage(HttpMessageNotReadableException ex) {
+        log.debug("Unreadable request body: {}", ex.getMessage());
+        // e.g. an amount with more than two decimal places
+        String reason = ex.getCause() instanceof JsonMappingException mapping
+            ? mapping.getOriginalMessage()
+            : "request body is not valid JSON";
+        ErrorResponse error = ErrorResponse.builder()
+            .errorCode("VAL-422")
+            .message("Malformed request: " + reason)
+            .build();
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+
+    @ExceptionHandler({MissingServletRequestParameterException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<ErrorResponse> handleInvalidParameter(Exception ex) {
+        // e.g. a missing or malformed date in a summary range
+        log.debug("Invalid request parameter: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.builder()
+            .errorCode("VAL-422")
+            .message(ex.getMessage())
+            .build();
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(error);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
-        log.error("Illegal argument: {}", ex.getMessage());
+        log.debug("Illegal argument: {}", ex.getMessage());
         ErrorResponse error = ErrorResponse.builder()
             .errorCode("VAL-422")
             .message(ex.getMessage())
@@ -98,4 +163,9 @@ public class GlobalExceptionHandler {
             .build();
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
+
+    private static ResponseEntity<ErrorResponse> reject(HttpStatus status, String errorCode,
+                                                        TransferRejectedException ex) {
+        return ResponseEntity.status(status).body(new ErrorResponse(errorCode, ex.getMessage()));
+    }
 }
@@ -0,0 +1,122 @@
+package com.example.moneytransfer.config;
+
+import com.example.moneytransfer.replica.ReadYourWritesInterceptor;
+import com.example.moneytransfer.replica.ReplicaHeartbeat;
+import com.example.moneytransfer.replica.ReplicaReadAspect;
+import com.example.moneytransfer.replica.ReplicaRouter;
+import com.example.moneytransfer.replica.RoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes {@link com.example.moneytransfer.replica.ReplicaRead} connections to read replicas.
+ * The primary pool is still configured through {@code spring.datasource}; each replica gets its
+ * own pool from {@code transfer.replicas.instances}, e.g. a second local instance:
+ * <pre>
+ * transfer:
+ *   replicas:
+ *     enabled: true
+ *     instances:
+ *       - url: jdbc:mysql://localhost:3307/money_transfer_db
+ *         username: root
+ *         password: root
+ * </pre>
+ * A replica only takes reads once its copy of {@code replica_heartbeat} is within
+ * {@code max-lag} of the primary's, so an instance that does not replicate from the primary is
+ * never used; {@code GET /api/v1/metrics/replicas} shows what each replica is doing.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "transfer.replicas", name = "enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRouter replicaRouter(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                       DataSourceProperties dataSourceProperties,
+                                       TransferProperties transferProperties) {
+        TransferProperties.Replicas config = transferProperties.getReplicas();
+        List<TransferProperties.Replicas.Instance> instances = config.getInstances();
+        if (instances.isEmpty()) {
+            throw new IllegalStateException("transfer.replicas.enabled requires at least one replica instance");
+        }
+
+        // The replica pools are not beans; the router closes them when it is closed
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < instances.size(); i++) {
+            TransferProperties.Replicas.Instance instance = instances.get(i);
+            HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(instance.getUrl())
+                .username(instance.getUsername())
+                .password(instance.getPassword())
+                .build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            if (config.getMaxPoolSize() > 0) {
+                replica.setMaximumPoolSize(config.getMaxPoolSize());
+            }
+            // Keyed by pool name, so two instances configured with the same URL stay two pools
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        return new ReplicaRouter(primaryDataSource, replicas,
+            new ReplicaHeartbeat(config.getHealthCheckInterval()), config.getMaxLag(),
+            config.getHealthCheckInterval(), config.getReadYourWrites());
+    }
+
+    /**
+     * Health checks start once the schema is in place; until then every read uses the primary.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReplicaMonitor(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBean(ReplicaRouter.class).start();
+    }
+
+    /**
+     * The data source everything else uses. The lazy proxy defers taking a connection until the
+     * first statement, so a transaction's read-only flag is set by the time it is routed.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        return new LazyConnectionDataSourceProxy(new RoutingDataSource(replicaRouter));
+    }
+
+    @Bean
+    public ReplicaReadAspect replicaReadAspect(ReplicaRouter replicaRouter) {
+        return new ReplicaReadAspect(replicaRouter);
+    }
+
+    @Bean
+    public WebMvcConfigurer readYourWritesConfigurer(ReplicaRouter replicaRouter) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ReadYourWritesInterceptor(replicaRouter)).addPathPatterns("/api/**");
+            }
+        };
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.moneytransfer.config;
 
+import com.example.moneytransfer.security.AuthTokenService;
+import com.example.moneytransfer.security.BearerTokenFilter;
+import com.example.moneytransfer.security.CachingPasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -12,13 +16,19 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.util.Optional;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   Optional<AuthTokenService> authTokenService,
+                                                   UserDetailsService userDetailsService,
+                                                   ObjectMapper objectMapper) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
@@ -30,22 +40,37 @@ public class SecurityConfig {
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             );
 
+        // Not a bean, so it only runs inside the security chain
+        if (authTokenService.isPresent()) {
+            http.addFilterBefore(new BearerTokenFilter(authTokenService.get(), userDetailsService, objectMapper),
+                BasicAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 
     @Bean
-    public UserDetailsService userDetailsService() {
+    public UserDetailsService userDetailsService(PasswordEncoder passwordEncoder) {
         UserDetails user = User.builder()
             .username("admin")
-            .password(passwordEncoder().encode("admin123"))
+            .password(passwordEncoder.encode("admin123"))
             .roles("USER")
             .build();
 
         return new InMemoryUserDetailsManager(user);
     }
 
+    /**
+     * BCrypt, fronted by a cache of recently verified credentials unless
+     * {@code transfer.auth.credential-cache-size} is 0.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(TransferProperties transferProperties) {
+        TransferProperties.Auth config = transferProperties.getAuth();
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder();
+        if (config.getCredentialCacheSize() <= 0) {
+            return bcrypt;
+        }
+        return new CachingPasswordEncoder(bcrypt, config.getCredentialCacheSize(), config.getCredentialCacheTtl());
     }
 }
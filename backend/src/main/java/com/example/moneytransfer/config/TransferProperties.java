@@ -0,0 +1,582 @@
+package com.example.moneytransfer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "transfer")
+public class TransferProperties {
+
+    private final Retry retry = new Retry();
+
+    private final Ledger ledger = new Ledger();
+
+    private final Batch batch = new Batch();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final History history = new History();
+
+    private final Migration migration = new Migration();
+
+    private final AccountCache accountCache = new AccountCache();
+
+    private final Metrics metrics = new Metrics();
+
+    private final Admission admission = new Admission();
+
+    private final HotAccounts hotAccounts = new HotAccounts();
+
+    private final Outbox outbox = new Outbox();
+
+    private final GroupCommit groupCommit = new GroupCommit();
+
+    private final LedgerImport ledgerImport = new LedgerImport();
+
+    private final Journal journal = new Journal();
+
+    private final Audit audit = new Audit();
+
+    private final Rollups rollups = new Rollups();
+
+    private final Replicas replicas = new Replicas();
+
+    private final Archive archive = new Archive();
+
+    private final Auth auth = new Auth();
+
+    private final BinaryIngress binaryIngress = new BinaryIngress();
+
+    private final AccountDirectory accountDirectory = new AccountDirectory();
+
+    @Data
+    public static class Retry {
+        /**
+         * Total attempts (including the first) before a concurrency conflict is surfaced to the client.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Base delay between attempts; multiplied by the attempt number.
+         */
+        private Duration backoff = Duration.ofMillis(20);
+    }
+
+    @Data
+    public static class Ledger {
+        /**
+         * Execute transfers against in-memory account shards and persist to the database asynchronously.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of single-threaded shards; accounts are partitioned by id modulo this value.
+         */
+        private int shards = 4;
+
+        /**
+         * Maximum number of journal entries written to the database in one transaction.
+         */
+        private int journalBatchSize = 500;
+
+        /**
+         * How long the journal writer waits for more entries before flushing a partial batch.
+         */
+        private Duration flushInterval = Duration.ofMillis(5);
+
+        /**
+         * Directory of the write-ahead log that accepted transfers are forced to before they are
+         * acknowledged; required when the ledger is enabled.
+         */
+        private String walDirectory;
+
+        /**
+         * Size after which the write-ahead log starts a new segment file.
+         */
+        private DataSize walSegmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * Failed attempts at writing a batch before its entries are written one by one and those
+         * that keep failing are moved to the quarantine file.
+         */
+        private int journalMaxAttempts = 5;
+
+        /**
+         * Entries allowed to wait for the database; beyond this transfers are refused with TRX-503.
+         */
+        private int maxPendingEntries = 100_000;
+    }
+
+    @Data
+    public static class Batch {
+        /**
+         * Number of transfers applied per database transaction.
+         */
+        private int chunkSize = 200;
+
+        /**
+         * Largest number of transfers accepted in one batch request.
+         */
+        private int maxSize = 10000;
+    }
+
+    @Data
+    public static class Idempotency {
+        /**
+         * Keys per bloom filter generation; a full generation is retired after the next one fills up.
+         */
+        private int expectedKeys = 1_000_000;
+
+        /**
+         * Target probability that a new key still triggers a database lookup.
+         */
+        private double falsePositiveRate = 0.01;
+
+        /**
+         * Number of recent transfer responses kept for replaying client retries.
+         */
+        private int responseCacheSize = 10_000;
+    }
+
+    @Data
+    public static class History {
+        /**
+         * Transactions returned per page when the client does not ask for a page size.
+         */
+        private int defaultPageSize = 100;
+
+        /**
+         * Upper bound on the page size a client may request.
+         */
+        private int maxPageSize = 1000;
+    }
+
+    @Data
+    public static class Migration {
+        /**
+         * Run the online conversion of transaction_logs.id to BINARY(16) at startup.
+         */
+        private boolean binaryTransactionIds = false;
+
+        /**
+         * Switch to the converted table instead of copying into it. Only run once the copy has
+         * finished and every instance of the old version is stopped.
+         */
+        private boolean swap = false;
+
+        /**
+         * Rows copied per statement while backfilling the new table.
+         */
+        private int chunkSize = 5000;
+
+        /**
+         * Pause between chunks to leave headroom for live traffic.
+         */
+        private Duration chunkPause = Duration.ofMillis(50);
+    }
+
+    @Data
+    public static class AccountCache {
+        /**
+         * Serve account and balance reads from memory, refreshed after each committed transfer.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of accounts kept; least recently read accounts are evicted first.
+         */
+        private int maxSize = 100_000;
+    }
+
+    @Data
+    public static class Metrics {
+        /**
+         * Fraction of service/controller calls (0.0 to 1.0) that also get a per-call INFO log line.
+         */
+        private double logSampleRate = 0.0;
+    }
+
+    @Data
+    public static class Admission {
+        /**
+         * Limit concurrent API requests and shed the excess with 503 instead of queueing on the pool.
+         * Every admitted request counts, including cache-served reads and open transaction streams,
+         * so size {@code max-concurrent} for the deployment before enabling it.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Requests allowed to run at once; 0 uses the connection pool's maximum size.
+         */
+        private int maxConcurrent = 0;
+
+        /**
+         * Requests allowed to wait for a slot; beyond this they are shed immediately.
+         */
+        private int maxQueue = 200;
+
+        /**
+         * Latency budget for waiting for a slot before the request is shed.
+         */
+        private Duration queueTimeout = Duration.ofMillis(200);
+    }
+
+    @Data
+    public static class HotAccounts {
+        /**
+         * Sub-balance buckets an account's credits are spread across when it is marked hot.
+         */
+        private int buckets = 16;
+
+        /**
+         * How long the set of hot accounts is cached before it is re-read from the database.
+         */
+        private Duration refreshInterval = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Outbox {
+        /**
+         * Worker threads executing asynchronously submitted transfers on this node; 0 disables them.
+         */
+        private int workers = 4;
+
+        /**
+         * Maximum number of pending transfers claimed per poll.
+         */
+        private int batchSize = 100;
+
+        /**
+         * How long the poller waits for new submissions when the outbox is drained.
+         */
+        private Duration pollInterval = Duration.ofMillis(100);
+
+        /**
+         * How long a claimed transfer is reserved for its worker before others may retry it.
+         */
+        private Duration lease = Duration.ofSeconds(30);
+
+        /**
+         * Attempts before a transfer that keeps hitting conflicts or database errors is failed.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Delay before a transfer that hit a conflict or database error is attempted again.
+         */
+        private Duration retryDelay = Duration.ofSeconds(1);
+
+        /**
+         * How long finished entries are kept before they are purged; status polls and resubmitted
+         * keys are answered from the transaction log afterwards.
+         */
+        private Duration retention = Duration.ofDays(7);
+    }
+
+    @Data
+    public static class GroupCommit {
+        /**
+         * Apply concurrent single transfers in shared database transactions.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of transfers committed together.
+         */
+        private int maxSize = 64;
+
+        /**
+         * How long the first transfer of a group waits for others to join it.
+         */
+        private Duration maxWait = Duration.ofMillis(2);
+
+        /**
+         * Longest a caller waits for its group to commit before answering with a conflict.
+         */
+        private Duration submitTimeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class LedgerImport {
+        /**
+         * Lines applied per database transaction.
+         */
+        private int chunkSize = 5000;
+
+        /**
+         * Maximum number of rejected lines described in the import result.
+         */
+        private int maxErrors = 100;
+    }
+
+    @Data
+    public static class Journal {
+        /**
+         * Append debit and credit entries per transfer instead of updating balances in place.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How often the checkpointer looks for accounts that are due a checkpoint.
+         */
+        private Duration checkpointInterval = Duration.ofSeconds(5);
+
+        /**
+         * Entries appended to an account since its last checkpoint before it is due a new one.
+         */
+        private int checkpointEvery = 100;
+    }
+
+    @Data
+    public static class Audit {
+        /**
+         * Record every transfer attempt in the binary audit journal.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Absolute path of the directory holding the journal's segment files; required when the
+         * journal is enabled.
+         */
+        private String directory;
+
+        /**
+         * Size each segment file is preallocated to before the next one is started.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * When written records are forced to disk.
+         */
+        private FlushPolicy flushPolicy = FlushPolicy.INTERVAL;
+
+        /**
+         * How often records are forced to disk under {@link FlushPolicy#INTERVAL}.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        public enum FlushPolicy {
+            /** Leave write-back to the operating system. */
+            OS,
+            /** Force the current segment every {@code flush-interval}. */
+            INTERVAL,
+            /** Force every record as it is written; slowest, loses nothing on power failure. */
+            EVERY_RECORD
+        }
+    }
+
+    @Data
+    public static class Rollups {
+        /**
+         * Maintain per-account daily credit and debit totals as transfers commit. Off by default:
+         * every transfer then writes rollup rows too, and account_daily_rollups must exist. Run a
+         * backfill once after enabling it on a database with history.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Rollup rows per account and day that credits not holding the account's row lock are
+         * spread across.
+         */
+        private int creditStripes = 8;
+
+        /**
+         * Longest date range, in days, a single summary request may cover.
+         */
+        private int maxDays = 366;
+
+        /**
+         * Rebuild the rollups of closed days from transaction_logs at startup.
+         */
+        private boolean backfill = false;
+
+        /**
+         * Rows read (and rollup rows deleted) per backfill statement.
+         */
+        private int backfillChunkSize = 5000;
+
+        /**
+         * Pause between backfill chunks to limit the load on the primary.
+         */
+        private Duration backfillChunkPause = Duration.ofMillis(50);
+    }
+
+    @Data
+    public static class Replicas {
+        /**
+         * Route {@code @ReplicaRead} queries to the replica instances below.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Replica databases, each with its own connection pool.
+         */
+        private List<Instance> instances = new ArrayList<>();
+
+        /**
+         * Maximum pool size of each replica pool; 0 keeps the pool's default.
+         */
+        private int maxPoolSize = 0;
+
+        /**
+         * Replication lag above which a replica stops taking reads until it catches up.
+         */
+        private Duration maxLag = Duration.ofSeconds(1);
+
+        /**
+         * How often the heartbeat is written and every replica's health and lag re-measured.
+         */
+        private Duration healthCheckInterval = Duration.ofSeconds(1);
+
+        /**
+         * How long a client's reads stay on the primary after one of its writes; 0 disables pinning.
+         */
+        private Duration readYourWrites = Duration.ZERO;
+
+        @Data
+        public static class Instance {
+            private String url;
+            private String username;
+            private String password;
+        }
+    }
+
+    @Data
+    public static class Archive {
+        /**
+         * Move aged transaction_logs rows to the compressed archive and read history across both.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Run the archiver on this node. With several nodes sharing one archive directory,
+         * exactly one of them should archive; the others only read.
+         */
+        private boolean archiver = true;
+
+        /**
+         * Absolute path of the directory holding one sub-directory of segment files per month;
+         * required when the archive is enabled.
+         */
+        private String directory;
+
+        /**
+         * Age after which transfers leave transaction_logs. Idempotency keys are only enforced
+         * while their transfer is still in the table, so this must exceed any client retry window.
+         */
+        private Duration hotRetention = Duration.ofDays(90);
+
+        /**
+         * How often the archiver runs, and other nodes pick up new segments.
+         */
+        private Duration interval = Duration.ofHours(1);
+
+        /**
+         * Maximum rows per segment file, and per delete from transaction_logs.
+         */
+        private int chunkSize = 10000;
+
+        /**
+         * Pause between chunks, to limit the load the archiver puts on the primary.
+         */
+        private Duration chunkPause = Duration.ofMillis(50);
+
+        /**
+         * Number of decoded segments kept in memory for history reads.
+         */
+        private int cachedSegments = 8;
+    }
+
+    @Data
+    public static class Auth {
+        /**
+         * Maximum number of successfully verified credentials remembered, so repeated requests
+         * with the same HTTP Basic credentials skip BCrypt; 0 verifies every request.
+         */
+        private int credentialCacheSize = 10000;
+
+        /**
+         * How long a verified credential is trusted before BCrypt runs for it again.
+         */
+        private Duration credentialCacheTtl = Duration.ofMinutes(5);
+
+        /**
+         * Issue signed bearer tokens from POST /api/v1/auth/token and accept them on every API.
+         */
+        private boolean tokensEnabled = false;
+
+        /**
+         * HMAC key tokens are signed with, at least 32 bytes; every node must use the same one.
+         */
+        private String tokenSecret;
+
+        /**
+         * How long an issued token is accepted.
+         */
+        private Duration tokenTtl = Duration.ofMinutes(15);
+    }
+
+    @Data
+    public static class BinaryIngress {
+        /**
+         * Accept transfers in the binary format on a plain TCP port, for trusted internal clients.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Address the listener binds to. It has no authentication, so only widen this to an
+         * interface on the private network.
+         */
+        private String host = "127.0.0.1";
+
+        /**
+         * TCP port of the listener.
+         */
+        private int port = 9090;
+
+        /**
+         * Threads executing binary transfers; each holds a database connection while it runs.
+         */
+        private int workers = 16;
+
+        /**
+         * Transfers allowed to wait for a worker; beyond this they are shed with SYS-503.
+         */
+        private int queueSize = 1000;
+
+        /**
+         * Pipelined requests a connection may have outstanding before the server stops reading it.
+         */
+        private int maxInFlight = 64;
+    }
+
+    @Data
+    public static class AccountDirectory {
+        /**
+         * Keep every account's status in memory and reject transfers involving missing or
+         * inactive accounts without a database round trip.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How often accounts created since the last refresh, and accounts held as LOCKED or
+         * CLOSED, are read.
+         */
+        private Duration refreshInterval = Duration.ofSeconds(10);
+
+        /**
+         * How often every account is read again, picking up status changes made outside the API.
+         */
+        private Duration fullRefreshInterval = Duration.ofMinutes(15);
+
+        /**
+         * Accounts read per statement while loading.
+         */
+        private int chunkSize = 10000;
+    }
+}
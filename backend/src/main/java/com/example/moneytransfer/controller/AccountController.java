@@ -1,21 +1,34 @@
 package com.example.moneytransfer.controller;
 
 import com.example.moneytransfer.domain.dto.AccountResponse;
-import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.dto.AccountSummaryResponse;
+import com.example.moneytransfer.domain.dto.TransactionPageResponse;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.money.Money;
 import com.example.moneytransfer.service.AccountService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.math.BigDecimal;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/v1/accounts")
 @RequiredArgsConstructor
 public class AccountController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final AccountService accountService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{id}")
     public ResponseEntity<AccountResponse> getAccount(@PathVariable Long id) {
@@ -23,15 +36,80 @@ public class AccountController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Current balance, or with {@code asOf} the balance at that instant (journal mode only).
+     */
     @GetMapping("/{id}/balance")
-    public ResponseEntity<BigDecimal> getBalance(@PathVariable Long id) {
-        BigDecimal balance = accountService.getBalance(id);
+    public ResponseEntity<Money> getBalance(@PathVariable Long id,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant asOf) {
+        Money balance = asOf == null ? accountService.getBalance(id) : accountService.getBalanceAsOf(id, asOf);
         return ResponseEntity.ok(balance);
     }
 
+    /**
+     * Marks the account as hot so that concurrent credits to it stop contending on one row.
+     */
+    @PutMapping("/{id}/hot")
+    public ResponseEntity<AccountResponse> markHot(@PathVariable Long id) {
+        AccountResponse response = accountService.markHot(id);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Sets the account's status to ACTIVE, LOCKED or CLOSED; only ACTIVE accounts take part in transfers.
+     */
+    @PutMapping("/{id}/status")
+    public ResponseEntity<AccountResponse> changeStatus(@PathVariable Long id, @RequestParam AccountStatus status) {
+        AccountResponse response = accountService.changeStatus(id, status);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Credit and debit totals per UTC day and for the whole range {@code from..to}, both inclusive.
+     */
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<AccountSummaryResponse> getSummary(@PathVariable Long id,
+                                                             @RequestParam
+                                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam
+                                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AccountSummaryResponse summary = accountService.getSummary(id, from, to);
+        return ResponseEntity.ok(summary);
+    }
+
+    /**
+     * One page of the account's transactions, newest first, as {@code {transactions, nextCursor}}.
+     * Clients that read the former plain JSON array of the whole history follow {@code nextCursor}
+     * until it is null, or read {@code /transactions/stream} instead.
+     */
     @GetMapping("/{id}/transactions")
-    public ResponseEntity<List<TransactionLog>> getTransactions(@PathVariable Long id) {
-        List<TransactionLog> transactions = accountService.getTransactions(id);
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<TransactionPageResponse> getTransactions(@PathVariable Long id,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer limit) {
+        TransactionPageResponse page = accountService.getTransactions(id, cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Full transaction history as newline-delimited JSON, written as it is read, one keyset page at a time.
+     */
+    @GetMapping("/{id}/transactions/stream")
+    public ResponseEntity<StreamingResponseBody> streamTransactions(@PathVariable Long id) {
+        accountService.verifyAccountExists(id);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                accountService.streamTransactions(id, transaction -> {
+                    try {
+                        generator.writeObject(transaction);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
     }
 }
@@ -0,0 +1,29 @@
+package com.example.moneytransfer.controller;
+
+import com.example.moneytransfer.domain.dto.AuthTokenResponse;
+import com.example.moneytransfer.security.AuthTokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/auth")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "transfer.auth", name = "tokens-enabled", havingValue = "true")
+public class AuthController {
+
+    private final AuthTokenService authTokenService;
+
+    /**
+     * Issues a bearer token to the authenticated caller, so later requests skip password hashing.
+     * Only password credentials reach this method; {@code BearerTokenFilter} refuses tokens here.
+     */
+    @PostMapping("/token")
+    public ResponseEntity<AuthTokenResponse> issueToken(Authentication authentication) {
+        return ResponseEntity.ok(authTokenService.issue(authentication.getName()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.moneytransfer.controller;
+
+import com.example.moneytransfer.admission.AdmissionController;
+import com.example.moneytransfer.cache.AccountCache;
+import com.example.moneytransfer.domain.dto.AdmissionStatsResponse;
+import com.example.moneytransfer.domain.dto.CacheStatsResponse;
+import com.example.moneytransfer.domain.dto.MethodLatencyResponse;
+import com.example.moneytransfer.domain.dto.ReplicaStatsResponse;
+import com.example.moneytransfer.metrics.LatencyMetrics;
+import com.example.moneytransfer.replica.ReplicaRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v1/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final AccountCache accountCache;
+    private final LatencyMetrics latencyMetrics;
+    private final Optional<AdmissionController> admissionController;
+    private final Optional<ReplicaRouter> replicaRouter;
+
+    @GetMapping("/account-cache")
+    public ResponseEntity<CacheStatsResponse> getAccountCacheStats() {
+        return ResponseEntity.ok(accountCache.stats());
+    }
+
+    /**
+     * Latency percentiles (nanoseconds) and error counts per service/controller method since startup.
+     */
+    @GetMapping("/latency")
+    public ResponseEntity<List<MethodLatencyResponse>> getLatency() {
+        return ResponseEntity.ok(latencyMetrics.snapshot());
+    }
+
+    @GetMapping("/admission")
+    public ResponseEntity<AdmissionStatsResponse> getAdmissionStats() {
+        return admissionController.map(controller -> ResponseEntity.ok(controller.stats()))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Health and lag of each replica at its last check, and how replica-eligible reads were served.
+     */
+    @GetMapping("/replicas")
+    public ResponseEntity<ReplicaStatsResponse> getReplicaStats() {
+        return replicaRouter.map(router -> ResponseEntity.ok(router.stats()))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
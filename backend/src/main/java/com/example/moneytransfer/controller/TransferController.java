@@ -1,24 +1,77 @@
 package com.example.moneytransfer.controller;
 
+import com.example.moneytransfer.domain.dto.ImportResultResponse;
 import com.example.moneytransfer.domain.dto.TransferRequest;
 import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.service.BatchTransferService;
+import com.example.moneytransfer.service.LedgerImportService;
+import com.example.moneytransfer.service.TransferOutboxService;
 import com.example.moneytransfer.service.TransferService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/transfers")
 @RequiredArgsConstructor
 public class TransferController {
 
     private final TransferService transferService;
+    private final BatchTransferService batchTransferService;
+    private final TransferOutboxService transferOutboxService;
+    private final LedgerImportService ledgerImportService;
 
+    /**
+     * Executes the transfer and answers 201, or with {@code async=true} only queues it and
+     * answers 202 with the transaction id to poll at {@code GET /api/v1/transfers/{id}}.
+     */
     @PostMapping
-    public ResponseEntity<TransferResponse> transfer(@Valid @RequestBody TransferRequest request) {
+    public ResponseEntity<TransferResponse> transfer(@Valid @RequestBody TransferRequest request,
+                                                     @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            TransferResponse response = transferOutboxService.submit(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/v1/transfers/" + response.getTransactionId())
+                .body(response);
+        }
         TransferResponse response = transferService.transfer(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
+
+    /**
+     * Reports a transfer as PENDING, SUCCESS or FAILED.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<TransferResponse> getTransfer(@PathVariable String id) {
+        TransferResponse response = transferOutboxService.getTransfer(id);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Applies each transfer independently; the response holds one entry per request, in order,
+     * with status FAILED and the rejection reason for items that were not applied.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<TransferResponse>> transferBatch(@RequestBody List<TransferRequest> requests) {
+        List<TransferResponse> responses = batchTransferService.transferBatch(requests);
+        return ResponseEntity.ok(responses);
+    }
+
+    /**
+     * Imports a settlement file streamed as the request body, one
+     * {@code fromAccountId,toAccountId,amount,idempotencyKey} line per transfer.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ImportResultResponse> importTransfers(InputStream body) throws IOException {
+        ImportResultResponse result = ledgerImportService.importTransfers(body);
+        return ResponseEntity.ok(result);
+    }
 }
@@ -0,0 +1,294 @@
+package com.example.moneytransfer.directory;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.exception.AccountNotActiveException;
+import com.example.moneytransfer.domain.exception.AccountNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory map of account id to {@link AccountStatus}, so transfers involving a missing or
+ * inactive account are rejected before they open a transaction or lock a row. Each id takes two
+ * bits in pages of 65536 ids that are only allocated once they hold an account, which is about
+ * 2.5 MB for ten million densely numbered accounts.
+ * <p>
+ * The directory is loaded after startup and then kept current in three ways. Status changes made
+ * through {@link #updateAfterCommit} apply once their transaction commits. Every
+ * {@code refresh-interval}, accounts created since the last refresh are read, and so is every
+ * account held as LOCKED or CLOSED: those entries reject transfers, so a reactivation on another
+ * node must reach this one within one refresh. Every {@code full-refresh-interval}, all accounts
+ * are read again, which also picks up accounts deactivated directly in the database.
+ * <p>
+ * An account missing from the directory is only reported as not found when its id is at or below
+ * the highest id seen one refresh earlier. A newer account, or one whose creating transaction
+ * committed after a higher id was already visible, is treated as unknown until then. A stale
+ * ACTIVE entry costs nothing, because transfers still check the locked row.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.account-directory", name = "enabled", havingValue = "true",
+    matchIfMissing = true)
+@Slf4j
+public class AccountDirectory {
+
+    private static final int PAGE_BITS = 16;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int IDS_PER_WORD = Long.SIZE / 2;
+    private static final int MAX_PAGES = 1 << 20;
+    private static final int RECHECK_BATCH = 1000;
+
+    private static final int ABSENT = 0;
+    private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+    private static final RowMapper<long[]> ROW_MAPPER = (rs, rowNum) ->
+        new long[]{rs.getLong("id"), code(AccountStatus.valueOf(rs.getString("status")))};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransferProperties.AccountDirectory config;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+    // Ids up to here that are absent from the directory do not exist; -1 until the second load
+    private volatile long completeUpTo = -1;
+    private long previousHighestId = -1;
+    private long nextFullLoadAt;
+
+    public AccountDirectory(JdbcTemplate jdbcTemplate, TransferProperties transferProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = transferProperties.getAccountDirectory();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "account-directory");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long intervalMillis = Math.max(1, config.getRefreshInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::runOnce, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Does nothing if the account is ACTIVE or not known yet.
+     *
+     * @throws AccountNotFoundException if the account certainly does not exist
+     * @throws AccountNotActiveException if the account is known not to be ACTIVE
+     */
+    public void verifyActive(Long accountId) {
+        if (accountId == null) {
+            return;
+        }
+        int code = codeOf(accountId);
+        if (code == ABSENT) {
+            if (accountId <= completeUpTo) {
+                throw new AccountNotFoundException(accountId);
+            }
+        } else if (STATUSES[code - 1] != AccountStatus.ACTIVE) {
+            throw new AccountNotActiveException(accountId);
+        }
+    }
+
+    /**
+     * @return the account's status, or null if it is not in the directory
+     */
+    public AccountStatus statusOf(long accountId) {
+        int code = codeOf(accountId);
+        return code == ABSENT ? null : STATUSES[code - 1];
+    }
+
+    /**
+     * Records a status change once the surrounding transaction commits; nothing is recorded on
+     * rollback. Without an active transaction the change is recorded immediately.
+     */
+    public void updateAfterCommit(long accountId, AccountStatus status) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(accountId, status);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(accountId, status);
+            }
+        });
+    }
+
+    /**
+     * @return the number of accounts in the directory
+     */
+    public long size() {
+        long size = 0;
+        for (AtomicLongArray page : pages) {
+            if (page == null) {
+                continue;
+            }
+            for (int i = 0; i < page.length(); i++) {
+                long word = page.get(i);
+                // Count the 2-bit slots that are not ABSENT
+                size += Long.bitCount((word | word >>> 1) & 0x5555555555555555L);
+            }
+        }
+        return size;
+    }
+
+    private void runOnce() {
+        try {
+            long now = System.nanoTime();
+            if (completeUpTo < 0 || now - nextFullLoadAt >= 0) {
+                nextFullLoadAt = now + config.getFullRefreshInterval().toNanos();
+                load(0);
+            } else {
+                load(completeUpTo);
+                recheckInactive();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Refreshing the account directory failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every account above {@code afterId}, then moves the point up to which absent ids are
+     * known not to exist to the highest id the previous load saw.
+     */
+    void load(long afterId) {
+        long started = System.nanoTime();
+        int chunkSize = Math.max(1, config.getChunkSize());
+        long lastId = afterId;
+        long read = 0;
+        List<long[]> rows;
+        do {
+            rows = jdbcTemplate.query("SELECT id, status FROM accounts WHERE id > ? ORDER BY id LIMIT ?",
+                ROW_MAPPER, lastId, chunkSize);
+            for (long[] row : rows) {
+                put(row[0], (int) row[1]);
+                lastId = row[0];
+            }
+            read += rows.size();
+        } while (rows.size() == chunkSize);
+
+        if (previousHighestId > completeUpTo) {
+            completeUpTo = previousHighestId;
+        }
+        previousHighestId = Math.max(previousHighestId, lastId);
+        if (afterId == 0) {
+            log.info("Account directory loaded {} accounts up to id {} in {} ms", read, lastId,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+    }
+
+    /**
+     * Re-reads the accounts the directory holds as anything but ACTIVE.
+     */
+    void recheckInactive() {
+        List<Long> inactive = new ArrayList<>();
+        int activeCode = code(AccountStatus.ACTIVE);
+        AtomicLongArray[] current = pages;
+        for (int p = 0; p < current.length; p++) {
+            AtomicLongArray page = current[p];
+            if (page == null) {
+                continue;
+            }
+            for (int i = 0; i < page.length(); i++) {
+                long word = page.get(i);
+                for (int slot = 0; word != 0; slot++, word >>>= 2) {
+                    int code = (int) (word & 3);
+                    if (code != ABSENT && code != activeCode) {
+                        inactive.add(((long) p << PAGE_BITS) + (long) i * IDS_PER_WORD + slot);
+                    }
+                }
+            }
+        }
+
+        for (int from = 0; from < inactive.size(); from += RECHECK_BATCH) {
+            List<Long> batch = inactive.subList(from, Math.min(from + RECHECK_BATCH, inactive.size()));
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+            for (long[] row : jdbcTemplate.query("SELECT id, status FROM accounts WHERE id IN (" + placeholders + ")",
+                ROW_MAPPER, batch.toArray())) {
+                put(row[0], (int) row[1]);
+            }
+        }
+    }
+
+    void put(long accountId, AccountStatus status) {
+        put(accountId, code(status));
+    }
+
+    private void put(long accountId, int code) {
+        if (accountId < 0 || (accountId >>> PAGE_BITS) >= MAX_PAGES) {
+            // Such ids stay unknown and are left to the database
+            return;
+        }
+        AtomicLongArray page = page((int) (accountId >>> PAGE_BITS));
+        int index = (int) (accountId & (PAGE_SIZE - 1));
+        int word = index / IDS_PER_WORD;
+        int shift = (index % IDS_PER_WORD) * 2;
+        long current;
+        long updated;
+        do {
+            current = page.get(word);
+            updated = (current & ~(3L << shift)) | ((long) code << shift);
+        } while (current != updated && !page.compareAndSet(word, current, updated));
+    }
+
+    private int codeOf(long accountId) {
+        if (accountId < 0) {
+            return ABSENT;
+        }
+        AtomicLongArray[] current = pages;
+        long pageIndex = accountId >>> PAGE_BITS;
+        if (pageIndex >= current.length || current[(int) pageIndex] == null) {
+            return ABSENT;
+        }
+        int index = (int) (accountId & (PAGE_SIZE - 1));
+        return (int) (current[(int) pageIndex].get(index / IDS_PER_WORD) >>> ((index % IDS_PER_WORD) * 2)) & 3;
+    }
+
+    private AtomicLongArray page(int pageIndex) {
+        AtomicLongArray[] current = pages;
+        if (pageIndex < current.length && current[pageIndex] != null) {
+            return current[pageIndex];
+        }
+        synchronized (this) {
+            current = pages;
+            if (pageIndex >= current.length) {
+                current = Arrays.copyOf(current, pageIndex + 1);
+            } else if (current[pageIndex] != null) {
+                return current[pageIndex];
+            } else {
+                current = current.clone();
+            }
+            AtomicLongArray page = new AtomicLongArray(PAGE_SIZE / IDS_PER_WORD);
+            current[pageIndex] = page;
+            pages = current;
+            return page;
+        }
+    }
+
+    // 1 to 3; a fourth status would need a third bit per account
+    private static int code(AccountStatus status) {
+        return status.ordinal() + 1;
+    }
+}
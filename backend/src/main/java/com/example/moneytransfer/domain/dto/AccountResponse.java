@@ -1,12 +1,11 @@
 package com.example.moneytransfer.domain.dto;
 
+import com.example.moneytransfer.domain.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,6 +13,6 @@ import java.math.BigDecimal;
 public class AccountResponse {
     private Long id;
     private String holderName;
-    private BigDecimal balance;
+    private Money balance;
     private String status;
 }
@@ -0,0 +1,32 @@
+package com.example.moneytransfer.domain.dto;
+
+import com.example.moneytransfer.domain.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountSummaryResponse {
+    private Long accountId;
+    private LocalDate from;
+    private LocalDate to;
+    private Money credited;
+    private long creditCount;
+    private Money debited;
+    private long debitCount;
+    /**
+     * Credited minus debited over the whole range.
+     */
+    private Money net;
+    /**
+     * Totals of each day in the range with at least one transfer, oldest first.
+     */
+    private List<DailySummaryResponse> days;
+}
@@ -0,0 +1,19 @@
+package com.example.moneytransfer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdmissionStatsResponse {
+    private int maxConcurrent;
+    private int inFlight;
+    private int waiting;
+    private long admitted;
+    private long queued;
+    private long shed;
+}
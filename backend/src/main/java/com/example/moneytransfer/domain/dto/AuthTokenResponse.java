@@ -0,0 +1,17 @@
+package com.example.moneytransfer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuthTokenResponse {
+    private String token;
+    private Instant expiresAt;
+}
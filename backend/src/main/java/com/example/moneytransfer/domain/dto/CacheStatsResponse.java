@@ -0,0 +1,18 @@
+package com.example.moneytransfer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsResponse {
+    private long size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRatio;
+}
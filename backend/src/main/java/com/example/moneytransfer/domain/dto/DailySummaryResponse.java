@@ -0,0 +1,24 @@
+package com.example.moneytransfer.domain.dto;
+
+import com.example.moneytransfer.domain.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySummaryResponse {
+    /**
+     * UTC day the totals cover.
+     */
+    private LocalDate date;
+    private Money credited;
+    private long creditCount;
+    private Money debited;
+    private long debitCount;
+}
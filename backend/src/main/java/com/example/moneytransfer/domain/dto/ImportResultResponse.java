@@ -0,0 +1,20 @@
+package com.example.moneytransfer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportResultResponse {
+    private long lines;
+    private long imported;
+    private long duplicates;
+    private long rejected;
+    private List<String> errors;
+}
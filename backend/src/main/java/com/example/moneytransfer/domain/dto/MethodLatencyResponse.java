@@ -0,0 +1,21 @@
+package com.example.moneytransfer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MethodLatencyResponse {
+    private String method;
+    private long count;
+    private long errors;
+    private double meanNanos;
+    private long p50Nanos;
+    private long p99Nanos;
+    private long p999Nanos;
+    private long maxNanos;
+}
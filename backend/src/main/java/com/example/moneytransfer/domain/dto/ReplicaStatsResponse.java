@@ -0,0 +1,36 @@
+package com.example.moneytransfer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReplicaStatsResponse {
+    private long replicaReads;
+    /**
+     * Replica-eligible reads sent to the primary because no replica was usable.
+     */
+    private long primaryFallbacks;
+    private int pinnedClients;
+    private List<Replica> replicas;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Replica {
+        private String name;
+        private boolean usable;
+        /**
+         * Lag at the last health check, or -1 if it could not be measured.
+         */
+        private long lagMillis;
+        private String lastError;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.moneytransfer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionPageResponse {
+    private List<TransactionResponse> transactions;
+    /**
+     * Opaque cursor for the next (older) page, or null when this is the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.example.moneytransfer.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionResponse {
+    private String id;
+    private Long fromAccountId;
+    private Long toAccountId;
+    private BigDecimal amount;
+    private String status;
+    private String failureReason;
+    private String idempotencyKey;
+    private Instant createdOn;
+}
@@ -1,13 +1,12 @@
 package com.example.moneytransfer.domain.dto;
 
-import jakarta.validation.constraints.DecimalMin;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.domain.money.PositiveMoney;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,8 +19,8 @@ public class TransferRequest {
     private Long toAccountId;
 
     @NotNull(message = "Amount cannot be null")
-    @DecimalMin(value = "0.01", message = "Amount must be at least 0.01")
-    private BigDecimal amount;
+    @PositiveMoney(message = "Amount must be at least 0.01")
+    private Money amount;
 
     @NotNull(message = "Idempotency key cannot be null")
     private String idempotencyKey;
@@ -1,12 +1,11 @@
 package com.example.moneytransfer.domain.dto;
 
+import com.example.moneytransfer.domain.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,5 +16,5 @@ public class TransferResponse {
     private String message;
     private Long debitedFrom;
     private Long creditedTo;
-    private BigDecimal amount;
+    private Money amount;
 }
@@ -2,13 +2,14 @@ package com.example.moneytransfer.domain.entity;
 
 import com.example.moneytransfer.domain.enums.AccountStatus;
 import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.domain.money.MoneyConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
@@ -26,8 +27,9 @@ public class Account {
     @Column(name = "holder_name", nullable = false)
     private String holderName;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "balance", nullable = false, precision = 18, scale = 2)
-    private BigDecimal balance;
+    private Money balance;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 20)
@@ -40,6 +42,12 @@ public class Account {
     @Column(name = "last_updated")
     private Instant lastUpdated;
 
+    /**
+     * Number of sub-balance buckets credits are spread across; 0 for a regular account.
+     */
+    @Column(name = "balance_buckets", nullable = false)
+    private int balanceBuckets;
+
     @PreUpdate
     @PrePersist
     protected void updateTimestamp() {
@@ -53,19 +61,16 @@ public class Account {
      * @throws InsufficientBalanceException if the account balance is less than the amount
      * @throws IllegalArgumentException if the amount is not positive
      */
-    public void debit(BigDecimal amount) {
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public void debit(Money amount) {
+        if (amount == null || !amount.isPositive()) {
             throw new IllegalArgumentException("Amount must be greater than zero");
         }
         
-        if (this.balance.compareTo(amount) < 0) {
-            throw new InsufficientBalanceException(
-                String.format("Insufficient balance. Current balance: %s, Required: %s", 
-                    this.balance, amount)
-            );
+        if (this.balance.isLessThan(amount)) {
+            throw InsufficientBalanceException.instance();
         }
         
-        this.balance = this.balance.subtract(amount);
+        this.balance = this.balance.minus(amount);
     }
 
     /**
@@ -74,12 +79,12 @@ public class Account {
      * @param amount the amount to credit (must be positive)
      * @throws IllegalArgumentException if the amount is not positive
      */
-    public void credit(BigDecimal amount) {
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public void credit(Money amount) {
+        if (amount == null || !amount.isPositive()) {
             throw new IllegalArgumentException("Amount must be greater than zero");
         }
         
-        this.balance = this.balance.add(amount);
+        this.balance = this.balance.plus(amount);
     }
 
     /**
@@ -90,4 +95,13 @@ public class Account {
     public boolean isActive() {
         return AccountStatus.ACTIVE.equals(this.status);
     }
+
+    /**
+     * Checks if the account is hot, i.e. part of its balance is held in sub-balance buckets.
+     *
+     * @return true if the account has balance buckets, false otherwise
+     */
+    public boolean isHot() {
+        return this.balanceBuckets > 0;
+    }
 }
@@ -1,13 +1,20 @@
 package com.example.moneytransfer.domain.entity;
 
 import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.domain.money.MoneyConverter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -17,10 +24,12 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class TransactionLog {
+public class TransactionLog implements Persistable<UUID> {
 
+    // Time-ordered (v7) UUID stored as BINARY(16) so inserts append to the clustered index
     @Id
-    @Column(name = "id", length = 36)
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "id", columnDefinition = "BINARY(16)")
     private UUID id;
 
     @Column(name = "from_account", nullable = false)
@@ -29,8 +38,9 @@ public class TransactionLog {
     @Column(name = "to_account", nullable = false)
     private Long toAccountId;
 
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "amount", nullable = false, precision = 18, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, length = 20)
@@ -45,10 +55,29 @@ public class TransactionLog {
     @Column(name = "created_on", nullable = false)
     private Instant createdOn;
 
+    // Ids are assigned by the application, so Spring Data cannot tell new rows from existing ones
+    // by id alone; tracking it here lets save() persist directly and lets inserts be JDBC-batched.
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private boolean persisted;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markPersisted() {
+        this.persisted = true;
+    }
+
     @PrePersist
     protected void onCreate() {
         if (this.id == null) {
-            this.id = UUID.randomUUID();
+            this.id = TimeOrderedUuid.next();
         }
         if (this.createdOn == null) {
             this.createdOn = Instant.now();
@@ -1,6 +1,7 @@
 package com.example.moneytransfer.domain.enums;
 
 public enum TransactionStatus {
+    PENDING,
     SUCCESS,
     FAILED
 }
@@ -1,12 +1,21 @@
 package com.example.moneytransfer.domain.exception;
 
-public class AccountNotActiveException extends RuntimeException {
-    
+public class AccountNotActiveException extends TransferRejectedException {
+
+    private final Long accountId;
+
     public AccountNotActiveException(String message) {
         super(message);
+        this.accountId = null;
     }
 
     public AccountNotActiveException(Long accountId) {
-        super(String.format("Account with ID %d is not active", accountId));
+        super(null);
+        this.accountId = accountId;
+    }
+
+    @Override
+    public String getMessage() {
+        return accountId == null ? super.getMessage() : "Account with ID " + accountId + " is not active";
     }
 }
@@ -1,12 +1,21 @@
 package com.example.moneytransfer.domain.exception;
 
-public class AccountNotFoundException extends RuntimeException {
-    
+public class AccountNotFoundException extends TransferRejectedException {
+
+    private final Long accountId;
+
     public AccountNotFoundException(String message) {
         super(message);
+        this.accountId = null;
     }
 
     public AccountNotFoundException(Long accountId) {
-        super(String.format("Account with ID %d not found", accountId));
+        super(null);
+        this.accountId = accountId;
+    }
+
+    @Override
+    public String getMessage() {
+        return accountId == null ? super.getMessage() : "Account with ID " + accountId + " not found";
     }
 }
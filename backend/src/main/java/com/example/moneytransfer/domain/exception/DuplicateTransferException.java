@@ -1,13 +1,26 @@
 package com.example.moneytransfer.domain.exception;
 
-public class DuplicateTransferException extends RuntimeException {
-    
+public class DuplicateTransferException extends TransferRejectedException {
+
+    private final String idempotencyKey;
+    private final String transactionId;
+
     public DuplicateTransferException(String message) {
         super(message);
+        this.idempotencyKey = null;
+        this.transactionId = null;
     }
 
     public DuplicateTransferException(String idempotencyKey, String transactionId) {
-        super(String.format("Duplicate transfer detected. Idempotency key: %s, Transaction ID: %s", 
-            idempotencyKey, transactionId));
+        super(null);
+        this.idempotencyKey = idempotencyKey;
+        this.transactionId = transactionId;
+    }
+
+    @Override
+    public String getMessage() {
+        return idempotencyKey == null
+            ? super.getMessage()
+            : "Duplicate transfer detected. Idempotency key: " + idempotencyKey + ", Transaction ID: " + transactionId;
     }
 }
@@ -1,8 +1,17 @@
 package com.example.moneytransfer.domain.exception;
 
-public class InsufficientBalanceException extends RuntimeException {
-    
+public class InsufficientBalanceException extends TransferRejectedException {
+
+    private static final InsufficientBalanceException INSTANCE = new InsufficientBalanceException("Insufficient balance");
+
     public InsufficientBalanceException(String message) {
         super(message);
     }
+
+    /**
+     * Shared instance for the transfer paths; being stackless it carries no per-throw state.
+     */
+    public static InsufficientBalanceException instance() {
+        return INSTANCE;
+    }
 }
@@ -0,0 +1,8 @@
+package com.example.moneytransfer.domain.exception;
+
+public class TransactionNotFoundException extends RuntimeException {
+
+    public TransactionNotFoundException(String transactionId) {
+        super(String.format("Transaction with ID %s not found", transactionId));
+    }
+}
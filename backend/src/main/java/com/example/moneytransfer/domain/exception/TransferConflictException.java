@@ -0,0 +1,13 @@
+package com.example.moneytransfer.domain.exception;
+
+public class TransferConflictException extends RuntimeException {
+
+    public TransferConflictException(String message) {
+        super(message);
+    }
+
+    public TransferConflictException(String idempotencyKey, int attempts, Throwable cause) {
+        super(String.format("Transfer could not be completed due to concurrent updates after %d attempts. Idempotency key: %s",
+            attempts, idempotencyKey), cause);
+    }
+}
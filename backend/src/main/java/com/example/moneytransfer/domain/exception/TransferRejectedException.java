@@ -0,0 +1,13 @@
+package com.example.moneytransfer.domain.exception;
+
+/**
+ * An expected business rejection of a request. Rejections can outnumber successful transfers
+ * under abusive or misconfigured clients, so they skip the stack trace and suppression list, and
+ * subclasses only build their message when it is read.
+ */
+public abstract class TransferRejectedException extends RuntimeException {
+
+    protected TransferRejectedException(String message) {
+        super(message, null, false, false);
+    }
+}
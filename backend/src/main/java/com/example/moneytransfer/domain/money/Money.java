@@ -0,0 +1,113 @@
+package com.example.moneytransfer.domain.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+
+/**
+ * An amount of money as a {@code long} count of minor units (hundredths), matching the
+ * {@code DECIMAL(18,2)} columns. Comparisons and arithmetic work on the primitive, so the
+ * debit/credit path creates no {@link BigDecimal} garbage; arithmetic throws
+ * {@link ArithmeticException} instead of silently overflowing.
+ * <p>
+ * Conversions from decimal values are strict: more than two decimal places is rejected rather
+ * than rounded. Stored through {@link MoneyConverter} and written to JSON as a plain number with
+ * two decimals, like the {@code BigDecimal}s it replaces.
+ */
+@JsonSerialize(using = MoneyJsonSerializer.class)
+@JsonDeserialize(using = MoneyJsonDeserializer.class)
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value has more than two decimal places or does not
+     *                                  fit in a {@code long} of minor units
+     */
+    public static Money of(BigDecimal value) {
+        try {
+            return ofMinor(value.movePointRight(SCALE).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(value.stripTrailingZeros().scale() > SCALE
+                ? "Amount must have at most " + SCALE + " decimal places: " + value
+                : "Amount out of range: " + value);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException as {@link #of(BigDecimal)}, or if the text is not a number
+     */
+    public static Money parse(String value) {
+        try {
+            return of(new BigDecimal(value));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + value);
+        }
+    }
+
+    public long minorUnits() {
+        return minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && minorUnits == other.minorUnits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    /**
+     * The plain decimal form with exactly two decimals, e.g. {@code -0.05} or {@code 1200.00}.
+     */
+    @Override
+    public String toString() {
+        long units = Math.abs(minorUnits / 100);
+        long cents = Math.abs(minorUnits % 100);
+        return (minorUnits < 0 ? "-" : "") + units + (cents < 10 ? ".0" : ".") + cents;
+    }
+}
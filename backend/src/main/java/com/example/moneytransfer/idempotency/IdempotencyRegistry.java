@@ -0,0 +1,123 @@
+package com.example.moneytransfer.idempotency;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.exception.DuplicateTransferException;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Node-local knowledge of idempotency keys this node has committed.
+ * <p>
+ * A generational bloom filter answers "definitely new" for most keys so callers can skip the
+ * database lookup; it may miss keys committed by other nodes or before a restart, so the unique
+ * index on {@code transaction_logs.idempotency_key} stays the source of truth. A bounded LRU map
+ * keeps the responses of recent transfers so a client retry gets the original result replayed.
+ */
+@Component
+public class IdempotencyRegistry {
+
+    private final int expectedKeys;
+    private final double falsePositiveRate;
+    private final Map<String, TransferResponse> responses;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+
+    public IdempotencyRegistry(TransferProperties transferProperties) {
+        TransferProperties.Idempotency config = transferProperties.getIdempotency();
+        this.expectedKeys = config.getExpectedKeys();
+        this.falsePositiveRate = config.getFalsePositiveRate();
+        this.current = new BloomFilter(expectedKeys, falsePositiveRate);
+        int cacheSize = config.getResponseCacheSize();
+        this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TransferResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * @return false only if this node has certainly never committed a transfer with the key
+     */
+    public boolean mightExist(String idempotencyKey) {
+        BloomFilter older = previous;
+        return current.mightContain(idempotencyKey) || (older != null && older.mightContain(idempotencyKey));
+    }
+
+    /**
+     * Returns the cached response of an earlier transfer with the same key, if this node still has it.
+     *
+     * @throws DuplicateTransferException if the key was used for a transfer with a different payload
+     */
+    public Optional<TransferResponse> cachedResponse(TransferRequest request) {
+        TransferResponse response;
+        synchronized (responses) {
+            response = responses.get(request.getIdempotencyKey());
+        }
+        if (response == null) {
+            return Optional.empty();
+        }
+        if (!matches(request, response)) {
+            throw new DuplicateTransferException(request.getIdempotencyKey(), response.getTransactionId());
+        }
+        return Optional.of(response);
+    }
+
+    /**
+     * Rebuilds the response of an already committed transfer so it can be replayed to a retrying client.
+     *
+     * @throws DuplicateTransferException if the key was used for a transfer with a different payload
+     */
+    public TransferResponse replay(TransferRequest request, TransactionLog existing) {
+        TransferResponse response = TransferResponse.builder()
+            .transactionId(existing.getId().toString())
+            .status(existing.getStatus().name())
+            .message(TransactionStatus.SUCCESS.equals(existing.getStatus())
+                ? "Transfer completed successfully"
+                : existing.getFailureReason())
+            .debitedFrom(existing.getFromAccountId())
+            .creditedTo(existing.getToAccountId())
+            .amount(existing.getAmount())
+            .build();
+        if (!matches(request, response)) {
+            throw new DuplicateTransferException(request.getIdempotencyKey(), response.getTransactionId());
+        }
+        return response;
+    }
+
+    /**
+     * Registers a committed transfer. Must only be called after the transaction has committed.
+     */
+    public void record(String idempotencyKey, TransferResponse response) {
+        BloomFilter filter = current;
+        if (filter.isSaturated()) {
+            synchronized (this) {
+                if (current == filter) {
+                    previous = filter;
+                    current = new BloomFilter(expectedKeys, falsePositiveRate);
+                }
+            }
+        }
+        current.put(idempotencyKey);
+        synchronized (responses) {
+            responses.put(idempotencyKey, response);
+        }
+    }
+
+    private static boolean matches(TransferRequest request, TransferResponse response) {
+        return Objects.equals(request.getFromAccountId(), response.getDebitedFrom())
+            && Objects.equals(request.getToAccountId(), response.getCreditedTo())
+            && request.getAmount() != null
+            && response.getAmount() != null
+            && request.getAmount().equals(response.getAmount());
+    }
+}
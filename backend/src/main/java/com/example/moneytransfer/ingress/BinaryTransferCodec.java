@@ -0,0 +1,169 @@
+package com.example.moneytransfer.ingress;
+
+import com.example.moneytransfer.domain.dto.ErrorResponse;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.money.Money;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Wire format of the {@link BinaryTransferServer}. Every frame is a big-endian {@code int}
+ * payload length followed by the payload; strings are an unsigned {@code short} byte length
+ * (0xFFFF for null) followed by UTF-8, and amounts are minor units.
+ * <pre>
+ * request   int requestId, byte type (1 = transfer), long fromAccountId, long toAccountId,
+ *           long amount, string idempotencyKey
+ * response  int requestId, byte kind, then for kind 0 (transfer): byte status (ordinal of
+ *           TransactionStatus), long transactionId msb, long lsb (0, 0 for none),
+ *           long debitedFrom, long creditedTo, long amount, string message;
+ *           for kind 1 (error): string errorCode, string message
+ * </pre>
+ * The request id is chosen by the client and echoed back, so a client can pipeline requests on
+ * one connection and match responses, which may arrive in a different order.
+ */
+final class BinaryTransferCodec {
+
+    static final byte TYPE_TRANSFER = 1;
+    static final byte KIND_TRANSFER = 0;
+    static final byte KIND_ERROR = 1;
+
+    /** Largest payload accepted; a longer frame means the client is broken and is disconnected. */
+    static final int MAX_FRAME = 1024;
+
+    static final int HEADER = Integer.BYTES;
+    /** Smallest payload that still carries a request id to answer. */
+    static final int MIN_FRAME = Integer.BYTES;
+    private static final int REQUEST_ID = Integer.BYTES;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final TransactionStatus[] STATUSES = TransactionStatus.values();
+
+    private BinaryTransferCodec() {
+    }
+
+    /**
+     * A request as read off the wire, or the reason it could not be decoded.
+     */
+    record Frame(int requestId, TransferRequest request, String malformed) {
+    }
+
+    /**
+     * A response as read off the wire; exactly one of {@code response} and {@code error} is set.
+     */
+    record Result(int requestId, TransferResponse response, ErrorResponse error) {
+    }
+
+    static Frame decodeRequest(ByteBuffer payload) {
+        int requestId = payload.getInt();
+        try {
+            byte type = payload.get();
+            if (type != TYPE_TRANSFER) {
+                return new Frame(requestId, null, "unknown request type " + type);
+            }
+            TransferRequest request = new TransferRequest(payload.getLong(), payload.getLong(),
+                Money.ofMinor(payload.getLong()), getString(payload));
+            if (payload.hasRemaining()) {
+                return new Frame(requestId, null, "trailing bytes after transfer");
+            }
+            return new Frame(requestId, request, null);
+        } catch (RuntimeException e) {
+            // Truncated payload or a string running past its end
+            return new Frame(requestId, null, "truncated transfer");
+        }
+    }
+
+    static ByteBuffer encodeRequest(int requestId, TransferRequest request) {
+        byte[] key = bytes(request.getIdempotencyKey());
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + REQUEST_ID + 1 + 3 * Long.BYTES + stringSize(key));
+        buffer.putInt(buffer.capacity() - HEADER)
+            .putInt(requestId)
+            .put(TYPE_TRANSFER)
+            .putLong(request.getFromAccountId())
+            .putLong(request.getToAccountId())
+            .putLong(request.getAmount().minorUnits());
+        putString(buffer, key);
+        return buffer.flip();
+    }
+
+    static ByteBuffer encodeResponse(int requestId, TransferResponse response) {
+        byte[] message = bytes(response.getMessage());
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + REQUEST_ID + 2 + 5 * Long.BYTES + stringSize(message));
+        buffer.putInt(buffer.capacity() - HEADER)
+            .putInt(requestId)
+            .put(KIND_TRANSFER)
+            .put((byte) TransactionStatus.valueOf(response.getStatus()).ordinal());
+        if (response.getTransactionId() == null) {
+            buffer.putLong(0).putLong(0);
+        } else {
+            UUID id = UUID.fromString(response.getTransactionId());
+            buffer.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+        }
+        buffer.putLong(response.getDebitedFrom())
+            .putLong(response.getCreditedTo())
+            .putLong(response.getAmount().minorUnits());
+        putString(buffer, message);
+        return buffer.flip();
+    }
+
+    static ByteBuffer encodeError(int requestId, String errorCode, String message) {
+        byte[] code = bytes(errorCode);
+        byte[] text = bytes(message);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + REQUEST_ID + 1 + stringSize(code) + stringSize(text));
+        buffer.putInt(buffer.capacity() - HEADER)
+            .putInt(requestId)
+            .put(KIND_ERROR);
+        putString(buffer, code);
+        putString(buffer, text);
+        return buffer.flip();
+    }
+
+    static Result decodeResult(ByteBuffer payload) {
+        int requestId = payload.getInt();
+        if (payload.get() == KIND_ERROR) {
+            return new Result(requestId, null, new ErrorResponse(getString(payload), getString(payload)));
+        }
+        TransactionStatus status = STATUSES[payload.get()];
+        long msb = payload.getLong();
+        long lsb = payload.getLong();
+        TransferResponse response = TransferResponse.builder()
+            .status(status.name())
+            .transactionId(msb == 0 && lsb == 0 ? null : new UUID(msb, lsb).toString())
+            .debitedFrom(payload.getLong())
+            .creditedTo(payload.getLong())
+            .amount(Money.ofMinor(payload.getLong()))
+            .message(getString(payload))
+            .build();
+        return new Result(requestId, response, null);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringSize(byte[] value) {
+        return Short.BYTES + (value == null ? 0 : Math.min(value.length, NULL_STRING - 1));
+    }
+
+    // Strings longer than the length field allows are cut; only messages can get near that
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putShort((short) NULL_STRING);
+            return;
+        }
+        int length = Math.min(value.length, NULL_STRING - 1);
+        buffer.putShort((short) length).put(value, 0, length);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] value = new byte[length];
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
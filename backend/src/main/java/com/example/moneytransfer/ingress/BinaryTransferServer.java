@@ -0,0 +1,365 @@
+package com.example.moneytransfer.ingress;
+
+import com.example.moneytransfer.audit.AuditOutcome;
+import com.example.moneytransfer.audit.TransferAuditJournal;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.exception.AccountNotActiveException;
+import com.example.moneytransfer.domain.exception.AccountNotFoundException;
+import com.example.moneytransfer.domain.exception.DuplicateTransferException;
+import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.exception.TransferConflictException;
+import com.example.moneytransfer.service.TransferService;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * TCP listener for trusted internal clients that submit transfers in the compact
+ * {@link BinaryTransferCodec} format instead of JSON over HTTP. Transfers go through the same
+ * {@link TransferService#transfer(TransferRequest)} as {@code POST /api/v1/transfers}, after the
+ * same bean validation, and failures carry the error codes of the HTTP API.
+ * <p>
+ * One selector thread reads and writes every connection without blocking; decoded requests run
+ * on a fixed pool of workers, since a transfer blocks on the database. A client may pipeline up
+ * to {@code max-in-flight} requests per connection before the server stops reading from it, and
+ * requests beyond what the workers' queue holds are answered with SYS-503 right away.
+ * <p>
+ * The listener has no authentication or TLS, so it binds to loopback unless configured
+ * otherwise and must only be reachable from the private network.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.binary-ingress", name = "enabled", havingValue = "true")
+@Slf4j
+public class BinaryTransferServer {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_GATHER = 64;
+
+    private final TransferService transferService;
+    private final Validator validator;
+    private final Optional<TransferAuditJournal> auditJournal;
+    private final TransferProperties.BinaryIngress config;
+    private final Queue<Connection> flushable = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+
+    private ThreadPoolExecutor workers;
+    private Selector selector;
+    private ServerSocketChannel server;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    public BinaryTransferServer(TransferService transferService, Validator validator,
+                                Optional<TransferAuditJournal> auditJournal,
+                                TransferProperties transferProperties) {
+        this.transferService = transferService;
+        this.validator = validator;
+        this.auditJournal = auditJournal;
+        this.config = transferProperties.getBinaryIngress();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        AtomicInteger sequence = new AtomicInteger();
+        workers = new ThreadPoolExecutor(config.getWorkers(), config.getWorkers(), 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, config.getQueueSize())), runnable -> {
+                Thread thread = new Thread(runnable, "binary-ingress-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(config.getHost(), config.getPort()));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+
+        running = true;
+        selectorThread = new Thread(this::selectLoop, "binary-ingress-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Binary transfer ingress listening on {}", server.getLocalAddress());
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+        workers.shutdown();
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    /**
+     * @return the port the listener is bound to, which differs from the configured one when that is 0
+     */
+    public int port() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    private void selectLoop() {
+        while (running) {
+            try {
+                selector.select();
+                Connection flushed;
+                while ((flushed = flushable.poll()) != null) {
+                    flushed.scheduled.set(false);
+                    if (flushed.key.isValid()) {
+                        flushed.flushAndResume();
+                    }
+                }
+                Set<SelectionKey> selected = selector.selectedKeys();
+                for (SelectionKey key : selected) {
+                    handle(key);
+                }
+                selected.clear();
+            } catch (IOException e) {
+                log.warn("Binary ingress selector failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isWritable()) {
+                connection.flush();
+            }
+            if (key.isValid() && key.isReadable()) {
+                connection.read();
+            }
+        } catch (IOException e) {
+            log.debug("Binary ingress connection {} closed: {}", connection.remote, e.getMessage());
+            connection.close();
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = server.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new Connection(channel, key));
+            }
+        } catch (IOException e) {
+            log.warn("Binary ingress failed to accept a connection: {}", e.getMessage());
+        }
+    }
+
+    private ByteBuffer execute(BinaryTransferCodec.Frame frame) {
+        int requestId = frame.requestId();
+        if (frame.malformed() != null) {
+            return BinaryTransferCodec.encodeError(requestId, "VAL-422", "Malformed request: " + frame.malformed());
+        }
+        TransferRequest request = frame.request();
+        Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            if (auditJournal.isPresent()) {
+                auditJournal.get().record(request, (UUID) null, AuditOutcome.INVALID_REQUEST);
+            }
+            return BinaryTransferCodec.encodeError(requestId, "VAL-422", "Validation failed: " + violations.stream()
+                .map(v -> v.getPropertyPath() + "=" + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", ", "{", "}")));
+        }
+        try {
+            return BinaryTransferCodec.encodeResponse(requestId, transferService.transfer(request));
+        } catch (RuntimeException e) {
+            return BinaryTransferCodec.encodeError(requestId, errorCode(e), e.getMessage());
+        }
+    }
+
+    // The codes GlobalExceptionHandler answers the same failures with over HTTP
+    private static String errorCode(RuntimeException e) {
+        if (e instanceof AccountNotFoundException) {
+            return "ACC-404";
+        }
+        if (e instanceof AccountNotActiveException) {
+            return "ACC-403";
+        }
+        if (e instanceof InsufficientBalanceException) {
+            return "TRX-400";
+        }
+        if (e instanceof DuplicateTransferException) {
+            return "TRX-409";
+        }
+        if (e instanceof TransferConflictException) {
+            return "TRX-503";
+        }
+        if (e instanceof IllegalArgumentException) {
+            return "VAL-422";
+        }
+        log.error("Unexpected error on binary ingress: ", e);
+        return "ERR-500";
+    }
+
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final Object remote;
+        private final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        // Filled by workers, drained by the selector thread into unsent
+        private final Queue<ByteBuffer> responses = new ConcurrentLinkedQueue<>();
+        private final ArrayDeque<ByteBuffer> unsent = new ArrayDeque<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Connection(SocketChannel channel, SelectionKey key) throws IOException {
+            this.channel = channel;
+            this.key = key;
+            this.remote = channel.getRemoteAddress();
+        }
+
+        void read() throws IOException {
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            dispatchFrames();
+        }
+
+        // Hands every complete frame in the buffer to the workers, up to the in-flight limit
+        private void dispatchFrames() {
+            in.flip();
+            try {
+                while (inFlight.get() < config.getMaxInFlight() && in.remaining() >= BinaryTransferCodec.HEADER) {
+                    int length = in.getInt(in.position());
+                    if (length < BinaryTransferCodec.MIN_FRAME || length > BinaryTransferCodec.MAX_FRAME) {
+                        log.debug("Binary ingress connection {} sent a frame of {} bytes", remote, length);
+                        close();
+                        return;
+                    }
+                    if (in.remaining() < BinaryTransferCodec.HEADER + length) {
+                        break;
+                    }
+                    BinaryTransferCodec.Frame frame = BinaryTransferCodec.decodeRequest(
+                        in.slice(in.position() + BinaryTransferCodec.HEADER, length));
+                    in.position(in.position() + BinaryTransferCodec.HEADER + length);
+                    inFlight.incrementAndGet();
+                    dispatch(frame);
+                }
+            } finally {
+                in.compact();
+            }
+            if (inFlight.get() >= config.getMaxInFlight() && key.isValid()) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+            }
+        }
+
+        private void dispatch(BinaryTransferCodec.Frame frame) {
+            try {
+                workers.execute(() -> respond(execute(frame)));
+            } catch (RejectedExecutionException e) {
+                respond(BinaryTransferCodec.encodeError(frame.requestId(), "SYS-503",
+                    "Server is at capacity, please retry later"));
+            }
+        }
+
+        private void respond(ByteBuffer response) {
+            responses.add(response);
+            inFlight.decrementAndGet();
+            if (scheduled.compareAndSet(false, true)) {
+                flushable.add(this);
+                selector.wakeup();
+            }
+        }
+
+        void flush() throws IOException {
+            ByteBuffer next;
+            while ((next = responses.poll()) != null) {
+                unsent.add(next);
+            }
+            while (!unsent.isEmpty()) {
+                int count = 0;
+                long pending = 0;
+                for (ByteBuffer buffer : unsent) {
+                    gather[count++] = buffer;
+                    pending += buffer.remaining();
+                    if (count == MAX_GATHER) {
+                        break;
+                    }
+                }
+                long written = channel.write(gather, 0, count);
+                Arrays.fill(gather, 0, count, null);
+                while (!unsent.isEmpty() && !unsent.peek().hasRemaining()) {
+                    unsent.poll();
+                }
+                if (written < pending) {
+                    // The socket buffer is full; continue when it drains
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+
+        void flushAndResume() {
+            try {
+                flush();
+            } catch (IOException e) {
+                log.debug("Binary ingress connection {} closed: {}", remote, e.getMessage());
+                close();
+                return;
+            }
+            if ((key.interestOps() & SelectionKey.OP_READ) != 0 || inFlight.get() >= config.getMaxInFlight()) {
+                return;
+            }
+            key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+            // Frames that arrived while reading was paused are already buffered
+            dispatchFrames();
+        }
+
+        void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Closing binary ingress connection {} failed: {}", remote, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.moneytransfer.journal;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.exception.AccountNotActiveException;
+import com.example.moneytransfer.domain.exception.AccountNotFoundException;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.AccountEntryRepository;
+import com.example.moneytransfer.repository.AccountEntryRepository.Checkpoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only persistence model for balances. A transfer appends an immutable debit entry and
+ * credit entry to {@code account_entries} instead of updating {@code accounts.balance}; an
+ * account's balance is its latest checkpoint plus the entries after it, and a background
+ * checkpointer folds entries into new checkpoints so that sum stays short. Old checkpoints are
+ * kept, which makes balance-as-of-time a checkpoint lookup plus a bounded sum.
+ * <p>
+ * Locking: a debit takes the source row's exclusive lock, because it must see every committed
+ * entry before checking funds; a credit only takes a shared lock on the destination, so credits
+ * to one account run concurrently. A checkpoint takes the exclusive lock, so it never runs while
+ * an entry of that account is still uncommitted, and every later entry gets a higher id. Journal
+ * transactions run at READ COMMITTED so balance sums see entries committed after they started.
+ * <p>
+ * The journal replaces in-place balance updates entirely and cannot be combined with the
+ * in-memory ledger or group commit; hot-account buckets are folded back into their rows at startup.
+ * {@code accounts.balance} is refreshed at each checkpoint and for every account with pending
+ * entries on shutdown; {@link UncheckpointedEntriesGuard} refuses to start without the journal
+ * while any entries are left unfolded.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.journal", name = "enabled", havingValue = "true")
+@Slf4j
+public class DoubleEntryJournal {
+
+    private final AccountEntryRepository entryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferProperties.Journal config;
+    // Entries appended by this node per account since its last checkpoint
+    private final Map<Long, AtomicInteger> pendingEntries = new ConcurrentHashMap<>();
+
+    private Thread checkpointer;
+    private volatile boolean running;
+
+    public DoubleEntryJournal(AccountEntryRepository entryRepository,
+                              PlatformTransactionManager transactionManager,
+                              TransferProperties transferProperties) {
+        if (transferProperties.getLedger().isEnabled()) {
+            throw new IllegalStateException("transfer.journal.enabled cannot be combined with transfer.ledger.enabled");
+        }
+        if (transferProperties.getGroupCommit().isEnabled()) {
+            throw new IllegalStateException("transfer.journal.enabled cannot be combined with transfer.group-commit.enabled");
+        }
+        this.entryRepository = entryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.config = transferProperties.getJournal();
+    }
+
+    @PostConstruct
+    void start() {
+        int seeded = transactionTemplate.execute(status -> {
+            int folded = entryRepository.foldBalanceBuckets();
+            if (folded > 0) {
+                log.info("Folded balance buckets of {} hot accounts into their rows", folded);
+            }
+            return entryRepository.seedCheckpoints(Instant.now());
+        });
+        if (seeded > 0) {
+            log.info("Seeded journal checkpoints for {} accounts", seeded);
+        }
+        // Entries appended before a restart are only known to the database
+        for (Long accountId : entryRepository.findAccountsWithUncheckpointedEntries()) {
+            pendingEntries.computeIfAbsent(accountId, id -> new AtomicInteger()).addAndGet(config.getCheckpointEvery());
+        }
+
+        running = true;
+        checkpointer = new Thread(this::checkpointLoop, "journal-checkpointer");
+        checkpointer.setDaemon(true);
+        checkpointer.start();
+    }
+
+    /**
+     * Stops the checkpointer, then checkpoints every account this node appended entries to, so
+     * {@code accounts.balance} is current once the journal is no longer running.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (checkpointer != null) {
+            checkpointer.interrupt();
+            checkpointer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        int written = 0;
+        for (Long accountId : new ArrayList<>(pendingEntries.keySet())) {
+            try {
+                if (checkpoint(accountId)) {
+                    written++;
+                }
+                pendingEntries.remove(accountId);
+            } catch (RuntimeException e) {
+                log.warn("Journal checkpoint of account {} failed: {}", accountId, e.getMessage());
+            }
+        }
+        if (!pendingEntries.isEmpty()) {
+            log.error("Journal stopped with {} accounts not checkpointed; accounts.balance is stale for them",
+                pendingEntries.size());
+        } else if (written > 0) {
+            log.info("Wrote {} journal checkpoints on shutdown", written);
+        }
+    }
+
+    /**
+     * Template for transfers against the journal: READ COMMITTED, see the class comment.
+     */
+    public TransactionTemplate transactionTemplate() {
+        return transactionTemplate;
+    }
+
+    /**
+     * Takes the shared lock that a credit to the account needs and checks the account is active.
+     */
+    public void lockForCredit(Long accountId) {
+        String status = entryRepository.lockShared(accountId)
+            .orElseThrow(() -> new AccountNotFoundException(accountId));
+        if (!AccountStatus.ACTIVE.name().equals(status)) {
+            throw new AccountNotActiveException(accountId);
+        }
+    }
+
+    /**
+     * Appends the entries of a transfer. Callers must hold the source's exclusive lock and the
+     * destination's shared lock.
+     */
+    public void append(UUID transactionId, Long fromAccountId, Long toAccountId, Money amount) {
+        entryRepository.appendTransfer(transactionId, fromAccountId, toAccountId, amount, Instant.now());
+        pendingEntries.computeIfAbsent(fromAccountId, id -> new AtomicInteger()).incrementAndGet();
+        pendingEntries.computeIfAbsent(toAccountId, id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public Money currentBalance(Long accountId) {
+        Checkpoint checkpoint = entryRepository.findLatestCheckpoint(accountId)
+            .orElseGet(() -> new Checkpoint(0, entryRepository.findAccountBalance(accountId)));
+        return checkpoint.balance().plus(entryRepository.sumAfter(accountId, checkpoint.entryId(), null).balance());
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code asOf} predates the account's first checkpoint
+     */
+    public Money balanceAsOf(Long accountId, Instant asOf) {
+        Checkpoint checkpoint = entryRepository.findCheckpoint(accountId, asOf)
+            .orElseThrow(() -> new IllegalArgumentException(
+                "No balance history for account " + accountId + " as of " + asOf));
+        return checkpoint.balance().plus(entryRepository.sumAfter(accountId, checkpoint.entryId(), asOf).balance());
+    }
+
+    /**
+     * Folds the account's entries since its latest checkpoint into a new checkpoint.
+     *
+     * @return true if a checkpoint was written
+     */
+    public boolean checkpoint(Long accountId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (entryRepository.lockExclusive(accountId).isEmpty()) {
+                return false;
+            }
+            Checkpoint latest = entryRepository.findLatestCheckpoint(accountId)
+                .orElseGet(() -> new Checkpoint(0, entryRepository.findAccountBalance(accountId)));
+            Checkpoint delta = entryRepository.sumAfter(accountId, latest.entryId(), null);
+            if (delta.entryId() == latest.entryId()) {
+                return false;
+            }
+            Money balance = latest.balance().plus(delta.balance());
+            entryRepository.insertCheckpoint(accountId, new Checkpoint(delta.entryId(), balance), Instant.now());
+            entryRepository.updateAccountBalance(accountId, balance);
+            return true;
+        }));
+    }
+
+    private void checkpointLoop() {
+        long intervalMillis = Math.max(1, config.getCheckpointInterval().toMillis());
+        while (running) {
+            try {
+                Thread.sleep(intervalMillis);
+                checkpointDue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Journal checkpoint pass failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void checkpointDue() {
+        List<Long> due = new ArrayList<>();
+        pendingEntries.forEach((accountId, count) -> {
+            if (count.get() >= config.getCheckpointEvery()) {
+                due.add(accountId);
+            }
+        });
+        int written = 0;
+        for (Long accountId : due) {
+            // Entries appended from here on count towards the next checkpoint
+            AtomicInteger count = pendingEntries.remove(accountId);
+            try {
+                if (checkpoint(accountId)) {
+                    written++;
+                }
+            } catch (RuntimeException e) {
+                pendingEntries.computeIfAbsent(accountId, id -> new AtomicInteger()).addAndGet(count.get());
+                log.warn("Journal checkpoint of account {} failed: {}", accountId, e.getMessage());
+            }
+        }
+        if (written > 0) {
+            log.debug("Wrote {} journal checkpoints", written);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.moneytransfer.journal;
+
+import com.example.moneytransfer.repository.AccountEntryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Refuses to start with the journal disabled while {@code account_entries} holds entries past an
+ * account's latest checkpoint. Without the journal every path reads {@code accounts.balance},
+ * which does not include those entries yet. Starting once with the journal enabled and stopping
+ * it cleanly checkpoints them.
+ * <p>
+ * A database without the journal tables has never run the journal, so there is nothing to check.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.journal", name = "enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class UncheckpointedEntriesGuard {
+
+    private final AccountEntryRepository entryRepository;
+
+    @PostConstruct
+    void check() {
+        List<Long> accountIds;
+        try {
+            accountIds = entryRepository.findAccountsWithUncheckpointedEntries();
+        } catch (BadSqlGrammarException e) {
+            log.debug("Journal tables not found, skipping the unfolded entries check: {}", e.getMessage());
+            return;
+        }
+        if (!accountIds.isEmpty()) {
+            throw new IllegalStateException(String.format(
+                "%d accounts (e.g. %d) have journal entries not folded into accounts.balance; "
+                    + "start with transfer.journal.enabled=true and stop cleanly to checkpoint them",
+                accountIds.size(), accountIds.get(0)));
+        }
+    }
+}
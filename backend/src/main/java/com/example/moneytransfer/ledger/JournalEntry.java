@@ -0,0 +1,20 @@
+package com.example.moneytransfer.ledger;
+
+import com.example.moneytransfer.domain.money.Money;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An accepted transfer waiting to be written to the database.
+ */
+@Value
+class JournalEntry {
+    UUID transactionId;
+    Long fromAccountId;
+    Long toAccountId;
+    Money amount;
+    String idempotencyKey;
+    Instant createdOn;
+}
@@ -0,0 +1,33 @@
+package com.example.moneytransfer.ledger;
+
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * In-memory account state owned by exactly one {@link LedgerShard}. Only the shard's thread may
+ * mutate it, so no synchronization is needed.
+ */
+@Getter
+@AllArgsConstructor
+class LedgerAccount {
+
+    private final Long id;
+    private final String holderName;
+    private Money balance;
+    private final AccountStatus status;
+
+    boolean isActive() {
+        return AccountStatus.ACTIVE.equals(status);
+    }
+
+    void debit(Money amount) {
+        this.balance = this.balance.minus(amount);
+    }
+
+    void credit(Money amount) {
+        this.balance = this.balance.plus(amount);
+    }
+}
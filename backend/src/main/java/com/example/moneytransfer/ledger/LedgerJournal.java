@@ -0,0 +1,329 @@
+package com.example.moneytransfer.ledger;
+
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.AccountRepository;
+import com.example.moneytransfer.repository.TransactionLogRepository;
+import com.example.moneytransfer.rollup.AccountRollups;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Accepted transfers on their way to the database. Each entry is appended to the
+ * {@link LedgerWal} and forced to disk before its transfer is acknowledged, then queued for a
+ * single writer thread. Each batch is written in one transaction: the transaction logs are
+ * inserted and the balance deltas are netted per account, so an account touched many times in a
+ * batch gets one UPDATE. Once a batch is committed, the log segments it covered are deleted.
+ * <p>
+ * A batch that fails to commit is retried, preserving journal order. After
+ * {@code journal-max-attempts} failures its entries are written one at a time; an entry rejected
+ * by a constraint or failing for a reason other than the database being unavailable is moved to
+ * the quarantine file so later batches are not held up behind it.
+ */
+@Slf4j
+class LedgerJournal {
+
+    private static final long RETRY_DELAY_MILLIS = 500;
+    private static final int RECOVERY_LOOKUP_CHUNK = 1000;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final LedgerWal wal;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountRepository accountRepository;
+    private final TransactionLogRepository transactionLogRepository;
+    private final Optional<AccountRollups> accountRollups;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long flushIntervalNanos;
+    private final Consumer<List<JournalEntry>> onPersisted;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+    private volatile int inProgress;
+
+    LedgerJournal(LedgerWal wal,
+                  TransactionTemplate transactionTemplate,
+                  AccountRepository accountRepository,
+                  TransactionLogRepository transactionLogRepository,
+                  Optional<AccountRollups> accountRollups,
+                  int batchSize,
+                  int maxAttempts,
+                  Duration flushInterval,
+                  Consumer<List<JournalEntry>> onPersisted) {
+        this.wal = wal;
+        this.transactionTemplate = transactionTemplate;
+        this.accountRepository = accountRepository;
+        this.transactionLogRepository = transactionLogRepository;
+        this.accountRollups = accountRollups;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.onPersisted = onPersisted;
+        this.writer = new Thread(this::run, "ledger-journal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Writes the entries a previous run logged but did not get into the database, then starts a
+     * fresh log. Must run before balances are read from the database.
+     *
+     * @return the number of entries written
+     */
+    int recover() throws IOException {
+        List<JournalEntry> logged = wal.recover();
+        List<JournalEntry> missing = new ArrayList<>();
+        for (int from = 0; from < logged.size(); from += RECOVERY_LOOKUP_CHUNK) {
+            List<JournalEntry> chunk = logged.subList(from, Math.min(from + RECOVERY_LOOKUP_CHUNK, logged.size()));
+            Set<UUID> persisted = new HashSet<>();
+            transactionLogRepository.findAllById(chunk.stream().map(JournalEntry::getTransactionId).toList())
+                .forEach(existing -> persisted.add(existing.getId()));
+            chunk.stream().filter(entry -> !persisted.contains(entry.getTransactionId())).forEach(missing::add);
+        }
+
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<Pending> batch = missing.subList(from, Math.min(from + batchSize, missing.size())).stream()
+                .map(entry -> new Pending(entry, 0))
+                .toList();
+            if (!persistWithRetry(batch)) {
+                throw new IllegalStateException("Ledger journal recovery interrupted");
+            }
+        }
+        wal.open();
+        if (!logged.isEmpty()) {
+            log.info("Ledger journal recovered {} logged entries, {} of them missing from the database",
+                logged.size(), missing.size());
+        }
+        return missing.size();
+    }
+
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * @return false if the write-ahead log has failed and can take no more entries
+     */
+    boolean isWritable() {
+        return wal.isWritable();
+    }
+
+    /**
+     * Logs an entry and queues it for the database, returning once the log is on disk. The entry
+     * is queued even if logging fails, since its transfer has already been applied in memory.
+     *
+     * @throws IOException if the entry could not be made durable
+     */
+    void append(JournalEntry entry) throws IOException {
+        long offset;
+        IOException failure = null;
+        // Log order and queue order must match for segments to be released correctly
+        synchronized (this) {
+            try {
+                offset = wal.append(entry);
+            } catch (IOException e) {
+                offset = wal.written();
+                failure = e;
+            }
+            queue.add(new Pending(entry, offset));
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        wal.sync(offset);
+    }
+
+    int pending() {
+        return queue.size() + inProgress;
+    }
+
+    /**
+     * Stops the writer after everything appended so far has been persisted, or after the first
+     * failed attempt once stopping; anything left is written from the log on the next start.
+     */
+    void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (pending() > 0) {
+            log.error("Ledger journal stopped with {} entries not persisted; they are kept in the write-ahead log",
+                pending());
+        }
+        wal.close();
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Shutdown requested: fall through and drain without waiting
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            inProgress = batch.size();
+            if (!persistWithRetry(batch)) {
+                return;
+            }
+            wal.release(batch.get(batch.size() - 1).offset());
+            inProgress = 0;
+            batch.clear();
+        }
+    }
+
+    private void collect(List<Pending> batch) throws InterruptedException {
+        Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (queue.drainTo(batch, batchSize - batch.size()) == 0) {
+                if (remaining <= 0) {
+                    return;
+                }
+                Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        }
+    }
+
+    /**
+     * @return false if the writer is stopping and the entries were left for the next start
+     */
+    private boolean persistWithRetry(List<Pending> batch) {
+        List<Pending> remaining = batch;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                persist(remaining);
+                return true;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return false;
+                }
+                log.error("Failed to persist {} ledger journal entries (attempt {}): {}",
+                    remaining.size(), attempt, e.getMessage());
+                if (attempt >= maxAttempts) {
+                    remaining = isolate(remaining);
+                    if (remaining.isEmpty()) {
+                        return true;
+                    }
+                    attempt = 0;
+                }
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes entries one at a time, quarantining those that cannot be written.
+     *
+     * @return the entries left once the database turned out to be unavailable
+     */
+    private List<Pending> isolate(List<Pending> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            try {
+                persist(List.of(pending));
+            } catch (RuntimeException e) {
+                if (!isPoison(e)) {
+                    return batch.subList(i, batch.size());
+                }
+                quarantine(pending, e);
+            }
+        }
+        return List.of();
+    }
+
+    private void quarantine(Pending pending, RuntimeException cause) {
+        JournalEntry entry = pending.entry();
+        try {
+            wal.quarantine(entry);
+        } catch (IOException e) {
+            // Still in its log segment, which is kept until an operator intervenes
+            throw new IllegalStateException("Could not quarantine ledger journal entry " + entry.getTransactionId(), e);
+        }
+        log.error("Quarantined ledger journal entry {} ({} -> {}, {}, key {}): {}", entry.getTransactionId(),
+            entry.getFromAccountId(), entry.getToAccountId(), entry.getAmount(), entry.getIdempotencyKey(),
+            cause.getMessage());
+    }
+
+    // Constraint violations and non-database errors fail every retry; anything else is taken
+    // for the database being unavailable and retried
+    private static boolean isPoison(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException
+            || !(e instanceof DataAccessException || e instanceof TransactionException);
+    }
+
+    private void persist(List<Pending> batch) {
+        List<JournalEntry> entries = batch.stream().map(Pending::entry).toList();
+        transactionTemplate.executeWithoutResult(status -> write(entries));
+        onPersisted.accept(entries);
+    }
+
+    private void write(List<JournalEntry> batch) {
+        // Sorted so concurrent writers (e.g. the JPA transfer path) lock rows in the same order
+        Map<Long, Money> deltas = new TreeMap<>();
+        List<TransactionLog> logs = new ArrayList<>(batch.size());
+        for (JournalEntry entry : batch) {
+            deltas.merge(entry.getFromAccountId(), entry.getAmount().negate(), Money::plus);
+            deltas.merge(entry.getToAccountId(), entry.getAmount(), Money::plus);
+            logs.add(TransactionLog.builder()
+                .id(entry.getTransactionId())
+                .fromAccountId(entry.getFromAccountId())
+                .toAccountId(entry.getToAccountId())
+                .amount(entry.getAmount())
+                .idempotencyKey(entry.getIdempotencyKey())
+                .status(TransactionStatus.SUCCESS)
+                .createdOn(entry.getCreatedOn())
+                .build());
+        }
+
+        deltas.forEach((accountId, delta) -> {
+            if (!Money.ZERO.equals(delta)) {
+                accountRepository.adjustBalance(accountId, delta.toBigDecimal());
+            }
+        });
+        transactionLogRepository.saveAll(logs);
+        // The journal is the only writer of balances and rollups while the ledger is enabled
+        if (accountRollups.isPresent()) {
+            accountRollups.get().recordAll(logs);
+        }
+    }
+
+    /**
+     * A queued entry and the log offset just past it.
+     */
+    private record Pending(JournalEntry entry, long offset) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.moneytransfer.ledger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A single-writer partition of the ledger. All reads and writes of the accounts it owns run on
+ * one dedicated thread, so account state is never shared and never locked.
+ */
+class LedgerShard {
+
+    private final Map<Long, LedgerAccount> accounts = new HashMap<>();
+    private final ExecutorService executor;
+
+    LedgerShard(int index) {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-shard-" + index);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the command on the shard thread and waits for its result. Exceptions thrown by the
+     * command are rethrown unwrapped to the caller.
+     */
+    <T> T call(Function<Map<Long, LedgerAccount>, T> command) {
+        try {
+            return CompletableFuture.supplyAsync(() -> command.apply(accounts), executor).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,321 @@
+package com.example.moneytransfer.ledger;
+
+import com.example.moneytransfer.domain.money.Money;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of the {@link ShardedLedger}: every accepted transfer is appended here and
+ * forced to disk before it is acknowledged, so a transfer the database has not received yet
+ * survives a crash. Concurrent callers share one {@code fdatasync}: whoever finds its record not
+ * yet durable forces everything written so far.
+ * <p>
+ * The log is split into segment files named after the log offset of their first byte. A segment
+ * is deleted once the journal has written all of its entries to the database. Each record is
+ * checksummed, so a record torn by a crash ends recovery of its segment; it was never
+ * acknowledged.
+ * <pre>
+ * record   int payload length, int CRC32 of the payload, payload
+ * payload  long transactionId msb, long lsb, long fromAccountId, long toAccountId,
+ *          long amount (minor units), long createdOn epoch second, int nanos,
+ *          unsigned short key length, idempotency key UTF-8
+ * </pre>
+ */
+@Slf4j
+class LedgerWal {
+
+    static final String SEGMENT_PREFIX = "ledger-";
+    static final String SEGMENT_SUFFIX = ".wal";
+    static final String QUARANTINE_FILE = "quarantine.wal";
+
+    private static final int HEADER = 2 * Integer.BYTES;
+    private static final int FIXED_PAYLOAD = 6 * Long.BYTES + Integer.BYTES + Short.BYTES;
+    private static final int MAX_PAYLOAD = FIXED_PAYLOAD + 0xFFFF;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final Object syncLock = new Object();
+
+    // Guarded by this
+    private FileChannel segment;
+    private long segmentBase;
+    private long written;
+
+    private volatile long durable;
+    private volatile IOException failure;
+
+    LedgerWal(Path directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = Math.max(1, segmentSize);
+    }
+
+    /**
+     * Reads the entries of every existing segment, in log order.
+     */
+    List<JournalEntry> recover() throws IOException {
+        Files.createDirectories(directory);
+        List<JournalEntry> entries = new ArrayList<>();
+        for (Path path : segments()) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+                read(new DataInputStream(in), path, entries);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes the segments read by {@link #recover} and starts a new one after them. Must only be
+     * called once their entries are in the database.
+     */
+    synchronized void open() throws IOException {
+        long next = 0;
+        for (Path path : segments()) {
+            next = Math.max(next, baseOf(path) + Files.size(path));
+            Files.delete(path);
+        }
+        startSegment(next);
+        durable = written;
+    }
+
+    /**
+     * Appends an entry without waiting for it to reach the disk.
+     *
+     * @return the log offset just past the entry, to pass to {@link #sync}
+     */
+    synchronized long append(JournalEntry entry) throws IOException {
+        if (failure != null) {
+            throw new IOException("Write-ahead log failed earlier", failure);
+        }
+        ByteBuffer record = encode(entry);
+        try {
+            if (written > segmentBase && written - segmentBase + record.remaining() > segmentSize) {
+                // The old segment is forced first so a sync racing with this rotation loses nothing
+                segment.force(false);
+                segment.close();
+                startSegment(written);
+            }
+            while (record.hasRemaining()) {
+                segment.write(record);
+            }
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        written += record.limit();
+        return written;
+    }
+
+    /**
+     * Returns once everything up to {@code offset} is on disk.
+     */
+    void sync(long offset) throws IOException {
+        if (durable >= offset) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durable >= offset) {
+                return;
+            }
+            if (failure != null) {
+                throw new IOException("Write-ahead log failed earlier", failure);
+            }
+            FileChannel channel;
+            long target;
+            synchronized (this) {
+                channel = segment;
+                target = written;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // Rotated or closed meanwhile, which forces the segment before closing it
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            durable = target;
+        }
+    }
+
+    /**
+     * @return false once a write or sync has failed; the log then refuses further entries
+     */
+    boolean isWritable() {
+        return failure == null;
+    }
+
+    synchronized long written() {
+        return written;
+    }
+
+    /**
+     * Deletes the segments that lie entirely before {@code offset}.
+     */
+    void release(long offset) {
+        long currentBase;
+        synchronized (this) {
+            currentBase = segmentBase;
+        }
+        try {
+            for (Path path : segments()) {
+                long base = baseOf(path);
+                if (base < currentBase && base + Files.size(path) <= offset) {
+                    Files.delete(path);
+                }
+            }
+        } catch (IOException e) {
+            // Retried on the next release; recovery skips entries already in the database
+            log.warn("Could not delete write-ahead log segments: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Appends an entry that cannot be written to the database to the quarantine file, where it
+     * stays for an operator to resolve.
+     */
+    void quarantine(JournalEntry entry) throws IOException {
+        Path path = directory.resolve(QUARANTINE_FILE);
+        boolean created = !Files.exists(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND)) {
+            ByteBuffer record = encode(entry);
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.force(false);
+        }
+        if (created) {
+            forceDirectory();
+        }
+    }
+
+    synchronized void close() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.force(false);
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Could not close write-ahead log segment: {}", e.getMessage());
+        }
+    }
+
+    private void startSegment(long base) throws IOException {
+        segment = FileChannel.open(directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, base, SEGMENT_SUFFIX)),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        // The new file's directory entry must be durable before records in it are acknowledged
+        forceDirectory();
+        segmentBase = base;
+        written = base;
+    }
+
+    private void forceDirectory() throws IOException {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(path -> {
+                    String name = path.getFileName().toString();
+                    return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                })
+                .sorted()
+                .toList();
+        }
+    }
+
+    private static long baseOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static ByteBuffer encode(JournalEntry entry) {
+        byte[] key = entry.getIdempotencyKey().getBytes(StandardCharsets.UTF_8);
+        if (key.length >= 0xFFFF) {
+            throw new IllegalArgumentException("Idempotency key too long for the write-ahead log");
+        }
+        ByteBuffer payload = ByteBuffer.allocate(FIXED_PAYLOAD + key.length)
+            .putLong(entry.getTransactionId().getMostSignificantBits())
+            .putLong(entry.getTransactionId().getLeastSignificantBits())
+            .putLong(entry.getFromAccountId())
+            .putLong(entry.getToAccountId())
+            .putLong(entry.getAmount().minorUnits())
+            .putLong(entry.getCreatedOn().getEpochSecond())
+            .putInt(entry.getCreatedOn().getNano())
+            .putShort((short) key.length)
+            .put(key)
+            .flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return ByteBuffer.allocate(HEADER + payload.remaining())
+            .putInt(payload.remaining())
+            .putInt((int) crc.getValue())
+            .put(payload)
+            .flip();
+    }
+
+    static void read(DataInputStream in, Path source, List<JournalEntry> entries) throws IOException {
+        while (true) {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+            try {
+                int checksum = in.readInt();
+                if (length < FIXED_PAYLOAD || length > MAX_PAYLOAD) {
+                    log.warn("Write-ahead log {} has a corrupt record after {} entries; ignoring the rest",
+                        source, entries.size());
+                    return;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Write-ahead log {} has a torn record after {} entries; ignoring the rest",
+                        source, entries.size());
+                    return;
+                }
+                entries.add(decode(ByteBuffer.wrap(payload)));
+            } catch (EOFException e) {
+                log.warn("Write-ahead log {} ends in a torn record; ignoring it", source);
+                return;
+            }
+        }
+    }
+
+    private static JournalEntry decode(ByteBuffer payload) {
+        UUID transactionId = new UUID(payload.getLong(), payload.getLong());
+        long from = payload.getLong();
+        long to = payload.getLong();
+        Money amount = Money.ofMinor(payload.getLong());
+        Instant createdOn = Instant.ofEpochSecond(payload.getLong(), payload.getInt());
+        byte[] key = new byte[Short.toUnsignedInt(payload.getShort())];
+        payload.get(key);
+        return new JournalEntry(transactionId, from, to, amount, new String(key, StandardCharsets.UTF_8), createdOn);
+    }
+}
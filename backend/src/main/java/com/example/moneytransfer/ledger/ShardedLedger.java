@@ -0,0 +1,345 @@
+package com.example.moneytransfer.ledger;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.AccountResponse;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.exception.AccountNotActiveException;
+import com.example.moneytransfer.domain.exception.AccountNotFoundException;
+import com.example.moneytransfer.domain.exception.DuplicateTransferException;
+import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.exception.TransferConflictException;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.idempotency.BloomFilter;
+import com.example.moneytransfer.idempotency.IdempotencyRegistry;
+import com.example.moneytransfer.repository.AccountRepository;
+import com.example.moneytransfer.repository.BalanceBucketRepository;
+import com.example.moneytransfer.repository.TransactionLogRepository;
+import com.example.moneytransfer.rollup.AccountRollups;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory transfer engine. Account balances are partitioned by id across single-threaded
+ * {@link LedgerShard}s; a transfer within one shard runs as a single command, a cross-shard
+ * transfer validates the destination, debits on the source shard and then credits on the
+ * destination shard. A transfer is only acknowledged once the {@link LedgerJournal} has forced
+ * it to a local write-ahead log; it is written to the database asynchronously. The database
+ * remains the source of truth: on startup, logged transfers it is missing are written first and
+ * the engine is then rebuilt from it.
+ * <p>
+ * While the ledger is enabled it is the only writer of transfers, so a bloom filter seeded with
+ * every idempotency key in the database at startup tells new keys apart without a query. A
+ * repeated key replays the original response, as {@link IdempotencyRegistry#replay} does on the
+ * database path.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.ledger", name = "enabled", havingValue = "true")
+@Slf4j
+public class ShardedLedger {
+
+    private static final int KEY_PAGE_SIZE = 10_000;
+
+    private final AccountRepository accountRepository;
+    private final BalanceBucketRepository balanceBucketRepository;
+    private final TransactionLogRepository transactionLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdempotencyRegistry idempotencyRegistry;
+    private final TransferProperties.Idempotency idempotencyConfig;
+    private final int maxPendingEntries;
+    private final LedgerShard[] shards;
+    private final LedgerJournal journal;
+
+    // Keys accepted by this node whose journal entries may not be in the database yet
+    private final Map<String, Reservation> unpersistedKeys = new ConcurrentHashMap<>();
+    private volatile BloomFilter knownKeys;
+
+    public ShardedLedger(AccountRepository accountRepository,
+                         BalanceBucketRepository balanceBucketRepository,
+                         TransactionLogRepository transactionLogRepository,
+                         TransactionTemplate transactionTemplate,
+                         JdbcTemplate jdbcTemplate,
+                         IdempotencyRegistry idempotencyRegistry,
+                         TransferProperties transferProperties,
+                         Optional<AccountRollups> accountRollups) {
+        TransferProperties.Ledger config = transferProperties.getLedger();
+        if (config.getWalDirectory() == null || config.getWalDirectory().isBlank()) {
+            throw new IllegalStateException("transfer.ledger.wal-directory must be set when the ledger is enabled");
+        }
+        this.accountRepository = accountRepository;
+        this.balanceBucketRepository = balanceBucketRepository;
+        this.transactionLogRepository = transactionLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.idempotencyRegistry = idempotencyRegistry;
+        this.idempotencyConfig = transferProperties.getIdempotency();
+        this.maxPendingEntries = Math.max(1, config.getMaxPendingEntries());
+        this.shards = new LedgerShard[Math.max(1, config.getShards())];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new LedgerShard(i);
+        }
+        LedgerWal wal = new LedgerWal(Paths.get(config.getWalDirectory()), config.getWalSegmentSize().toBytes());
+        this.journal = new LedgerJournal(wal, transactionTemplate, accountRepository, transactionLogRepository,
+            accountRollups, config.getJournalBatchSize(), config.getJournalMaxAttempts(), config.getFlushInterval(),
+            this::onPersisted);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        journal.recover();
+        knownKeys = loadKnownKeys();
+
+        List<Account> accounts = accountRepository.findAll();
+        // Hot accounts keep part of their balance in buckets; the journal only writes the row
+        Map<Long, Money> bucketBalances = balanceBucketRepository.sumBalances();
+        for (Account account : accounts) {
+            Money balance = account.getBalance()
+                .plus(bucketBalances.getOrDefault(account.getId(), Money.ZERO));
+            LedgerAccount state = new LedgerAccount(account.getId(), account.getHolderName(),
+                balance, account.getStatus());
+            shardFor(account.getId()).call(owned -> owned.put(state.getId(), state));
+        }
+        journal.start();
+        log.info("Ledger rebuilt from database: {} accounts across {} shards", accounts.size(), shards.length);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        for (LedgerShard shard : shards) {
+            shard.shutdown();
+        }
+        journal.shutdown();
+    }
+
+    public TransferResponse transfer(TransferRequest request) {
+        return transfer(request, null);
+    }
+
+    /**
+     * @param transactionId id to record the transfer under, or null to generate one
+     */
+    public TransferResponse transfer(TransferRequest request, UUID transactionId) {
+        Long fromId = request.getFromAccountId();
+        Long toId = request.getToAccountId();
+        Money amount = request.getAmount();
+
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("Source and destination accounts must be different");
+        }
+        if (!amount.isPositive()) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+
+        if (transactionId == null) {
+            transactionId = TimeOrderedUuid.next();
+        }
+        JournalEntry entry = new JournalEntry(transactionId, fromId, toId, amount,
+            request.getIdempotencyKey(), Instant.now());
+        Reservation reservation = new Reservation(entry);
+        Optional<TransferResponse> replayed = reserveIdempotencyKey(request, reservation);
+        if (replayed.isPresent()) {
+            return replayed.get();
+        }
+
+        try {
+            if (!journal.isWritable() || journal.pending() >= maxPendingEntries) {
+                throw new TransferConflictException(String.format(
+                    "Ledger journal cannot take more transfers (%d waiting for the database). Idempotency key: %s",
+                    journal.pending(), request.getIdempotencyKey()));
+            }
+
+            LedgerShard fromShard = shardFor(fromId);
+            LedgerShard toShard = shardFor(toId);
+
+            if (fromShard == toShard) {
+                fromShard.call(accounts -> {
+                    LedgerAccount to = requireActive(accounts, toId);
+                    LedgerAccount from = requireActive(accounts, fromId);
+                    requireFunds(from, amount);
+                    from.debit(amount);
+                    to.credit(amount);
+                    return null;
+                });
+            } else {
+                // Validate the destination first so the debit never needs compensating
+                toShard.call(accounts -> requireActive(accounts, toId));
+                fromShard.call(accounts -> {
+                    LedgerAccount from = requireActive(accounts, fromId);
+                    requireFunds(from, amount);
+                    from.debit(amount);
+                    return null;
+                });
+                toShard.call(accounts -> {
+                    accounts.get(toId).credit(amount);
+                    return null;
+                });
+            }
+        } catch (RuntimeException e) {
+            unpersistedKeys.remove(request.getIdempotencyKey(), reservation);
+            throw e;
+        }
+
+        // Known before the entry can be persisted and its reservation dropped
+        knownKeys.put(request.getIdempotencyKey());
+        try {
+            journal.append(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Transfer " + transactionId + " was applied but could not be logged", e);
+        } finally {
+            // Queued for the database either way, so a retry replays it
+            reservation.accepted = true;
+        }
+        return response(entry);
+    }
+
+    public AccountResponse getAccount(Long id) {
+        return shardFor(id).call(accounts -> {
+            LedgerAccount account = accounts.get(id);
+            if (account == null) {
+                throw new AccountNotFoundException(id);
+            }
+            return AccountResponse.builder()
+                .id(account.getId())
+                .holderName(account.getHolderName())
+                .balance(account.getBalance())
+                .status(account.getStatus().name())
+                .build();
+        });
+    }
+
+    public int pendingJournalEntries() {
+        return journal.pending();
+    }
+
+    /**
+     * Reserves the request's key, or returns the response of the transfer that already used it.
+     *
+     * @throws DuplicateTransferException if the key was used for a transfer with a different payload
+     */
+    private Optional<TransferResponse> reserveIdempotencyKey(TransferRequest request, Reservation reservation) {
+        String key = request.getIdempotencyKey();
+        Reservation existing = unpersistedKeys.putIfAbsent(key, reservation);
+        if (existing != null) {
+            if (!existing.accepted) {
+                throw new TransferConflictException(String.format(
+                    "Transfer with the same idempotency key is still in progress. Idempotency key: %s", key));
+            }
+            return Optional.of(idempotencyRegistry.replay(request, transactionLog(existing.entry)));
+        }
+        if (!knownKeys.mightContain(key)) {
+            return Optional.empty();
+        }
+        try {
+            return transactionLogRepository.findByIdempotencyKey(key)
+                .map(existingTx -> {
+                    unpersistedKeys.remove(key, reservation);
+                    return idempotencyRegistry.replay(request, existingTx);
+                });
+        } catch (RuntimeException e) {
+            unpersistedKeys.remove(key, reservation);
+            throw e;
+        }
+    }
+
+    private void onPersisted(List<JournalEntry> entries) {
+        // The database now answers for these keys
+        for (JournalEntry entry : entries) {
+            unpersistedKeys.computeIfPresent(entry.getIdempotencyKey(),
+                (key, reservation) -> reservation.entry == entry ? null : reservation);
+        }
+    }
+
+    private BloomFilter loadKnownKeys() {
+        long existing = transactionLogRepository.count();
+        int expected = (int) Math.min(Integer.MAX_VALUE / 2, Math.max(idempotencyConfig.getExpectedKeys(), existing));
+        BloomFilter filter = new BloomFilter(expected * 2, idempotencyConfig.getFalsePositiveRate());
+        byte[] lastId = new byte[16];
+        int read;
+        do {
+            List<byte[]> ids = new ArrayList<>(KEY_PAGE_SIZE);
+            jdbcTemplate.query("SELECT id, idempotency_key FROM transaction_logs WHERE id > ? ORDER BY id LIMIT ?",
+                (RowCallbackHandler) rs -> {
+                    ids.add(rs.getBytes("id"));
+                    filter.put(rs.getString("idempotency_key"));
+                }, lastId, KEY_PAGE_SIZE);
+            read = ids.size();
+            if (read > 0) {
+                lastId = ids.get(read - 1);
+            }
+        } while (read == KEY_PAGE_SIZE);
+        return filter;
+    }
+
+    private static TransactionLog transactionLog(JournalEntry entry) {
+        return TransactionLog.builder()
+            .id(entry.getTransactionId())
+            .fromAccountId(entry.getFromAccountId())
+            .toAccountId(entry.getToAccountId())
+            .amount(entry.getAmount())
+            .idempotencyKey(entry.getIdempotencyKey())
+            .status(TransactionStatus.SUCCESS)
+            .build();
+    }
+
+    private static TransferResponse response(JournalEntry entry) {
+        return TransferResponse.builder()
+            .transactionId(entry.getTransactionId().toString())
+            .status(TransactionStatus.SUCCESS.name())
+            .message("Transfer completed successfully")
+            .debitedFrom(entry.getFromAccountId())
+            .creditedTo(entry.getToAccountId())
+            .amount(entry.getAmount())
+            .build();
+    }
+
+    private LedgerShard shardFor(Long accountId) {
+        return shards[(int) Math.floorMod(accountId, (long) shards.length)];
+    }
+
+    private static final class Reservation {
+        private final JournalEntry entry;
+        // Set once the transfer has been applied and queued for the database
+        private volatile boolean accepted;
+
+        private Reservation(JournalEntry entry) {
+            this.entry = entry;
+        }
+    }
+
+    private static LedgerAccount requireActive(Map<Long, LedgerAccount> accounts, Long accountId) {
+        LedgerAccount account = accounts.get(accountId);
+        if (account == null) {
+            throw new AccountNotFoundException(accountId);
+        }
+        if (!account.isActive()) {
+            throw new AccountNotActiveException(accountId);
+        }
+        return account;
+    }
+
+    private static void requireFunds(LedgerAccount account, Money amount) {
+        if (account.getBalance().isLessThan(amount)) {
+            throw InsufficientBalanceException.instance();
+        }
+    }
+}
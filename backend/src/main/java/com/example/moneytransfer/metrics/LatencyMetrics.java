@@ -0,0 +1,83 @@
+package com.example.moneytransfer.metrics;
+
+import com.example.moneytransfer.domain.dto.MethodLatencyResponse;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-method latency histograms and error counters.
+ * <p>
+ * Recording goes through an HdrHistogram {@link Recorder}, which is wait-free and does not
+ * allocate for values within the trackable range (1 ns to 1 minute, 2 significant digits).
+ * Snapshots swap out the recorder's interval histogram and fold it into a cumulative one, so
+ * readers never block writers.
+ */
+@Component
+public class LatencyMetrics {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Map<Method, MethodStats> stats = new ConcurrentHashMap<>();
+
+    public void record(Method method, long elapsedNanos, boolean failed) {
+        MethodStats methodStats = stats.get(method);
+        if (methodStats == null) {
+            methodStats = stats.computeIfAbsent(method, MethodStats::new);
+        }
+        methodStats.recorder.recordValue(Math.min(Math.max(elapsedNanos, 1), HIGHEST_TRACKABLE_NANOS));
+        if (failed) {
+            methodStats.errors.increment();
+        }
+    }
+
+    /**
+     * @return cumulative statistics per method since startup, ordered by method name
+     */
+    public List<MethodLatencyResponse> snapshot() {
+        List<MethodLatencyResponse> result = new ArrayList<>(stats.size());
+        for (MethodStats methodStats : stats.values()) {
+            result.add(methodStats.snapshot());
+        }
+        result.sort(Comparator.comparing(MethodLatencyResponse::getMethod));
+        return result;
+    }
+
+    private static final class MethodStats {
+
+        private final String name;
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        private final Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+        private final LongAdder errors = new LongAdder();
+        private Histogram interval;
+
+        MethodStats(Method method) {
+            this.name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+
+        synchronized MethodLatencyResponse snapshot() {
+            interval = recorder.getIntervalHistogram(interval);
+            total.add(interval);
+            return MethodLatencyResponse.builder()
+                .method(name)
+                .count(total.getTotalCount())
+                .errors(errors.sum())
+                .meanNanos(total.getMean())
+                .p50Nanos(total.getValueAtPercentile(50.0))
+                .p99Nanos(total.getValueAtPercentile(99.0))
+                .p999Nanos(total.getValueAtPercentile(99.9))
+                .maxNanos(total.getMaxValue())
+                .build();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.moneytransfer.migration;
+
+import com.example.moneytransfer.config.TransferProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Converts {@code transaction_logs.id} from {@code VARCHAR(36)} to {@code BINARY(16)} without
+ * holding a long table lock, in the style of an online schema change. It runs in two steps.
+ * <p>
+ * The copy runs while the old application version keeps serving traffic:
+ * <ol>
+ *     <li>create {@code transaction_logs_new} with the binary key and the same indexes;</li>
+ *     <li>install triggers that mirror every insert/update/delete on the old table;</li>
+ *     <li>backfill existing rows in primary-key chunks, pausing between chunks.</li>
+ * </ol>
+ * The triggers stay installed afterwards and keep the new table in sync.
+ * <pre>
+ * java -jar money-transfer-system.jar --spring.main.web-application-type=none \
+ *     --transfer.migration.binary-transaction-ids=true
+ * </pre>
+ * The swap needs a short write outage. The old version writes string ids, which a
+ * {@code BINARY(16)} column cannot hold, and the new version writes binary ids. So stop every
+ * instance of the old version, drop the triggers and swap the tables with one atomic
+ * {@code RENAME TABLE}, then deploy the version that maps ids as binary:
+ * <pre>
+ * java -jar money-transfer-system.jar --spring.main.web-application-type=none \
+ *     --transfer.migration.binary-transaction-ids=true --transfer.migration.swap=true
+ * </pre>
+ * The old table is kept as {@code transaction_logs_old} for verification and must be dropped by
+ * hand; the migration refuses to run while it exists. Existing ids keep their value; only ids
+ * generated after the switch are time-ordered.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.migration", name = "binary-transaction-ids", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class BinaryTransactionIdMigration implements ApplicationRunner {
+
+    private static final String COLUMNS =
+        "from_account, to_account, amount, status, failure_reason, idempotency_key, created_on";
+
+    private static final String BINARY_ID = "UNHEX(REPLACE(%s.id, '-', ''))";
+
+    private static final List<String> TRIGGER_NAMES = List.of(
+        "transaction_logs_mig_insert", "transaction_logs_mig_update", "transaction_logs_mig_delete");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransferProperties transferProperties;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        String idType = jdbcTemplate.queryForObject(
+            "SELECT DATA_TYPE FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transaction_logs' AND COLUMN_NAME = 'id'",
+            String.class);
+        if ("binary".equalsIgnoreCase(idType)) {
+            log.info("transaction_logs.id is already BINARY(16), nothing to migrate");
+            return;
+        }
+
+        Integer leftOver = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.TABLES "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transaction_logs_old'",
+            Integer.class);
+        if (leftOver != null && leftOver > 0) {
+            throw new IllegalStateException(
+                "transaction_logs_old exists from an earlier migration; verify and drop it before running again");
+        }
+
+        if (transferProperties.getMigration().isSwap()) {
+            swapTables();
+            log.info("transaction_logs migrated to BINARY(16) ids; previous table kept as transaction_logs_old");
+            return;
+        }
+
+        createShadowTable();
+        installTriggers();
+        try {
+            backfill();
+        } catch (RuntimeException | InterruptedException e) {
+            dropTriggers();
+            throw e;
+        }
+        log.info("transaction_logs_new is backfilled and kept in sync by triggers; stop the application "
+            + "and run again with transfer.migration.swap=true to switch tables");
+    }
+
+    private void createShadowTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS transaction_logs_new");
+        jdbcTemplate.execute("""
+            CREATE TABLE transaction_logs_new (
+                id BINARY(16) PRIMARY KEY,
+                from_account BIGINT NOT NULL,
+                to_account BIGINT NOT NULL,
+                amount DECIMAL(18,2) NOT NULL,
+                status VARCHAR(20) NOT NULL,
+                failure_reason VARCHAR(255),
+                idempotency_key VARCHAR(100) NOT NULL UNIQUE,
+                created_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                FOREIGN KEY (from_account) REFERENCES accounts(id),
+                FOREIGN KEY (to_account) REFERENCES accounts(id),
+                INDEX idx_transaction_logs_from_account (from_account, created_on, id),
+                INDEX idx_transaction_logs_to_account (to_account, created_on, id)
+            )""");
+    }
+
+    private void installTriggers() {
+        dropTriggers();
+        String newRow = "VALUES (" + String.format(BINARY_ID, "NEW")
+            + ", NEW.from_account, NEW.to_account, NEW.amount, NEW.status, NEW.failure_reason, "
+            + "NEW.idempotency_key, NEW.created_on)";
+        jdbcTemplate.execute("CREATE TRIGGER transaction_logs_mig_insert AFTER INSERT ON transaction_logs "
+            + "FOR EACH ROW REPLACE INTO transaction_logs_new (id, " + COLUMNS + ") " + newRow);
+        jdbcTemplate.execute("CREATE TRIGGER transaction_logs_mig_update AFTER UPDATE ON transaction_logs "
+            + "FOR EACH ROW REPLACE INTO transaction_logs_new (id, " + COLUMNS + ") " + newRow);
+        jdbcTemplate.execute("CREATE TRIGGER transaction_logs_mig_delete AFTER DELETE ON transaction_logs "
+            + "FOR EACH ROW DELETE FROM transaction_logs_new WHERE id = " + String.format(BINARY_ID, "OLD"));
+    }
+
+    private void backfill() throws InterruptedException {
+        TransferProperties.Migration config = transferProperties.getMigration();
+        int chunkSize = Math.max(1, config.getChunkSize());
+        long pauseMillis = config.getChunkPause().toMillis();
+
+        String lastId = "";
+        long copied = 0;
+        while (true) {
+            List<String> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM transaction_logs WHERE id > ? ORDER BY id LIMIT ?", String.class, lastId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            String upperId = ids.get(ids.size() - 1);
+            // IGNORE: rows already mirrored by a trigger are newer than what this chunk read
+            copied += jdbcTemplate.update(
+                "INSERT IGNORE INTO transaction_logs_new (id, " + COLUMNS + ") "
+                    + "SELECT " + String.format(BINARY_ID, "t") + ", " + COLUMNS + " FROM transaction_logs t "
+                    + "WHERE t.id > ? AND t.id <= ?",
+                lastId, upperId);
+            lastId = upperId;
+            log.info("Backfilled {} transaction_logs rows (up to id {})", copied, lastId);
+            if (pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        }
+    }
+
+    private void swapTables() {
+        Integer triggers = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.TRIGGERS "
+                + "WHERE TRIGGER_SCHEMA = DATABASE() AND TRIGGER_NAME IN (?, ?, ?)",
+            Integer.class, TRIGGER_NAMES.toArray());
+        if (triggers == null || triggers != TRIGGER_NAMES.size()) {
+            // Without every trigger, transaction_logs_new may have missed writes since the copy
+            throw new IllegalStateException(
+                "transaction_logs_new is not being kept in sync; run the copy step again before swapping");
+        }
+        // Writers are stopped, so nothing is lost between dropping the triggers and the rename
+        dropTriggers();
+        jdbcTemplate.execute(
+            "RENAME TABLE transaction_logs TO transaction_logs_old, transaction_logs_new TO transaction_logs");
+    }
+
+    private void dropTriggers() {
+        for (String trigger : TRIGGER_NAMES) {
+            jdbcTemplate.execute("DROP TRIGGER IF EXISTS " + trigger);
+        }
+    }
+}
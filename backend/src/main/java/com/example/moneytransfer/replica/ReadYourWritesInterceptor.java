@@ -0,0 +1,45 @@
+package com.example.moneytransfer.replica;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+import java.util.Set;
+
+/**
+ * Pins the authenticated client to the primary for every write request, so its next reads see
+ * what it just wrote even if the replicas have not caught up. The pin is taken before the handler
+ * runs, since the client may issue its next read as soon as the response is committed, and renewed
+ * once the request completes so a slow write still gets the full window.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReplicaRouter router;
+
+    public ReadYourWritesInterceptor(ReplicaRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Also pins writes that end up failing; that only sends a few reads to the primary
+        pinWriter(request);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        pinWriter(request);
+    }
+
+    private void pinWriter(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && !READ_METHODS.contains(request.getMethod())) {
+            router.pin(principal.getName());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.moneytransfer.replica;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Measures replication lag with a heartbeat row: the primary stamps {@code replica_heartbeat}
+ * with its current time, and a replica's lag is how far its replicated stamp trails the
+ * replica's own clock. Unlike the replica status, this needs no replication privileges and
+ * also covers replication that has silently stopped.
+ */
+public class ReplicaHeartbeat {
+
+    private final int queryTimeoutSeconds;
+
+    public ReplicaHeartbeat(Duration queryTimeout) {
+        this.queryTimeoutSeconds = (int) Math.max(1, queryTimeout.toSeconds());
+    }
+
+    public void beat(DataSource primary) {
+        jdbcTemplate(primary).update("INSERT INTO replica_heartbeat (id, beat) VALUES (1, CURRENT_TIMESTAMP(3)) "
+            + "ON DUPLICATE KEY UPDATE beat = VALUES(beat)");
+    }
+
+    /**
+     * @return how far the replica trails the primary in milliseconds, or -1 if it has no heartbeat
+     */
+    public long lagMillis(DataSource replica) {
+        List<Long> lag = jdbcTemplate(replica).queryForList(
+            "SELECT TIMESTAMPDIFF(MICROSECOND, beat, CURRENT_TIMESTAMP(3)) FROM replica_heartbeat WHERE id = 1",
+            Long.class);
+        return lag.isEmpty() || lag.get(0) == null ? -1 : Math.max(0, lag.get(0) / 1_000);
+    }
+
+    private JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
+        return jdbcTemplate;
+    }
+}
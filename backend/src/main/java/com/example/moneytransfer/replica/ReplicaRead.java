@@ -0,0 +1,16 @@
+package com.example.moneytransfer.replica;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read whose connections may be served by a replica when replica routing is enabled.
+ * Only connections taken outside a read-write transaction are routed, and a client pinned to the
+ * primary after a write is never routed. Without replica routing the annotation has no effect.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,40 @@
+package com.example.moneytransfer.replica;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Opens the replica scope around {@link ReplicaRead} methods, unless the calling client is
+ * pinned to the primary after a recent write.
+ */
+@Aspect
+public class ReplicaReadAspect {
+
+    private final ReplicaRouter router;
+
+    public ReplicaReadAspect(ReplicaRouter router) {
+        this.router = router;
+    }
+
+    @Around("@annotation(com.example.moneytransfer.replica.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && router.isPinned(authentication.getName())) {
+            return joinPoint.proceed();
+        }
+        Boolean previous = ReplicaRouter.REPLICA_SCOPE.get();
+        ReplicaRouter.REPLICA_SCOPE.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (previous == null) {
+                ReplicaRouter.REPLICA_SCOPE.remove();
+            } else {
+                ReplicaRouter.REPLICA_SCOPE.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.moneytransfer.replica;
+
+import com.example.moneytransfer.domain.dto.ReplicaStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides which database serves a connection. Connections are taken from the primary unless the
+ * current thread is inside a {@link ReplicaRead} and not inside a read-write transaction; those
+ * go round-robin to a replica that answered its last health check within {@code max-lag}, or to
+ * the primary when no replica qualifies.
+ * <p>
+ * A monitor thread stamps the heartbeat on the primary and measures every replica each
+ * {@code health-check-interval}, so a replica may serve reads up to {@code max-lag} plus one
+ * interval behind. Clients that need their own writes back can be pinned to the primary for a
+ * while after each write.
+ */
+@Slf4j
+public class ReplicaRouter implements AutoCloseable {
+
+    // Set while a @ReplicaRead method runs; connections taken meanwhile may go to a replica
+    static final ThreadLocal<Boolean> REPLICA_SCOPE = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaHeartbeat heartbeat;
+    private final long maxLagMillis;
+    private final Duration healthCheckInterval;
+    private final long pinNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryFallbacks = new LongAdder();
+    private final ScheduledExecutorService monitor;
+
+    public ReplicaRouter(DataSource primary, Map<String, DataSource> replicas, ReplicaHeartbeat heartbeat,
+                         Duration maxLag, Duration healthCheckInterval, Duration readYourWrites) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+            .map(replica -> new Replica(replica.getKey(), replica.getValue()))
+            .toList();
+        this.heartbeat = heartbeat;
+        this.maxLagMillis = maxLag.toMillis();
+        this.healthCheckInterval = healthCheckInterval;
+        this.pinNanos = readYourWrites.toNanos();
+        this.monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        long intervalMillis = Math.max(1, healthCheckInterval.toMillis());
+        monitor.scheduleWithFixedDelay(this::checkReplicas, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public DataSource primary() {
+        return primary;
+    }
+
+    /**
+     * @return the database the connection about to be taken on this thread should come from
+     */
+    public DataSource route() {
+        if (!Boolean.TRUE.equals(REPLICA_SCOPE.get()) || replicas.isEmpty()
+            || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return primary;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.usable) {
+                replicaReads.increment();
+                return replica.dataSource;
+            }
+        }
+        primaryFallbacks.increment();
+        return primary;
+    }
+
+    /**
+     * Sends the client's replica reads to the primary for the configured read-your-writes window.
+     */
+    public void pin(String client) {
+        if (pinNanos > 0) {
+            pinnedUntil.put(client, System.nanoTime() + pinNanos);
+        }
+    }
+
+    public boolean isPinned(String client) {
+        Long until = pinnedUntil.get(client);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        pinnedUntil.remove(client, until);
+        return false;
+    }
+
+    /**
+     * Stamps the primary's heartbeat, then re-measures every replica. A replica is usable only
+     * if it answered and trails the primary by at most {@code max-lag}.
+     */
+    void checkReplicas() {
+        try {
+            heartbeat.beat(primary);
+        } catch (RuntimeException e) {
+            // Replicas will show growing lag and stop being used until the primary is back
+            log.warn("Failed to write the replica heartbeat: {}", e.getMessage());
+        }
+        for (Replica replica : replicas) {
+            boolean wasUsable = replica.usable;
+            try {
+                replica.lagMillis = heartbeat.lagMillis(replica.dataSource);
+                replica.lastError = null;
+                replica.usable = replica.lagMillis >= 0 && replica.lagMillis <= maxLagMillis;
+            } catch (RuntimeException e) {
+                replica.lagMillis = -1;
+                replica.lastError = e.getMessage();
+                replica.usable = false;
+            }
+            if (wasUsable != replica.usable) {
+                log.warn("Replica {} is now {} (lag {} ms{})", replica.name, replica.usable ? "in use" : "bypassed",
+                    replica.lagMillis, replica.lastError == null ? "" : ", " + replica.lastError);
+            }
+        }
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> now - until >= 0);
+    }
+
+    public ReplicaStatsResponse stats() {
+        List<ReplicaStatsResponse.Replica> states = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            states.add(ReplicaStatsResponse.Replica.builder()
+                .name(replica.name)
+                .usable(replica.usable)
+                .lagMillis(replica.lagMillis)
+                .lastError(replica.lastError)
+                .build());
+        }
+        return ReplicaStatsResponse.builder()
+            .replicaReads(replicaReads.sum())
+            .primaryFallbacks(primaryFallbacks.sum())
+            .pinnedClients(pinnedUntil.size())
+            .replicas(states)
+            .build();
+    }
+
+    /**
+     * Stops the monitor and closes every replica data source that can be closed, such as their
+     * connection pools. The primary belongs to the caller and is left open.
+     */
+    @Override
+    public void close() {
+        monitor.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica {}: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean usable;
+        private volatile long lagMillis = -1;
+        private volatile String lastError;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.moneytransfer.replica;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Takes each connection from the database {@link ReplicaRouter} picks at that moment. Wrapped
+ * in a {@code LazyConnectionDataSourceProxy}, so the choice is made at the first statement of a
+ * transaction, once its read-only flag is known. Unwrapping reaches the primary pool.
+ */
+public class RoutingDataSource extends AbstractDataSource {
+
+    private final ReplicaRouter router;
+
+    public RoutingDataSource(ReplicaRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return router.route().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return router.route().getConnection(username, password);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : router.primary().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || router.primary().isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.moneytransfer.repository;
+
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.domain.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to the double-entry journal: {@code account_entries} holds one immutable
+ * signed entry per account side of a transfer, {@code account_checkpoints} the balance of an
+ * account up to and including a given entry.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountEntryRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Takes a shared lock on the account row and returns its status, or empty if it does not
+     * exist. Shared locks let concurrent credits proceed while excluding checkpoints and debits.
+     */
+    public Optional<String> lockShared(Long accountId) {
+        return jdbcTemplate.queryForList("SELECT status FROM accounts WHERE id = ? FOR SHARE",
+            String.class, accountId).stream().findFirst();
+    }
+
+    /**
+     * Takes an exclusive lock on the account row and returns its status, or empty if it does not
+     * exist.
+     */
+    public Optional<String> lockExclusive(Long accountId) {
+        return jdbcTemplate.queryForList("SELECT status FROM accounts WHERE id = ? FOR UPDATE",
+            String.class, accountId).stream().findFirst();
+    }
+
+    /**
+     * Appends the debit and credit entries of one transfer.
+     */
+    public void appendTransfer(UUID transactionId, Long fromAccountId, Long toAccountId, Money amount,
+                               Instant createdOn) {
+        byte[] id = TimeOrderedUuid.toBytes(transactionId);
+        Timestamp timestamp = Timestamp.from(createdOn);
+        BigDecimal value = amount.toBigDecimal();
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO account_entries (account_id, transaction_id, amount, created_on) VALUES (?, ?, ?, ?)",
+            List.of(
+                new Object[]{fromAccountId, id, value.negate(), timestamp},
+                new Object[]{toAccountId, id, value, timestamp}));
+    }
+
+    /**
+     * @return the latest checkpoint of the account taken at or before {@code asOf}, if any
+     */
+    public Optional<Checkpoint> findCheckpoint(Long accountId, Instant asOf) {
+        return jdbcTemplate.query(
+            "SELECT entry_id, balance FROM account_checkpoints WHERE account_id = ? AND created_on <= ? "
+                + "ORDER BY entry_id DESC LIMIT 1",
+            (rs, rowNum) -> new Checkpoint(rs.getLong("entry_id"), Money.of(rs.getBigDecimal("balance"))),
+            accountId, Timestamp.from(asOf)).stream().findFirst();
+    }
+
+    public Optional<Checkpoint> findLatestCheckpoint(Long accountId) {
+        return jdbcTemplate.query(
+            "SELECT entry_id, balance FROM account_checkpoints WHERE account_id = ? ORDER BY entry_id DESC LIMIT 1",
+            (rs, rowNum) -> new Checkpoint(rs.getLong("entry_id"), Money.of(rs.getBigDecimal("balance"))),
+            accountId).stream().findFirst();
+    }
+
+    /**
+     * Sums the account's entries after the given entry id, optionally only those created up to
+     * {@code asOf}.
+     *
+     * @return the sum and the highest entry id included (the given id if there were none)
+     */
+    public Checkpoint sumAfter(Long accountId, long afterEntryId, Instant asOf) {
+        String sql = "SELECT COALESCE(SUM(amount), 0) AS total, MAX(id) AS last_id FROM account_entries "
+            + "WHERE account_id = ? AND id > ?" + (asOf == null ? "" : " AND created_on <= ?");
+        Object[] args = asOf == null
+            ? new Object[]{accountId, afterEntryId}
+            : new Object[]{accountId, afterEntryId, Timestamp.from(asOf)};
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> {
+            long lastId = rs.getLong("last_id");
+            return new Checkpoint(rs.wasNull() ? afterEntryId : lastId, Money.of(rs.getBigDecimal("total")));
+        }, args);
+    }
+
+    public void insertCheckpoint(Long accountId, Checkpoint checkpoint, Instant createdOn) {
+        jdbcTemplate.update(
+            "INSERT INTO account_checkpoints (account_id, entry_id, balance, created_on) VALUES (?, ?, ?, ?)",
+            accountId, checkpoint.entryId(), checkpoint.balance().toBigDecimal(), Timestamp.from(createdOn));
+    }
+
+    /**
+     * Mirrors a checkpointed balance into {@code accounts.balance} for readers outside the journal.
+     */
+    public void updateAccountBalance(Long accountId, Money balance) {
+        jdbcTemplate.update("UPDATE accounts SET balance = ? WHERE id = ?", balance.toBigDecimal(), accountId);
+    }
+
+    public Money findAccountBalance(Long accountId) {
+        return Money.of(jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?",
+            BigDecimal.class, accountId));
+    }
+
+    /**
+     * Folds hot-account bucket balances back into their account rows and turns bucketing off.
+     * Journal credits never contend on the row, so buckets are not needed.
+     *
+     * @return the number of accounts folded
+     */
+    public int foldBalanceBuckets() {
+        int folded = jdbcTemplate.update(
+            "UPDATE accounts a JOIN (SELECT account_id, SUM(balance) AS total FROM account_balance_buckets "
+                + "GROUP BY account_id) b ON a.id = b.account_id "
+                + "SET a.balance = a.balance + b.total, a.balance_buckets = 0, a.version = a.version + 1");
+        jdbcTemplate.update("DELETE FROM account_balance_buckets");
+        jdbcTemplate.update("UPDATE accounts SET balance_buckets = 0 WHERE balance_buckets > 0");
+        return folded;
+    }
+
+    /**
+     * Seeds a checkpoint at entry 0 from the row balance for every account that has none.
+     *
+     * @return the number of accounts seeded
+     */
+    public int seedCheckpoints(Instant createdOn) {
+        return jdbcTemplate.update(
+            "INSERT INTO account_checkpoints (account_id, entry_id, balance, created_on) "
+                + "SELECT a.id, 0, a.balance, ? FROM accounts a "
+                + "WHERE NOT EXISTS (SELECT 1 FROM account_checkpoints c WHERE c.account_id = a.id)",
+            Timestamp.from(createdOn));
+    }
+
+    /**
+     * Driven from the entries, so accounts without any checkpoint (e.g. created after the
+     * checkpoints were seeded) are found too. Both sides are read as the latest id per account,
+     * which MySQL answers with one index probe per account instead of reading every entry.
+     *
+     * @return accounts that have entries newer than their latest checkpoint, or no checkpoint
+     */
+    public List<Long> findAccountsWithUncheckpointedEntries() {
+        return jdbcTemplate.queryForList(
+            "SELECT e.account_id FROM (SELECT account_id, MAX(id) AS last_id FROM account_entries "
+                + "GROUP BY account_id) e "
+                + "LEFT JOIN (SELECT account_id, MAX(entry_id) AS entry_id FROM account_checkpoints "
+                + "GROUP BY account_id) c ON c.account_id = e.account_id "
+                + "WHERE c.entry_id IS NULL OR e.last_id > c.entry_id",
+            Long.class);
+    }
+
+    /**
+     * A balance up to and including {@code entryId}.
+     */
+    public record Checkpoint(long entryId, Money balance) {
+    }
+}
@@ -1,9 +1,43 @@
 package com.example.moneytransfer.repository;
 
 import com.example.moneytransfer.domain.entity.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
+
+    /**
+     * Loads an account and takes a row-level write lock on it (SELECT ... FOR UPDATE).
+     * Callers locking more than one account must acquire them in ascending id order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Locks a set of accounts in one statement, scanning the primary key in ascending order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Applies a signed balance delta in place without loading the entity. Native, because the
+     * balance attribute is a converted {@code Money} that JPQL cannot do arithmetic on.
+     */
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance + :delta, version = version + 1 WHERE id = :id",
+        nativeQuery = true)
+    int adjustBalance(@Param("id") Long id, @Param("delta") BigDecimal delta);
 }
@@ -0,0 +1,79 @@
+package com.example.moneytransfer.repository;
+
+import com.example.moneytransfer.domain.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plain JDBC access to {@code account_daily_rollups}, the per-account, per-UTC-day credit and
+ * debit totals. A day may be spread over several stripes so that credits which do not lock the
+ * account row do not all update one rollup row; reads sum the stripes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountRollupRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the increments to their rollup rows, creating missing rows. Callers pass the
+     * increments sorted by key so concurrent writers lock rows in the same order.
+     */
+    public void add(Collection<Increment> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO account_daily_rollups "
+                + "(account_id, rollup_date, stripe, credit_total, credit_count, debit_total, debit_count) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE credit_total = credit_total + VALUES(credit_total), "
+                + "credit_count = credit_count + VALUES(credit_count), "
+                + "debit_total = debit_total + VALUES(debit_total), "
+                + "debit_count = debit_count + VALUES(debit_count)",
+            increments.stream().map(increment -> new Object[]{
+                increment.accountId(), Date.valueOf(increment.date()), increment.stripe(),
+                increment.credited().toBigDecimal(), increment.credits(),
+                increment.debited().toBigDecimal(), increment.debits()
+            }).toList());
+    }
+
+    /**
+     * @return the account's totals for each day in {@code [from, to]} that had any activity,
+     *         oldest first
+     */
+    public List<DailyTotals> findDaily(Long accountId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+            "SELECT rollup_date, SUM(credit_total) AS credit_total, SUM(credit_count) AS credit_count, "
+                + "SUM(debit_total) AS debit_total, SUM(debit_count) AS debit_count "
+                + "FROM account_daily_rollups WHERE account_id = ? AND rollup_date BETWEEN ? AND ? "
+                + "GROUP BY rollup_date ORDER BY rollup_date",
+            (rs, rowNum) -> new DailyTotals(rs.getDate("rollup_date").toLocalDate(),
+                Money.of(rs.getBigDecimal("credit_total")), rs.getLong("credit_count"),
+                Money.of(rs.getBigDecimal("debit_total")), rs.getLong("debit_count")),
+            accountId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Deletes up to {@code limit} rollup rows of days before {@code cutoff}.
+     *
+     * @return the number of rows deleted
+     */
+    public int deleteBefore(LocalDate cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM account_daily_rollups WHERE rollup_date < ? LIMIT ?",
+            Date.valueOf(cutoff), limit);
+    }
+
+    public record Increment(Long accountId, LocalDate date, int stripe,
+                            Money credited, long credits, Money debited, long debits) {
+    }
+
+    public record DailyTotals(LocalDate date, Money credited, long credits, Money debited, long debits) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.moneytransfer.repository;
+
+import com.example.moneytransfer.domain.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Plain JDBC access to {@code account_balance_buckets}, the sub-balances of hot accounts. Every
+ * statement touches as few bucket rows as possible so concurrent credits to the same account
+ * only contend when they pick the same bucket.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BalanceBucketRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return the bucket count of every hot account, keyed by account id
+     */
+    public Map<Long, Integer> findBucketCounts() {
+        Map<Long, Integer> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT id, balance_buckets FROM accounts WHERE balance_buckets > 0",
+            rs -> {
+                counts.put(rs.getLong("id"), rs.getInt("balance_buckets"));
+            });
+        return counts;
+    }
+
+    /**
+     * Creates any missing buckets {@code 0..count-1} with a zero balance.
+     */
+    public void createBuckets(Long accountId, int count) {
+        List<Object[]> rows = IntStream.range(0, count)
+            .mapToObj(bucket -> new Object[]{accountId, bucket})
+            .toList();
+        jdbcTemplate.batchUpdate(
+            "INSERT IGNORE INTO account_balance_buckets (account_id, bucket, balance) VALUES (?, ?, 0)", rows);
+    }
+
+    public int credit(Long accountId, int bucket, Money amount) {
+        return jdbcTemplate.update(
+            "UPDATE account_balance_buckets SET balance = balance + ? WHERE account_id = ? AND bucket = ?",
+            amount.toBigDecimal(), accountId, bucket);
+    }
+
+    /**
+     * Returns some bucket that held at least {@code amount} in a non-locking read, or -1.
+     */
+    public int findBucketWithFunds(Long accountId, Money amount) {
+        List<Integer> buckets = jdbcTemplate.queryForList(
+            "SELECT bucket FROM account_balance_buckets WHERE account_id = ? AND balance >= ? LIMIT 1",
+            Integer.class, accountId, amount.toBigDecimal());
+        return buckets.isEmpty() ? -1 : buckets.get(0);
+    }
+
+    /**
+     * Debits a bucket only if it still holds enough, so a concurrent debit cannot overdraw it.
+     *
+     * @return 1 if the bucket was debited, 0 otherwise
+     */
+    public int debitIfSufficient(Long accountId, int bucket, Money amount) {
+        BigDecimal value = amount.toBigDecimal();
+        return jdbcTemplate.update(
+            "UPDATE account_balance_buckets SET balance = balance - ? "
+                + "WHERE account_id = ? AND bucket = ? AND balance >= ?",
+            value, accountId, bucket, value);
+    }
+
+    /**
+     * Locks all of the account's buckets, empties them and returns what they held.
+     */
+    public Money drain(Long accountId) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(
+            "SELECT balance FROM account_balance_buckets WHERE account_id = ? ORDER BY bucket FOR UPDATE",
+            BigDecimal.class, accountId);
+        BigDecimal total = balances.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.signum() != 0) {
+            jdbcTemplate.update("UPDATE account_balance_buckets SET balance = 0 WHERE account_id = ?", accountId);
+        }
+        return Money.of(total);
+    }
+
+    public Money sumBalance(Long accountId) {
+        BigDecimal total = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(balance), 0) FROM account_balance_buckets WHERE account_id = ?",
+            BigDecimal.class, accountId);
+        return total == null ? Money.ZERO : Money.of(total);
+    }
+
+    /**
+     * @return the summed bucket balance of every account that has buckets
+     */
+    public Map<Long, Money> sumBalances() {
+        Map<Long, Money> totals = new HashMap<>();
+        jdbcTemplate.query("SELECT account_id, SUM(balance) AS total FROM account_balance_buckets GROUP BY account_id",
+            rs -> {
+                totals.put(rs.getLong("account_id"), Money.of(rs.getBigDecimal("total")));
+            });
+        return totals;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.moneytransfer.repository;
+
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.domain.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based JDBC statements for bulk ledger imports. Nothing here goes through the persistence
+ * context, so a chunk of thousands of lines costs a handful of batched round trips.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LedgerImportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Locks the accounts in ascending id order and returns their current state.
+     */
+    public Map<Long, AccountState> lockAccounts(Collection<Long> accountIds) {
+        Map<Long, AccountState> accounts = new HashMap<>();
+        new NamedParameterJdbcTemplate(jdbcTemplate).query(
+            "SELECT id, balance, status, balance_buckets FROM accounts WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+            new MapSqlParameterSource("ids", accountIds),
+            rs -> {
+                accounts.put(rs.getLong("id"), new AccountState(Money.of(rs.getBigDecimal("balance")),
+                    AccountStatus.valueOf(rs.getString("status")), rs.getInt("balance_buckets") > 0));
+            });
+        return accounts;
+    }
+
+    /**
+     * @return the subset of the keys already recorded in {@code transaction_logs}
+     */
+    public Set<String> findExistingKeys(Collection<String> idempotencyKeys) {
+        return new HashSet<>(new NamedParameterJdbcTemplate(jdbcTemplate).queryForList(
+            "SELECT idempotency_key FROM transaction_logs WHERE idempotency_key IN (:keys)",
+            new MapSqlParameterSource("keys", idempotencyKeys), String.class));
+    }
+
+    public void insertLogs(List<TransactionLog> transactionLogs) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO transaction_logs "
+                + "(id, from_account, to_account, amount, status, failure_reason, idempotency_key, created_on) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            transactionLogs.stream().map(log -> new Object[]{
+                TimeOrderedUuid.toBytes(log.getId()), log.getFromAccountId(), log.getToAccountId(),
+                log.getAmount().toBigDecimal(), log.getStatus().name(), log.getFailureReason(), log.getIdempotencyKey(),
+                Timestamp.from(log.getCreatedOn())
+            }).toList());
+    }
+
+    /**
+     * Applies one net balance change per account.
+     */
+    public void applyDeltas(Map<Long, Money> deltas) {
+        jdbcTemplate.batchUpdate(
+            "UPDATE accounts SET balance = balance + ?, version = version + 1 WHERE id = ?",
+            deltas.entrySet().stream()
+                .map(delta -> new Object[]{delta.getValue().toBigDecimal(), delta.getKey()})
+                .toList());
+    }
+
+    public record AccountState(Money balance, AccountStatus status, boolean hot) {
+    }
+}
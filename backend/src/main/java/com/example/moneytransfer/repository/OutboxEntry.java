@@ -0,0 +1,33 @@
+package com.example.moneytransfer.repository;
+
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.money.Money;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A transfer accepted for asynchronous execution. Its id becomes the transaction id of the
+ * transfer once it is executed.
+ */
+@Value
+@Builder(toBuilder = true)
+public class OutboxEntry {
+
+    UUID id;
+    Long fromAccountId;
+    Long toAccountId;
+    Money amount;
+    String idempotencyKey;
+    TransactionStatus status;
+    String failureReason;
+    int attempts;
+    Instant createdOn;
+
+    public TransferRequest toRequest() {
+        return new TransferRequest(fromAccountId, toAccountId, amount, idempotencyKey);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.moneytransfer.repository;
+
+import com.example.moneytransfer.domain.dto.TransactionResponse;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Read-side access to an account's transaction history through plain JDBC, returning DTOs
+ * rather than managed entities. Each direction is queried separately so MySQL can range-scan
+ * the {@code (from_account, created_on, id)} and {@code (to_account, created_on, id)} indexes
+ * instead of evaluating {@code from_account = ? OR to_account = ?} over the whole table.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionHistoryRepository {
+
+    private static final String COLUMNS =
+        "id, from_account, to_account, amount, status, failure_reason, idempotency_key, created_on";
+
+    private static final String FIRST_PAGE_SQL =
+        "(SELECT " + COLUMNS + " FROM transaction_logs WHERE from_account = ? "
+            + "ORDER BY created_on DESC, id DESC LIMIT ?) "
+            + "UNION ALL "
+            + "(SELECT " + COLUMNS + " FROM transaction_logs WHERE to_account = ? "
+            + "ORDER BY created_on DESC, id DESC LIMIT ?) "
+            + "ORDER BY created_on DESC, id DESC LIMIT ?";
+
+    private static final String NEXT_PAGE_SQL =
+        "(SELECT " + COLUMNS + " FROM transaction_logs WHERE from_account = ? "
+            + "AND (created_on < ? OR (created_on = ? AND id < ?)) "
+            + "ORDER BY created_on DESC, id DESC LIMIT ?) "
+            + "UNION ALL "
+            + "(SELECT " + COLUMNS + " FROM transaction_logs WHERE to_account = ? "
+            + "AND (created_on < ? OR (created_on = ? AND id < ?)) "
+            + "ORDER BY created_on DESC, id DESC LIMIT ?) "
+            + "ORDER BY created_on DESC, id DESC LIMIT ?";
+
+    private static final int STREAM_PAGE_SIZE = 500;
+
+    private static final RowMapper<TransactionResponse> ROW_MAPPER = TransactionHistoryRepository::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns up to {@code limit} transactions older than the cursor (or the newest, if null).
+     */
+    public List<TransactionResponse> findPage(Long accountId, TransactionCursor after, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query(FIRST_PAGE_SQL, ROW_MAPPER, accountId, limit, accountId, limit, limit);
+        }
+        Timestamp createdOn = Timestamp.from(after.getCreatedOn());
+        byte[] id = toBinaryId(after.getId());
+        return jdbcTemplate.query(NEXT_PAGE_SQL, ROW_MAPPER,
+            accountId, createdOn, createdOn, id, limit,
+            accountId, createdOn, createdOn, id, limit,
+            limit);
+    }
+
+    /**
+     * Streams every transaction of the account, newest first, to the consumer. The history is
+     * read in keyset pages, so each query range-scans the two direction indexes and sorts at most
+     * two pages, and memory use does not grow with the history size.
+     */
+    public void stream(Long accountId, Consumer<TransactionResponse> consumer) {
+        TransactionCursor after = null;
+        List<TransactionResponse> page;
+        do {
+            page = findPage(accountId, after, STREAM_PAGE_SIZE);
+            page.forEach(consumer);
+            if (!page.isEmpty()) {
+                TransactionResponse last = page.get(page.size() - 1);
+                after = new TransactionCursor(last.getCreatedOn(), last.getId());
+            }
+        } while (page.size() == STREAM_PAGE_SIZE);
+    }
+
+    private static TransactionResponse mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return TransactionResponse.builder()
+            .id(TimeOrderedUuid.fromBytes(rs.getBytes("id")).toString())
+            .fromAccountId(rs.getLong("from_account"))
+            .toAccountId(rs.getLong("to_account"))
+            .amount(rs.getBigDecimal("amount"))
+            .status(rs.getString("status"))
+            .failureReason(rs.getString("failure_reason"))
+            .idempotencyKey(rs.getString("idempotency_key"))
+            .createdOn(rs.getTimestamp("created_on").toInstant())
+            .build();
+    }
+
+    private static byte[] toBinaryId(String id) {
+        try {
+            return TimeOrderedUuid.toBytes(UUID.fromString(id));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor id: " + id);
+        }
+    }
+}
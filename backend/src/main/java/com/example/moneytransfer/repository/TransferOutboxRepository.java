@@ -0,0 +1,125 @@
+package com.example.moneytransfer.repository;
+
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.domain.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to {@code transfer_outbox}, the durable queue of asynchronously submitted
+ * transfers. Workers claim pending rows by leasing them: a claimed row is skipped by other
+ * workers until its lease expires, so a transfer whose worker died is picked up again.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferOutboxRepository {
+
+    private static final String COLUMNS =
+        "id, from_account, to_account, amount, idempotency_key, status, failure_reason, attempts, created_on";
+
+    private static final RowMapper<OutboxEntry> ROW_MAPPER = TransferOutboxRepository::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts a pending entry; fails with a {@code DataIntegrityViolationException} if the
+     * idempotency key was already submitted.
+     */
+    public void insert(OutboxEntry entry) {
+        Timestamp now = Timestamp.from(entry.getCreatedOn());
+        jdbcTemplate.update(
+            "INSERT INTO transfer_outbox (" + COLUMNS + ", updated_on) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            TimeOrderedUuid.toBytes(entry.getId()), entry.getFromAccountId(), entry.getToAccountId(),
+            entry.getAmount().toBigDecimal(), entry.getIdempotencyKey(), entry.getStatus().name(), entry.getFailureReason(),
+            entry.getAttempts(), now, now);
+    }
+
+    public Optional<OutboxEntry> findById(UUID id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM transfer_outbox WHERE id = ?",
+            ROW_MAPPER, (Object) TimeOrderedUuid.toBytes(id)).stream().findFirst();
+    }
+
+    public Optional<OutboxEntry> findByIdempotencyKey(String idempotencyKey) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM transfer_outbox WHERE idempotency_key = ?",
+            ROW_MAPPER, idempotencyKey).stream().findFirst();
+    }
+
+    /**
+     * Leases up to {@code limit} of the oldest pending entries until {@code leaseUntil} and
+     * counts the attempt. Rows locked by another worker's claim are skipped rather than waited
+     * for. Must run inside a transaction.
+     *
+     * @return the claimed entries, with their attempt count already incremented
+     */
+    public List<OutboxEntry> claim(int limit, Instant now, Instant leaseUntil) {
+        List<OutboxEntry> entries = jdbcTemplate.query(
+            "SELECT " + COLUMNS + " FROM transfer_outbox "
+                + "WHERE status = 'PENDING' AND (claimed_until IS NULL OR claimed_until < ?) "
+                + "ORDER BY created_on LIMIT ? FOR UPDATE SKIP LOCKED",
+            ROW_MAPPER, Timestamp.from(now), limit);
+        if (entries.isEmpty()) {
+            return entries;
+        }
+        Timestamp lease = Timestamp.from(leaseUntil);
+        jdbcTemplate.batchUpdate(
+            "UPDATE transfer_outbox SET claimed_until = ?, attempts = attempts + 1 WHERE id = ?",
+            entries.stream().map(entry -> new Object[]{lease, TimeOrderedUuid.toBytes(entry.getId())}).toList());
+        return entries.stream()
+            .map(entry -> entry.toBuilder().attempts(entry.getAttempts() + 1).build())
+            .toList();
+    }
+
+    /**
+     * Records the final outcome of an entry.
+     */
+    public void complete(UUID id, TransactionStatus status, String failureReason) {
+        jdbcTemplate.update(
+            "UPDATE transfer_outbox SET status = ?, failure_reason = ?, claimed_until = NULL, updated_on = ? "
+                + "WHERE id = ?",
+            status.name(), failureReason, Timestamp.from(Instant.now()), TimeOrderedUuid.toBytes(id));
+    }
+
+    /**
+     * Ends the lease of an entry that should be attempted again at or after {@code retryAt}.
+     */
+    public void release(UUID id, Instant retryAt) {
+        jdbcTemplate.update("UPDATE transfer_outbox SET claimed_until = ?, updated_on = ? WHERE id = ?",
+            Timestamp.from(retryAt), Timestamp.from(Instant.now()), TimeOrderedUuid.toBytes(id));
+    }
+
+    /**
+     * Deletes up to {@code limit} finished entries last updated before {@code cutoff}.
+     *
+     * @return the number of rows deleted
+     */
+    public int deleteCompletedBefore(Instant cutoff, int limit) {
+        return jdbcTemplate.update(
+            "DELETE FROM transfer_outbox WHERE status <> 'PENDING' AND updated_on < ? LIMIT ?",
+            Timestamp.from(cutoff), limit);
+    }
+
+    private static OutboxEntry mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return OutboxEntry.builder()
+            .id(TimeOrderedUuid.fromBytes(rs.getBytes("id")))
+            .fromAccountId(rs.getLong("from_account"))
+            .toAccountId(rs.getLong("to_account"))
+            .amount(Money.of(rs.getBigDecimal("amount")))
+            .idempotencyKey(rs.getString("idempotency_key"))
+            .status(TransactionStatus.valueOf(rs.getString("status")))
+            .failureReason(rs.getString("failure_reason"))
+            .attempts(rs.getInt("attempts"))
+            .createdOn(rs.getTimestamp("created_on").toInstant())
+            .build();
+    }
+}
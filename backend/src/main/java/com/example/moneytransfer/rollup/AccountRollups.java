@@ -0,0 +1,128 @@
+package com.example.moneytransfer.rollup;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.AccountRollupRepository;
+import com.example.moneytransfer.repository.AccountRollupRepository.DailyTotals;
+import com.example.moneytransfer.repository.AccountRollupRepository.Increment;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Maintains per-account daily credit and debit totals as transfers are written. Every write path
+ * calls {@link #record} or {@link #recordAll} inside the transaction that inserts the transaction
+ * logs, so a rollup changes exactly when its transfers commit. Days are UTC days of the log's
+ * {@code created_on}; only successful transfers are counted.
+ * <p>
+ * Writes made while holding the account row lock go to stripe 0 and so add no contention. A
+ * credit that deliberately avoids the row lock (hot accounts, journal mode) goes to a random
+ * stripe in {@code 1..credit-stripes} instead, so rollups do not reintroduce a hot row.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.rollups", name = "enabled", havingValue = "true")
+public class AccountRollups {
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparingLong(Key::accountId)
+        .thenComparing(Key::date)
+        .thenComparingInt(Key::stripe);
+
+    private final AccountRollupRepository rollupRepository;
+    private final int creditStripes;
+
+    public AccountRollups(AccountRollupRepository rollupRepository, TransferProperties transferProperties) {
+        this.rollupRepository = rollupRepository;
+        this.creditStripes = Math.max(1, transferProperties.getRollups().getCreditStripes());
+    }
+
+    /**
+     * Counts one successful transfer whose source account row is locked by the caller.
+     *
+     * @param destinationLocked whether the caller also holds the destination account's row lock
+     */
+    public void record(TransactionLog transactionLog, boolean destinationLocked) {
+        Map<Key, Totals> totals = newTotals();
+        add(totals, transactionLog, destinationLocked
+            ? 0
+            : 1 + ThreadLocalRandom.current().nextInt(creditStripes));
+        write(totals);
+    }
+
+    /**
+     * Counts successful transfers whose accounts are all locked by the caller, writing one
+     * increment per account and day.
+     */
+    public void recordAll(Collection<TransactionLog> transactionLogs) {
+        Map<Key, Totals> totals = newTotals();
+        for (TransactionLog transactionLog : transactionLogs) {
+            add(totals, transactionLog, 0);
+        }
+        write(totals);
+    }
+
+    /**
+     * @return the account's totals for each active day in {@code [from, to]}, oldest first
+     */
+    public List<DailyTotals> daily(Long accountId, LocalDate from, LocalDate to) {
+        return rollupRepository.findDaily(accountId, from, to);
+    }
+
+    public static LocalDate dayOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static void add(Map<Key, Totals> totals, TransactionLog transactionLog, int creditStripe) {
+        Instant createdOn = transactionLog.getCreatedOn() != null ? transactionLog.getCreatedOn() : Instant.now();
+        add(totals, transactionLog.getFromAccountId(), transactionLog.getToAccountId(),
+            transactionLog.getAmount().minorUnits(), dayOf(createdOn), creditStripe);
+    }
+
+    /**
+     * Adds one transfer to the accumulated totals, its debit side to stripe 0.
+     */
+    static void add(Map<Key, Totals> totals, long fromAccountId, long toAccountId, long amount, LocalDate day,
+                    int creditStripe) {
+        Totals debit = totals.computeIfAbsent(new Key(fromAccountId, day, 0), key -> new Totals());
+        debit.debited = Math.addExact(debit.debited, amount);
+        debit.debits++;
+        Totals credit = totals.computeIfAbsent(new Key(toAccountId, day, creditStripe), key -> new Totals());
+        credit.credited = Math.addExact(credit.credited, amount);
+        credit.credits++;
+    }
+
+    static Map<Key, Totals> newTotals() {
+        return new TreeMap<>(KEY_ORDER);
+    }
+
+    static List<Increment> toIncrements(Map<Key, Totals> totals) {
+        List<Increment> increments = new ArrayList<>(totals.size());
+        totals.forEach((key, value) -> increments.add(new Increment(key.accountId(), key.date(), key.stripe(),
+            Money.ofMinor(value.credited), value.credits, Money.ofMinor(value.debited), value.debits)));
+        return increments;
+    }
+
+    private void write(Map<Key, Totals> totals) {
+        rollupRepository.add(toIncrements(totals));
+    }
+
+    record Key(long accountId, LocalDate date, int stripe) {
+    }
+
+    static final class Totals {
+        private long credited;
+        private long credits;
+        private long debited;
+        private long debits;
+    }
+}
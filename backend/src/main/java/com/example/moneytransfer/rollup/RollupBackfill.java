@@ -0,0 +1,125 @@
+package com.example.moneytransfer.rollup;
+
+import com.example.moneytransfer.archive.ArchivedTransaction;
+import com.example.moneytransfer.archive.TransactionArchive;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.AccountRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Rebuilds the daily rollups of every closed UTC day from {@code transaction_logs}, e.g. after
+ * rollups were first enabled. The rollups of those days are deleted, then successful transfers
+ * are read in primary-key chunks and added back, pausing between chunks; when archiving is
+ * enabled, the archived transfers are added back segment by segment. Days from the cutoff on
+ * are left to the incremental updates, so the job can run while transfers are served and can
+ * simply be run again if interrupted:
+ * <pre>
+ * java -jar money-transfer-system.jar --spring.main.web-application-type=none \
+ *     --transfer.rollups.backfill=true
+ * </pre>
+ * Rebuilding a day that was already maintained incrementally yields the same totals. Summaries
+ * of closed days are incomplete while the job runs, and no other node should be archiving.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.rollups", name = "backfill", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class RollupBackfill implements ApplicationRunner {
+
+    // Transfers are stamped before they commit, so a day is only closed once every transfer
+    // stamped on it has had time to commit
+    private static final Duration CLOSING_GRACE = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountRollupRepository rollupRepository;
+    private final TransferProperties transferProperties;
+    private final Optional<TransactionArchive> transactionArchive;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        TransferProperties.Rollups config = transferProperties.getRollups();
+        int chunkSize = Math.max(1, config.getBackfillChunkSize());
+        long pauseMillis = config.getBackfillChunkPause().toMillis();
+
+        LocalDate cutoff = AccountRollups.dayOf(Instant.now().minus(CLOSING_GRACE));
+        Timestamp cutoffTime = Timestamp.from(cutoff.atStartOfDay(ZoneOffset.UTC).toInstant());
+
+        long deleted = 0;
+        int removed;
+        while ((removed = rollupRepository.deleteBefore(cutoff, chunkSize)) > 0) {
+            deleted += removed;
+        }
+        log.info("Deleted {} rollup rows before {}, rebuilding from transaction_logs", deleted, cutoff);
+
+        // Rows up to the archive's watermark are read from the archive instead of the table
+        UUID watermark = transactionArchive.map(TransactionArchive::watermark).orElse(null);
+        byte[] lastId = watermark == null ? new byte[16] : TimeOrderedUuid.toBytes(watermark);
+        long scanned = 0;
+        while (true) {
+            List<ArchivedTransaction> rows = jdbcTemplate.query(
+                "SELECT id, from_account, to_account, amount, created_on FROM transaction_logs "
+                    + "WHERE id > ? AND status = 'SUCCESS' AND created_on < ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new ArchivedTransaction(TimeOrderedUuid.fromBytes(rs.getBytes("id")),
+                    rs.getLong("from_account"), rs.getLong("to_account"), Money.of(rs.getBigDecimal("amount")),
+                    TransactionStatus.SUCCESS.name(), null, null, rs.getTimestamp("created_on").toInstant()),
+                lastId, cutoffTime, chunkSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            add(rows, cutoff);
+            lastId = TimeOrderedUuid.toBytes(rows.get(rows.size() - 1).id());
+            scanned += rows.size();
+            log.info("Backfilled rollups from {} transaction_logs rows", scanned);
+            pause(pauseMillis);
+        }
+
+        if (watermark != null) {
+            long archived = 0;
+            for (List<ArchivedTransaction> rows : transactionArchive.get().segmentRows()) {
+                add(rows, cutoff);
+                archived += rows.size();
+                log.info("Backfilled rollups from {} archived rows", archived);
+                pause(pauseMillis);
+            }
+        }
+        log.info("Rollups rebuilt for every day before {}", cutoff);
+    }
+
+    private void add(List<ArchivedTransaction> rows, LocalDate cutoff) {
+        Map<AccountRollups.Key, AccountRollups.Totals> totals = AccountRollups.newTotals();
+        for (ArchivedTransaction row : rows) {
+            LocalDate day = AccountRollups.dayOf(row.createdOn());
+            if (TransactionStatus.SUCCESS.name().equals(row.status()) && day.isBefore(cutoff)) {
+                AccountRollups.add(totals, row.fromAccountId(), row.toAccountId(), row.amount().minorUnits(), day, 0);
+            }
+        }
+        if (!totals.isEmpty()) {
+            rollupRepository.add(AccountRollups.toIncrements(totals));
+        }
+    }
+
+    private static void pause(long pauseMillis) throws InterruptedException {
+        if (pauseMillis > 0) {
+            Thread.sleep(pauseMillis);
+        }
+    }
+}
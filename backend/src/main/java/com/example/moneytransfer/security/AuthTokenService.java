@@ -0,0 +1,106 @@
+package com.example.moneytransfer.security;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.AuthTokenResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues and verifies short-lived bearer tokens of the form
+ * {@code base64url(username).expiry.base64url(HMAC-SHA256)}, the expiry in epoch seconds. A token
+ * is checked with one HMAC and no lookup, and any node holding the same
+ * {@code transfer.auth.token-secret} accepts it, so nodes stay stateless. Tokens cannot be
+ * revoked; they simply stop being accepted after {@code token-ttl}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.auth", name = "tokens-enabled", havingValue = "true")
+public class AuthTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+    private final ThreadLocal<Mac> macs;
+
+    @Autowired
+    public AuthTokenService(TransferProperties transferProperties) {
+        this(transferProperties, Clock.systemUTC());
+    }
+
+    AuthTokenService(TransferProperties transferProperties, Clock clock) {
+        TransferProperties.Auth config = transferProperties.getAuth();
+        String secret = config.getTokenSecret();
+        if (secret == null || secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException(
+                "transfer.auth.token-secret must be at least " + MIN_SECRET_BYTES + " bytes when tokens are enabled");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.ttl = config.getTokenTtl();
+        this.clock = clock;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public AuthTokenResponse issue(String username) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        String payload = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(username.getBytes(StandardCharsets.UTF_8)) + "." + expiresAt.getEpochSecond();
+        return AuthTokenResponse.builder()
+            .token(payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(payload)))
+            .expiresAt(Instant.ofEpochSecond(expiresAt.getEpochSecond()))
+            .build();
+    }
+
+    /**
+     * @return the username the token was issued to, if it is authentic and has not expired
+     */
+    public Optional<String> verify(String token) {
+        int signatureStart = token.lastIndexOf('.');
+        int expiryStart = token.lastIndexOf('.', signatureStart - 1);
+        if (expiryStart <= 0) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, signatureStart);
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                return Optional.empty();
+            }
+            long expiresAt = Long.parseLong(token.substring(expiryStart + 1, signatureStart));
+            if (clock.instant().getEpochSecond() >= expiresAt) {
+                return Optional.empty();
+            }
+            return Optional.of(new String(Base64.getUrlDecoder().decode(token.substring(0, expiryStart)),
+                StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
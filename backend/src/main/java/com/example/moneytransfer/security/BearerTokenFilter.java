@@ -0,0 +1,96 @@
+package com.example.moneytransfer.security;
+
+import com.example.moneytransfer.domain.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer <token>} issued by
+ * {@link AuthTokenService}. The user is still looked up, so a removed or disabled user loses
+ * access before their token expires. A bad token is rejected outright rather than falling back to
+ * other schemes; requests without one pass through to HTTP Basic.
+ * <p>
+ * A bearer token is never accepted by the token endpoint itself, so a token cannot renew itself
+ * and still expires {@code token-ttl} after its password-authenticated issue.
+ */
+@RequiredArgsConstructor
+public class BearerTokenFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "Bearer ";
+    static final String TOKEN_PATH = "/api/v1/auth/token";
+
+    private static final ErrorResponse INVALID_TOKEN = ErrorResponse.builder()
+        .errorCode("AUTH-401")
+        .message("Invalid or expired token")
+        .build();
+
+    private static final ErrorResponse PASSWORD_REQUIRED = ErrorResponse.builder()
+        .errorCode("AUTH-403")
+        .message("Tokens are only issued to password-authenticated callers")
+        .build();
+
+    private final AuthTokenService authTokenService;
+    private final UserDetailsService userDetailsService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (request.getRequestURI().equals(request.getContextPath() + TOKEN_PATH)) {
+            reject(response, HttpStatus.FORBIDDEN, PASSWORD_REQUIRED);
+            return;
+        }
+
+        Optional<UserDetails> user = authTokenService.verify(header.substring(PREFIX.length()).trim())
+            .flatMap(this::activeUser);
+        if (user.isEmpty()) {
+            reject(response, HttpStatus.UNAUTHORIZED, INVALID_TOKEN);
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(
+            UsernamePasswordAuthenticationToken.authenticated(user.get(), null, user.get().getAuthorities()));
+        SecurityContextHolder.setContext(context);
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, ErrorResponse body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private Optional<UserDetails> activeUser(String username) {
+        try {
+            UserDetails user = userDetailsService.loadUserByUsername(username);
+            return user.isEnabled() && user.isAccountNonLocked() && user.isAccountNonExpired()
+                ? Optional.of(user) : Optional.empty();
+        } catch (UsernameNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.moneytransfer.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers which raw password matched which stored hash, so a client sending the same HTTP
+ * Basic credentials on every request pays for BCrypt once per {@code ttl} instead of on every
+ * request. Only successful checks are remembered, so wrong passwords always go through the
+ * delegate at full cost, and a changed password hash no longer matches any remembered entry.
+ * <p>
+ * Entries are keyed by an HMAC of the hash and password under a key generated at startup, so the
+ * cache holds nothing that could be checked against guesses outside this process. The cache is
+ * bounded and node-local; every node warms its own.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final PasswordEncoder delegate;
+    private final long ttlNanos;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    private final Map<ByteBuffer, Long> verifiedUntil;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, int maxSize, Duration ttl) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        this.verifiedUntil = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Long> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        ByteBuffer digest = digest(rawPassword, encodedPassword);
+        long now = System.nanoTime();
+        Long until;
+        synchronized (verifiedUntil) {
+            until = verifiedUntil.get(digest);
+        }
+        if (until != null && now - until < 0) {
+            return true;
+        }
+
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        synchronized (verifiedUntil) {
+            if (matches) {
+                verifiedUntil.put(digest, now + ttlNanos);
+            } else if (until != null) {
+                verifiedUntil.remove(digest);
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private ByteBuffer digest(CharSequence rawPassword, String encodedPassword) {
+        Mac mac = macs.get();
+        mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+        // The hash never contains a NUL, so this separator keeps the two inputs apart
+        mac.update((byte) 0);
+        mac.update(StandardCharsets.UTF_8.encode(CharBuffer.wrap(rawPassword)));
+        return ByteBuffer.wrap(mac.doFinal());
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
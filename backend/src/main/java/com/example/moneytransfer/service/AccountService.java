@@ -1,53 +1,270 @@
 package com.example.moneytransfer.service;
 
+import com.example.moneytransfer.archive.TransactionArchive;
+import com.example.moneytransfer.balance.HotAccountBalances;
+import com.example.moneytransfer.cache.AccountCache;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.directory.AccountDirectory;
 import com.example.moneytransfer.domain.dto.AccountResponse;
+import com.example.moneytransfer.domain.dto.AccountSummaryResponse;
+import com.example.moneytransfer.domain.dto.DailySummaryResponse;
+import com.example.moneytransfer.domain.dto.TransactionPageResponse;
+import com.example.moneytransfer.domain.dto.TransactionResponse;
 import com.example.moneytransfer.domain.entity.Account;
-import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.AccountStatus;
 import com.example.moneytransfer.domain.exception.AccountNotFoundException;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.journal.DoubleEntryJournal;
+import com.example.moneytransfer.ledger.ShardedLedger;
+import com.example.moneytransfer.replica.ReplicaRead;
 import com.example.moneytransfer.repository.AccountRepository;
-import com.example.moneytransfer.repository.TransactionLogRepository;
+import com.example.moneytransfer.repository.AccountRollupRepository.DailyTotals;
+import com.example.moneytransfer.repository.TransactionCursor;
+import com.example.moneytransfer.repository.TransactionHistoryRepository;
+import com.example.moneytransfer.rollup.AccountRollups;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
 
     private final AccountRepository accountRepository;
-    private final TransactionLogRepository transactionLogRepository;
+    private final TransactionHistoryRepository transactionHistoryRepository;
+    private final TransferProperties transferProperties;
+    private final AccountCache accountCache;
+    private final HotAccountBalances hotAccountBalances;
+    private final Optional<ShardedLedger> shardedLedger;
+    private final Optional<DoubleEntryJournal> doubleEntryJournal;
+    private final Optional<AccountRollups> accountRollups;
+    private final Optional<TransactionArchive> transactionArchive;
+    private final Optional<AccountDirectory> accountDirectory;
 
-    @Transactional(readOnly = true)
+    /**
+     * Reads an account, served from {@link AccountCache} when possible. No transaction is opened
+     * here so that a cache hit never borrows a database connection. Misses always read the
+     * primary: the cache has no expiry, so it must never be filled from a lagging replica.
+     */
     public AccountResponse getAccount(Long id) {
+        // The in-memory ledger is ahead of the database when enabled
+        if (shardedLedger.isPresent()) {
+            return shardedLedger.get().getAccount(id);
+        }
+
+        // Journal balances change without touching the row, so they are summed on every read
+        if (doubleEntryJournal.isPresent()) {
+            Account account = accountRepository.findById(id)
+                .orElseThrow(() -> new AccountNotFoundException(id));
+            return toResponse(account, doubleEntryJournal.get().currentBalance(id));
+        }
+
+        Optional<AccountResponse> cached = accountCache.get(id);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
         Account account = accountRepository.findById(id)
             .orElseThrow(() -> new AccountNotFoundException(id));
-        
-        return AccountResponse.builder()
-            .id(account.getId())
-            .holderName(account.getHolderName())
-            .balance(account.getBalance())
-            .status(account.getStatus().name())
+
+        // Bucket credits do not bump the account's version, so hot accounts are never cached
+        if (account.isHot()) {
+            return toResponse(account, hotAccountBalances.totalBalance(account));
+        }
+        return accountCache.put(account);
+    }
+
+    /**
+     * Marks an account as hot: from now on its credits are spread across sub-balance buckets
+     * instead of all updating its row.
+     */
+    @Transactional
+    public AccountResponse markHot(Long id) {
+        if (doubleEntryJournal.isPresent()) {
+            throw new IllegalArgumentException("Hot accounts are not used while the journal is enabled");
+        }
+        Account account = accountRepository.findByIdForUpdate(id)
+            .orElseThrow(() -> new AccountNotFoundException(id));
+
+        hotAccountBalances.markHot(account, transferProperties.getHotAccounts().getBuckets());
+        accountRepository.save(account);
+        accountCache.evict(id);
+
+        return toResponse(account, hotAccountBalances.totalBalance(account));
+    }
+
+    /**
+     * Sets an account's status, e.g. LOCKED to stop transfers from and to it until it is
+     * ACTIVE again.
+     */
+    @Transactional
+    public AccountResponse changeStatus(Long id, AccountStatus status) {
+        if (shardedLedger.isPresent()) {
+            throw new IllegalArgumentException("Account status cannot be changed while the in-memory ledger is enabled");
+        }
+        Account account = accountRepository.findByIdForUpdate(id)
+            .orElseThrow(() -> new AccountNotFoundException(id));
+
+        account.setStatus(status);
+        accountRepository.save(account);
+        accountCache.putAfterCommit(List.of(account));
+        if (accountDirectory.isPresent()) {
+            accountDirectory.get().updateAfterCommit(id, status);
+        }
+
+        return toResponse(account, hotAccountBalances.totalBalance(account));
+    }
+
+    public Money getBalance(Long id) {
+        return getAccount(id).getBalance();
+    }
+
+    /**
+     * Returns the account's balance as of the given time, from its journal entries.
+     */
+    @Transactional(readOnly = true)
+    @ReplicaRead
+    public Money getBalanceAsOf(Long id, Instant asOf) {
+        if (doubleEntryJournal.isEmpty()) {
+            throw new IllegalArgumentException("Balance history requires the journal to be enabled");
+        }
+        verifyAccountExists(id);
+        return doubleEntryJournal.get().balanceAsOf(id, asOf);
+    }
+
+    /**
+     * Summarizes the account's transfers over the UTC days {@code [from, to]} from its daily
+     * rollups, so the cost grows with the number of days rather than of transactions.
+     */
+    @Transactional(readOnly = true)
+    @ReplicaRead
+    public AccountSummaryResponse getSummary(Long accountId, LocalDate from, LocalDate to) {
+        if (accountRollups.isEmpty()) {
+            throw new IllegalArgumentException("Account summaries require rollups to be enabled");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Summary start date must not be after its end date");
+        }
+        int maxDays = transferProperties.getRollups().getMaxDays();
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new IllegalArgumentException("Summary range must not exceed " + maxDays + " days");
+        }
+        verifyAccountExists(accountId);
+
+        Money credited = Money.ZERO;
+        Money debited = Money.ZERO;
+        long creditCount = 0;
+        long debitCount = 0;
+        List<DailySummaryResponse> days = new ArrayList<>();
+        for (DailyTotals totals : accountRollups.get().daily(accountId, from, to)) {
+            credited = credited.plus(totals.credited());
+            debited = debited.plus(totals.debited());
+            creditCount += totals.credits();
+            debitCount += totals.debits();
+            days.add(DailySummaryResponse.builder()
+                .date(totals.date())
+                .credited(totals.credited())
+                .creditCount(totals.credits())
+                .debited(totals.debited())
+                .debitCount(totals.debits())
+                .build());
+        }
+
+        return AccountSummaryResponse.builder()
+            .accountId(accountId)
+            .from(from)
+            .to(to)
+            .credited(credited)
+            .creditCount(creditCount)
+            .debited(debited)
+            .debitCount(debitCount)
+            .net(credited.minus(debited))
+            .days(days)
             .build();
     }
 
+    /**
+     * Returns one page of the account's transactions, newest first, spanning
+     * {@code transaction_logs} and the archive when archiving is enabled.
+     *
+     * @param cursor the {@code nextCursor} of the previous page, or null for the first page
+     * @param limit  requested page size, or null for the default; capped at the configured maximum
+     */
     @Transactional(readOnly = true)
-    public BigDecimal getBalance(Long id) {
-        Account account = accountRepository.findById(id)
-            .orElseThrow(() -> new AccountNotFoundException(id));
-        
-        return account.getBalance();
+    @ReplicaRead
+    public TransactionPageResponse getTransactions(Long accountId, String cursor, Integer limit) {
+        verifyAccountExists(accountId);
+
+        TransferProperties.History config = transferProperties.getHistory();
+        int pageSize = limit == null ? config.getDefaultPageSize() : limit;
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than zero");
+        }
+        pageSize = Math.min(pageSize, config.getMaxPageSize());
+
+        TransactionCursor after = cursor == null ? null : TransactionCursor.decode(cursor);
+        // Fetch one extra row to learn whether another page exists
+        List<TransactionResponse> rows = transactionHistoryRepository.findPage(accountId, after, pageSize + 1);
+        if (transactionArchive.isPresent()) {
+            rows = transactionArchive.get().mergePage(rows, accountId, after, pageSize + 1);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            TransactionResponse last = rows.get(pageSize - 1);
+            nextCursor = new TransactionCursor(last.getCreatedOn(), last.getId()).encode();
+        }
+
+        return TransactionPageResponse.builder()
+            .transactions(rows)
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    /**
+     * Pushes every transaction of the account, newest first, to the consumer a page at a time.
+     * Call {@link #verifyAccountExists(Long)} first when the caller cannot report errors mid-stream.
+     */
+    @ReplicaRead
+    public void streamTransactions(Long accountId, Consumer<TransactionResponse> consumer) {
+        if (transactionArchive.isEmpty()) {
+            transactionHistoryRepository.stream(accountId, consumer);
+            return;
+        }
+        // Table rows the archive already holds are left to the archive
+        TransactionArchive archive = transactionArchive.get();
+        UUID watermark = archive.watermark();
+        transactionHistoryRepository.stream(accountId, row -> {
+            if (!TransactionArchive.covers(watermark, row.getId())) {
+                consumer.accept(row);
+            }
+        });
+        archive.stream(accountId, watermark, consumer);
     }
 
     @Transactional(readOnly = true)
-    public List<TransactionLog> getTransactions(Long accountId) {
-        // Verify account exists
-        accountRepository.findById(accountId)
-            .orElseThrow(() -> new AccountNotFoundException(accountId));
-        
-        // Get all transactions where account is either sender or receiver
-        return transactionLogRepository.findByAccountId(accountId);
+    public void verifyAccountExists(Long accountId) {
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+    }
+
+    private static AccountResponse toResponse(Account account, Money balance) {
+        return AccountResponse.builder()
+            .id(account.getId())
+            .holderName(account.getHolderName())
+            .balance(balance)
+            .status(account.getStatus().name())
+            .build();
     }
 }
@@ -0,0 +1,259 @@
+package com.example.moneytransfer.service;
+
+import com.example.moneytransfer.audit.AuditOutcome;
+import com.example.moneytransfer.audit.TransferAuditJournal;
+import com.example.moneytransfer.balance.HotAccountBalances;
+import com.example.moneytransfer.cache.AccountCache;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.exception.AccountNotFoundException;
+import com.example.moneytransfer.domain.exception.TransferRejectedException;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.idempotency.IdempotencyRegistry;
+import com.example.moneytransfer.journal.DoubleEntryJournal;
+import com.example.moneytransfer.ledger.ShardedLedger;
+import com.example.moneytransfer.repository.AccountRepository;
+import com.example.moneytransfer.repository.TransactionLogRepository;
+import com.example.moneytransfer.rollup.AccountRollups;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Applies many transfers with one database transaction per chunk. Within a chunk, existing
+ * idempotency keys are checked with one query, all involved accounts are locked with one query
+ * in ascending id order, and the resulting account updates and transaction log inserts are
+ * flushed as JDBC batches at commit. An item whose key was already used gets the original
+ * response back. A rejected item only fails itself; if a chunk cannot be committed as a whole,
+ * its items are replayed one by one through {@link TransferService}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchTransferService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionLogRepository transactionLogRepository;
+    private final TransferService transferService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferProperties transferProperties;
+    private final Validator validator;
+    private final IdempotencyRegistry idempotencyRegistry;
+    private final AccountCache accountCache;
+    private final HotAccountBalances hotAccountBalances;
+    private final Optional<ShardedLedger> shardedLedger;
+    private final Optional<DoubleEntryJournal> doubleEntryJournal;
+    private final Optional<AccountRollups> accountRollups;
+    private final Optional<TransferAuditJournal> auditJournal;
+
+    public List<TransferResponse> transferBatch(List<TransferRequest> requests) {
+        TransferProperties.Batch config = transferProperties.getBatch();
+        if (requests.size() > config.getMaxSize()) {
+            throw new IllegalArgumentException(
+                String.format("Batch contains %d transfers, maximum is %d", requests.size(), config.getMaxSize()));
+        }
+
+        log.info("Processing transfer batch: size={}", requests.size());
+
+        int chunkSize = Math.max(1, config.getChunkSize());
+        List<TransferResponse> responses = new ArrayList<>(requests.size());
+        for (int start = 0; start < requests.size(); start += chunkSize) {
+            List<TransferRequest> chunk = requests.subList(start, Math.min(start + chunkSize, requests.size()));
+            responses.addAll(processChunk(chunk));
+        }
+        return responses;
+    }
+
+    private List<TransferResponse> processChunk(List<TransferRequest> chunk) {
+        // The in-memory ledger already amortizes database work through its journal, and
+        // journal entries are appended per transfer rather than as account updates
+        if (shardedLedger.isPresent() || doubleEntryJournal.isPresent()) {
+            return chunk.stream().map(this::transferSingle).collect(Collectors.toList());
+        }
+
+        try {
+            AuditOutcome[] outcomes = new AuditOutcome[chunk.size()];
+            List<TransferResponse> responses = transactionTemplate.execute(status -> applyChunk(chunk, outcomes));
+            for (int i = 0; i < responses.size(); i++) {
+                if (TransactionStatus.SUCCESS.name().equals(responses.get(i).getStatus())) {
+                    idempotencyRegistry.record(chunk.get(i).getIdempotencyKey(), responses.get(i));
+                }
+                // Outcomes are only audited once the chunk is committed; a chunk that fails to
+                // commit is replayed through TransferService, which audits each item itself
+                if (auditJournal.isPresent() && chunk.get(i) != null) {
+                    auditJournal.get().record(chunk.get(i), responses.get(i).getTransactionId(),
+                        outcomes[i] == null ? AuditOutcome.COMPLETED : outcomes[i]);
+                }
+            }
+            return responses;
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Transfer chunk of {} failed to commit, falling back to single transfers: {}",
+                chunk.size(), e.getMessage());
+            return chunk.stream().map(this::transferSingle).collect(Collectors.toList());
+        }
+    }
+
+    private TransferResponse transferSingle(TransferRequest request) {
+        String violation = validate(request);
+        if (violation != null) {
+            if (auditJournal.isPresent() && request != null) {
+                auditJournal.get().record(request, (UUID) null, AuditOutcome.INVALID_REQUEST);
+            }
+            return failed(request, violation);
+        }
+        try {
+            return transferService.transfer(request);
+        } catch (RuntimeException e) {
+            return failed(request, e.getMessage());
+        }
+    }
+
+    private List<TransferResponse> applyChunk(List<TransferRequest> chunk, AuditOutcome[] outcomes) {
+        TransferResponse[] responses = new TransferResponse[chunk.size()];
+
+        Set<String> keys = new HashSet<>();
+        Set<Long> accountIds = new TreeSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            TransferRequest request = chunk.get(i);
+            String violation = validate(request);
+            if (violation != null) {
+                responses[i] = failed(request, violation);
+                outcomes[i] = AuditOutcome.INVALID_REQUEST;
+                continue;
+            }
+            keys.add(request.getIdempotencyKey());
+            accountIds.add(request.getFromAccountId());
+            accountIds.add(request.getToAccountId());
+        }
+
+        Map<String, TransactionLog> existingKeys = new HashMap<>();
+        if (!keys.isEmpty()) {
+            transactionLogRepository.findByIdempotencyKeyIn(keys)
+                .forEach(existing -> existingKeys.put(existing.getIdempotencyKey(), existing));
+        }
+
+        Map<Long, Account> accounts = new HashMap<>();
+        if (!accountIds.isEmpty()) {
+            accountRepository.findAllByIdForUpdate(accountIds)
+                .forEach(account -> accounts.put(account.getId(), account));
+        }
+
+        List<TransactionLog> transactionLogs = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (responses[i] != null) {
+                continue;
+            }
+            TransferRequest request = chunk.get(i);
+            try {
+                TransactionLog existing = existingKeys.get(request.getIdempotencyKey());
+                if (existing != null) {
+                    // A retried item gets its original response, as a single transfer would
+                    responses[i] = idempotencyRegistry.replay(request, existing);
+                    outcomes[i] = AuditOutcome.REPLAYED;
+                    continue;
+                }
+                TransactionLog transactionLog = applyItem(request, accounts);
+                transactionLogs.add(transactionLog);
+                // Later items in the same chunk must see this key as taken
+                existingKeys.put(request.getIdempotencyKey(), transactionLog);
+                responses[i] = TransferResponse.builder()
+                    .transactionId(transactionLog.getId().toString())
+                    .status(TransactionStatus.SUCCESS.name())
+                    .message("Transfer completed successfully")
+                    .debitedFrom(request.getFromAccountId())
+                    .creditedTo(request.getToAccountId())
+                    .amount(request.getAmount())
+                    .build();
+            } catch (TransferRejectedException | IllegalArgumentException e) {
+                // Database errors fail the chunk instead: a failed bucket write may have undone
+                // part of the transaction, and the single-transfer fallback starts clean
+                responses[i] = failed(request, e.getMessage());
+                outcomes[i] = AuditOutcome.of(e);
+            }
+        }
+
+        // Dirty accounts and new logs are flushed together at commit as JDBC batches
+        transactionLogRepository.saveAll(transactionLogs);
+        if (accountRollups.isPresent()) {
+            accountRollups.get().recordAll(transactionLogs);
+        }
+        accountCache.putAfterCommit(accounts.values());
+
+        return List.of(responses);
+    }
+
+    private TransactionLog applyItem(TransferRequest request, Map<Long, Account> accounts) {
+        if (request.getFromAccountId().equals(request.getToAccountId())) {
+            throw new IllegalArgumentException("Source and destination accounts must be different");
+        }
+
+        Account fromAccount = accounts.get(request.getFromAccountId());
+        if (fromAccount == null) {
+            throw new AccountNotFoundException(request.getFromAccountId());
+        }
+        Account toAccount = accounts.get(request.getToAccountId());
+        if (toAccount == null) {
+            throw new AccountNotFoundException(request.getToAccountId());
+        }
+
+        TransferService.validateTransfer(request, fromAccount, toAccount);
+
+        hotAccountBalances.debit(fromAccount, request.getAmount());
+        hotAccountBalances.credit(toAccount, request.getAmount());
+
+        return TransactionLog.builder()
+            .id(TimeOrderedUuid.next())
+            .fromAccountId(request.getFromAccountId())
+            .toAccountId(request.getToAccountId())
+            .amount(request.getAmount())
+            .idempotencyKey(request.getIdempotencyKey())
+            .status(TransactionStatus.SUCCESS)
+            .build();
+    }
+
+    private String validate(TransferRequest request) {
+        if (request == null) {
+            return "Transfer request cannot be null";
+        }
+        Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return "Validation failed: " + violations.stream()
+            .map(v -> v.getPropertyPath() + "=" + v.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", ", "{", "}"));
+    }
+
+    private static TransferResponse failed(TransferRequest request, String reason) {
+        TransferResponse.TransferResponseBuilder builder = TransferResponse.builder()
+            .status(TransactionStatus.FAILED.name())
+            .message(reason);
+        if (request != null) {
+            builder.debitedFrom(request.getFromAccountId())
+                .creditedTo(request.getToAccountId())
+                .amount(request.getAmount());
+        }
+        return builder.build();
+    }
+}
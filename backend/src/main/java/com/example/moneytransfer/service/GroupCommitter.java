@@ -0,0 +1,341 @@
+package com.example.moneytransfer.service;
+
+import com.example.moneytransfer.balance.HotAccountBalances;
+import com.example.moneytransfer.cache.AccountCache;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.exception.AccountNotFoundException;
+import com.example.moneytransfer.domain.exception.TransferConflictException;
+import com.example.moneytransfer.domain.exception.TransferRejectedException;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.idempotency.IdempotencyRegistry;
+import com.example.moneytransfer.repository.AccountRepository;
+import com.example.moneytransfer.repository.TransactionLogRepository;
+import com.example.moneytransfer.rollup.AccountRollups;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for single transfers. Concurrent callers of {@link TransferService#transfer}
+ * enqueue their request and block; a committer thread collects whatever arrives within
+ * {@code max-wait} (up to {@code max-size} transfers) and applies the group in one database
+ * transaction: one idempotency query, one ordered lock query for all accounts involved, and
+ * batched updates and inserts at commit. Each caller is released once its group has committed.
+ * <p>
+ * A transfer rejected while the group is applied fails alone. If the group as a whole cannot
+ * be committed, every transfer in it is re-applied in a transaction of its own; like any other
+ * transfer, one applied alone is retried on concurrency conflicts within {@code transfer.retry}.
+ * <p>
+ * Callers wait at most {@code submit-timeout}; once stopping, new transfers are refused.
+ */
+@Component
+@ConditionalOnProperty(prefix = "transfer.group-commit", name = "enabled", havingValue = "true")
+@Slf4j
+public class GroupCommitter {
+
+    private final AccountRepository accountRepository;
+    private final TransactionLogRepository transactionLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyRegistry idempotencyRegistry;
+    private final AccountCache accountCache;
+    private final HotAccountBalances hotAccountBalances;
+    private final Optional<AccountRollups> accountRollups;
+    private final int maxSize;
+    private final long maxWaitNanos;
+    private final long submitTimeoutNanos;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private Thread committer;
+    private volatile boolean running;
+
+    public GroupCommitter(AccountRepository accountRepository,
+                          TransactionLogRepository transactionLogRepository,
+                          TransactionTemplate transactionTemplate,
+                          IdempotencyRegistry idempotencyRegistry,
+                          AccountCache accountCache,
+                          HotAccountBalances hotAccountBalances,
+                          Optional<AccountRollups> accountRollups,
+                          TransferProperties transferProperties) {
+        TransferProperties.GroupCommit config = transferProperties.getGroupCommit();
+        this.accountRepository = accountRepository;
+        this.transactionLogRepository = transactionLogRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.idempotencyRegistry = idempotencyRegistry;
+        this.accountCache = accountCache;
+        this.hotAccountBalances = hotAccountBalances;
+        this.accountRollups = accountRollups;
+        this.maxSize = Math.max(1, config.getMaxSize());
+        this.maxWaitNanos = config.getMaxWait().toNanos();
+        this.submitTimeoutNanos = config.getSubmitTimeout().toNanos();
+        this.maxAttempts = Math.max(1, transferProperties.getRetry().getMaxAttempts());
+        this.backoffMillis = transferProperties.getRetry().getBackoff().toMillis();
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        committer = new Thread(this::commitLoop, "transfer-group-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        committer.interrupt();
+        committer.join(TimeUnit.SECONDS.toMillis(10));
+        List<Pending> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.result.completeExceptionally(
+            new TransferConflictException("Transfer not executed, service is shutting down")));
+    }
+
+    /**
+     * Queues the transfer for the next group and waits until that group has committed.
+     *
+     * @param transactionId id for the transaction log, or null to generate one
+     * @throws TransferConflictException if the committer is stopping or the wait timed out; a
+     *         timed-out transfer may still commit, and a retry with the same key replays it
+     */
+    public TransferResponse submit(TransferRequest request, UUID transactionId) {
+        if (!running) {
+            throw new TransferConflictException("Transfer not executed, service is shutting down");
+        }
+        Pending pending = new Pending(request, transactionId, new CompletableFuture<>());
+        queue.add(pending);
+        // stop() may have drained the queue just before this transfer was added
+        if (!running && queue.remove(pending)) {
+            throw new TransferConflictException("Transfer not executed, service is shutting down");
+        }
+        try {
+            return pending.result.get(submitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new TransferConflictException("Transfer outcome unknown, group commit did not finish in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferConflictException("Transfer wait interrupted");
+        }
+    }
+
+    private void commitLoop() {
+        List<Pending> group = new ArrayList<>(maxSize);
+        while (running) {
+            try {
+                group.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (group.size() < maxSize) {
+                    if (queue.drainTo(group, maxSize - group.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(pending -> pending.result.completeExceptionally(
+                    new TransferConflictException("Transfer not executed, service is shutting down")));
+                return;
+            } catch (RuntimeException e) {
+                log.error("Group commit failed unexpectedly", e);
+                group.forEach(pending -> pending.result.completeExceptionally(e));
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> group) {
+        if (group.size() == 1) {
+            commitAlone(group.get(0));
+            return;
+        }
+        Outcome[] outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> apply(group));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Group of {} transfers failed to commit, applying them one by one: {}",
+                group.size(), e.getMessage());
+            group.forEach(this::commitAlone);
+            return;
+        }
+        log.debug("Group of {} transfers committed", group.size());
+        complete(group, outcomes);
+    }
+
+    /**
+     * Commits one transfer in its own transaction, retrying concurrency conflicts with the same
+     * bounded backoff as {@link TransferService}.
+     */
+    private void commitAlone(Pending pending) {
+        List<Pending> group = List.of(pending);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                complete(group, transactionTemplate.execute(status -> apply(group)));
+                return;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts || !sleep(backoffMillis * attempt)) {
+                    pending.result.completeExceptionally(
+                        new TransferConflictException(pending.request.getIdempotencyKey(), attempt, e));
+                    return;
+                }
+            } catch (DataAccessException | TransactionException e) {
+                pending.result.completeExceptionally(e);
+                return;
+            }
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            // Stopping; the commit loop sees the interrupt on its next wait
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void complete(List<Pending> group, Outcome[] outcomes) {
+        for (int i = 0; i < group.size(); i++) {
+            Outcome outcome = outcomes[i];
+            if (outcome.error() != null) {
+                group.get(i).result.completeExceptionally(outcome.error());
+            } else {
+                group.get(i).result.complete(outcome.response());
+            }
+        }
+    }
+
+    private Outcome[] apply(List<Pending> group) {
+        Set<String> keys = new HashSet<>();
+        Set<Long> accountIds = new TreeSet<>();
+        for (Pending pending : group) {
+            keys.add(pending.request.getIdempotencyKey());
+            accountIds.add(pending.request.getFromAccountId());
+            accountIds.add(pending.request.getToAccountId());
+        }
+
+        Map<String, TransactionLog> existingLogs = new HashMap<>();
+        transactionLogRepository.findByIdempotencyKeyIn(keys)
+            .forEach(existing -> existingLogs.put(existing.getIdempotencyKey(), existing));
+
+        Map<Long, Account> accounts = new HashMap<>();
+        accountRepository.findAllByIdForUpdate(accountIds)
+            .forEach(account -> accounts.put(account.getId(), account));
+
+        Outcome[] outcomes = new Outcome[group.size()];
+        List<TransactionLog> transactionLogs = new ArrayList<>();
+        for (int i = 0; i < group.size(); i++) {
+            Pending pending = group.get(i);
+            try {
+                TransactionLog existing = existingLogs.get(pending.request.getIdempotencyKey());
+                if (existing != null) {
+                    outcomes[i] = new Outcome(idempotencyRegistry.replay(pending.request, existing), null);
+                    continue;
+                }
+                TransactionLog transactionLog = applyItem(pending, accounts);
+                // A later transfer with the same key in this group replays this one
+                existingLogs.put(transactionLog.getIdempotencyKey(), transactionLog);
+                transactionLogs.add(transactionLog);
+                outcomes[i] = new Outcome(TransferResponse.builder()
+                    .transactionId(transactionLog.getId().toString())
+                    .status(TransactionStatus.SUCCESS.name())
+                    .message("Transfer completed successfully")
+                    .debitedFrom(transactionLog.getFromAccountId())
+                    .creditedTo(transactionLog.getToAccountId())
+                    .amount(transactionLog.getAmount())
+                    .build(), null);
+            } catch (TransferRejectedException | IllegalArgumentException e) {
+                // Database errors are not caught here: a failed bucket write may have undone part
+                // of the transaction, so the whole group rolls back and is retried one by one
+                outcomes[i] = new Outcome(null, e);
+            }
+        }
+
+        transactionLogRepository.saveAll(transactionLogs);
+        if (accountRollups.isPresent()) {
+            accountRollups.get().recordAll(transactionLogs);
+        }
+        accountCache.putAfterCommit(accounts.values());
+        return outcomes;
+    }
+
+    private TransactionLog applyItem(Pending pending, Map<Long, Account> accounts) {
+        TransferRequest request = pending.request;
+        if (request.getFromAccountId().equals(request.getToAccountId())) {
+            throw new IllegalArgumentException("Source and destination accounts must be different");
+        }
+
+        Account fromAccount = accounts.get(request.getFromAccountId());
+        if (fromAccount == null) {
+            throw new AccountNotFoundException(request.getFromAccountId());
+        }
+        Account toAccount = accounts.get(request.getToAccountId());
+        if (toAccount == null) {
+            throw new AccountNotFoundException(request.getToAccountId());
+        }
+
+        TransferService.validateTransfer(request, fromAccount, toAccount);
+
+        hotAccountBalances.debit(fromAccount, request.getAmount());
+        hotAccountBalances.credit(toAccount, request.getAmount());
+
+        return TransactionLog.builder()
+            .id(pending.transactionId != null ? pending.transactionId : TimeOrderedUuid.next())
+            .fromAccountId(request.getFromAccountId())
+            .toAccountId(request.getToAccountId())
+            .amount(request.getAmount())
+            .idempotencyKey(request.getIdempotencyKey())
+            .status(TransactionStatus.SUCCESS)
+            .build();
+    }
+
+    private record Pending(TransferRequest request, UUID transactionId, CompletableFuture<TransferResponse> result) {
+    }
+
+    private record Outcome(TransferResponse response, RuntimeException error) {
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.moneytransfer.service;
+
+import com.example.moneytransfer.cache.AccountCache;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.ImportResultResponse;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.journal.DoubleEntryJournal;
+import com.example.moneytransfer.ledger.ShardedLedger;
+import com.example.moneytransfer.repository.BalanceBucketRepository;
+import com.example.moneytransfer.repository.LedgerImportRepository;
+import com.example.moneytransfer.repository.LedgerImportRepository.AccountState;
+import com.example.moneytransfer.rollup.AccountRollups;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a settlement file of transfers, one {@code fromAccountId,toAccountId,amount,idempotencyKey}
+ * line each, without holding the file in memory. Lines are read in chunks; each chunk is applied
+ * in one transaction that locks the accounts it touches, applies its lines in file order against
+ * running balances, inserts one transaction log per line as a JDBC batch, and then writes a
+ * single net balance update per account.
+ * <p>
+ * Invalid lines, lines for missing or inactive accounts and lines the source account cannot cover
+ * are rejected and reported; lines whose idempotency key was already imported are skipped. Chunks
+ * commit independently, so an interrupted import can simply be run again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerImportService {
+
+    private final LedgerImportRepository ledgerImportRepository;
+    private final BalanceBucketRepository balanceBucketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferProperties transferProperties;
+    private final Validator validator;
+    private final AccountCache accountCache;
+    private final Optional<ShardedLedger> shardedLedger;
+    private final Optional<DoubleEntryJournal> doubleEntryJournal;
+    private final Optional<AccountRollups> accountRollups;
+
+    public ImportResultResponse importTransfers(InputStream input) throws IOException {
+        if (shardedLedger.isPresent()) {
+            throw new IllegalArgumentException("Bulk import is not available while the in-memory ledger is enabled");
+        }
+        if (doubleEntryJournal.isPresent()) {
+            throw new IllegalArgumentException("Bulk import is not available while the journal is enabled");
+        }
+
+        TransferProperties.LedgerImport config = transferProperties.getLedgerImport();
+        int chunkSize = Math.max(1, config.getChunkSize());
+        Progress progress = new Progress(config.getMaxErrors());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<Line> chunk = new ArrayList<>(chunkSize);
+            String text;
+            long lineNumber = 0;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank() || (lineNumber == 1 && isHeader(text))) {
+                    continue;
+                }
+                progress.lines++;
+                Line line = parse(lineNumber, text, progress);
+                if (line != null) {
+                    chunk.add(line);
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, progress);
+            }
+        }
+
+        log.info("Ledger import finished: lines={}, imported={}, duplicates={}, rejected={}",
+            progress.lines, progress.imported, progress.duplicates, progress.rejected);
+        return ImportResultResponse.builder()
+            .lines(progress.lines)
+            .imported(progress.imported)
+            .duplicates(progress.duplicates)
+            .rejected(progress.rejected)
+            .errors(progress.errors)
+            .build();
+    }
+
+    private Line parse(long lineNumber, String text, Progress progress) {
+        String[] fields = text.split(",", -1);
+        if (fields.length != 4) {
+            progress.reject(lineNumber, "expected 4 fields, found " + fields.length);
+            return null;
+        }
+        TransferRequest request;
+        try {
+            request = new TransferRequest(
+                parseLong(fields[0]), parseLong(fields[1]), parseAmount(fields[2]), emptyToNull(fields[3]));
+        } catch (NumberFormatException e) {
+            progress.reject(lineNumber, "malformed number");
+            return null;
+        } catch (IllegalArgumentException e) {
+            // Amounts with more than two decimals are rejected, not rounded
+            progress.reject(lineNumber, e.getMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            progress.reject(lineNumber, violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", ")));
+            return null;
+        }
+        if (request.getFromAccountId().equals(request.getToAccountId())) {
+            progress.reject(lineNumber, "Source and destination accounts must be different");
+            return null;
+        }
+        return new Line(lineNumber, request);
+    }
+
+    private void importChunk(List<Line> chunk, Progress progress) {
+        Set<Long> touched = transactionTemplate.execute(status -> applyChunk(chunk, progress));
+        // Cached accounts are stale once their netted balances are committed
+        if (touched != null) {
+            touched.forEach(accountCache::evict);
+        }
+    }
+
+    private Set<Long> applyChunk(List<Line> chunk, Progress progress) {
+        Set<String> keys = new HashSet<>();
+        Set<Long> accountIds = new TreeSet<>();
+        for (Line line : chunk) {
+            keys.add(line.request.getIdempotencyKey());
+            accountIds.add(line.request.getFromAccountId());
+            accountIds.add(line.request.getToAccountId());
+        }
+
+        Set<String> seenKeys = ledgerImportRepository.findExistingKeys(keys);
+        Map<Long, AccountState> accounts = ledgerImportRepository.lockAccounts(accountIds);
+        Map<Long, Money> available = new HashMap<>();
+        // What the row alone holds, since debits are netted onto the row
+        Map<Long, Money> rowBalances = new HashMap<>();
+        accounts.forEach((id, state) -> {
+            available.put(id, state.hot()
+                ? state.balance().plus(balanceBucketRepository.sumBalance(id))
+                : state.balance());
+            rowBalances.put(id, state.balance());
+        });
+
+        Map<Long, Money> deltas = new HashMap<>();
+        List<TransactionLog> transactionLogs = new ArrayList<>(chunk.size());
+        Instant now = Instant.now();
+        for (Line line : chunk) {
+            TransferRequest request = line.request;
+            if (!seenKeys.add(request.getIdempotencyKey())) {
+                progress.duplicates++;
+                continue;
+            }
+            String rejection = check(request, accounts, available);
+            if (rejection != null) {
+                progress.reject(line.number, rejection);
+                continue;
+            }
+
+            Money amount = request.getAmount();
+            Long fromAccountId = request.getFromAccountId();
+            if (accounts.get(fromAccountId).hot() && rowBalances.get(fromAccountId).isLessThan(amount)) {
+                // Moves the buckets into the row, as HotAccountBalances does when the row falls short;
+                // credits only add to them, so the row then covers what the check counted
+                Money pooled = balanceBucketRepository.drain(fromAccountId);
+                rowBalances.merge(fromAccountId, pooled, Money::plus);
+                deltas.merge(fromAccountId, pooled, Money::plus);
+            }
+            rowBalances.merge(fromAccountId, amount.negate(), Money::plus);
+            rowBalances.merge(request.getToAccountId(), amount, Money::plus);
+            available.merge(request.getFromAccountId(), amount.negate(), Money::plus);
+            available.merge(request.getToAccountId(), amount, Money::plus);
+            deltas.merge(request.getFromAccountId(), amount.negate(), Money::plus);
+            deltas.merge(request.getToAccountId(), amount, Money::plus);
+
+            transactionLogs.add(TransactionLog.builder()
+                .id(TimeOrderedUuid.next())
+                .fromAccountId(request.getFromAccountId())
+                .toAccountId(request.getToAccountId())
+                .amount(amount)
+                .idempotencyKey(request.getIdempotencyKey())
+                .status(TransactionStatus.SUCCESS)
+                .createdOn(now)
+                .build());
+        }
+
+        deltas.values().removeIf(Money.ZERO::equals);
+        ledgerImportRepository.insertLogs(transactionLogs);
+        if (accountRollups.isPresent()) {
+            accountRollups.get().recordAll(transactionLogs);
+        }
+        ledgerImportRepository.applyDeltas(deltas);
+        progress.imported += transactionLogs.size();
+        return accounts.keySet();
+    }
+
+    private static String check(TransferRequest request, Map<Long, AccountState> accounts,
+                                Map<Long, Money> available) {
+        AccountState from = accounts.get(request.getFromAccountId());
+        if (from == null) {
+            return "Account with ID " + request.getFromAccountId() + " not found";
+        }
+        AccountState to = accounts.get(request.getToAccountId());
+        if (to == null) {
+            return "Account with ID " + request.getToAccountId() + " not found";
+        }
+        if (from.status() != AccountStatus.ACTIVE) {
+            return "Account with ID " + request.getFromAccountId() + " is not active";
+        }
+        if (to.status() != AccountStatus.ACTIVE) {
+            return "Account with ID " + request.getToAccountId() + " is not active";
+        }
+        if (available.get(request.getFromAccountId()).isLessThan(request.getAmount())) {
+            return "Insufficient balance in account " + request.getFromAccountId();
+        }
+        return null;
+    }
+
+    private static boolean isHeader(String text) {
+        String first = text.split(",", 2)[0].trim();
+        return !first.isEmpty() && !Character.isDigit(first.charAt(0));
+    }
+
+    private static Long parseLong(String field) {
+        String value = field.trim();
+        return value.isEmpty() ? null : Long.valueOf(value);
+    }
+
+    private static Money parseAmount(String field) {
+        String value = field.trim();
+        return value.isEmpty() ? null : Money.parse(value);
+    }
+
+    private static String emptyToNull(String field) {
+        String value = field.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private record Line(long number, TransferRequest request) {
+    }
+
+    private static final class Progress {
+        private final int maxErrors;
+        private final List<String> errors = new ArrayList<>();
+        private long lines;
+        private long imported;
+        private long duplicates;
+        private long rejected;
+
+        private Progress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(long lineNumber, String reason) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+    }
+}
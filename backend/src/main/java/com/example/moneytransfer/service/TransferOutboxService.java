@@ -0,0 +1,138 @@
+package com.example.moneytransfer.service;
+
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.exception.DuplicateTransferException;
+import com.example.moneytransfer.domain.exception.TransactionNotFoundException;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.idempotency.IdempotencyRegistry;
+import com.example.moneytransfer.repository.OutboxEntry;
+import com.example.moneytransfer.repository.TransactionLogRepository;
+import com.example.moneytransfer.repository.TransferOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Accepts transfers for asynchronous execution and reports the status of any transfer by id.
+ * A submission only writes one outbox row, so its latency does not depend on account locks;
+ * {@link TransferOutboxWorker} executes it later.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransferOutboxService {
+
+    private final TransferOutboxRepository outboxRepository;
+    private final TransactionLogRepository transactionLogRepository;
+    private final IdempotencyRegistry idempotencyRegistry;
+    private final TransferOutboxWorker outboxWorker;
+
+    /**
+     * Durably queues a transfer. Resubmitting an idempotency key with the same payload returns
+     * the existing transfer's current state.
+     *
+     * @return a response carrying the transaction id, with status PENDING for a new submission
+     * @throws DuplicateTransferException if the idempotency key was used for a different transfer
+     */
+    public TransferResponse submit(TransferRequest request) {
+        // A key already executed synchronously is answered like a synchronous retry
+        Optional<TransferResponse> cached = idempotencyRegistry.cachedResponse(request);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        if (idempotencyRegistry.mightExist(request.getIdempotencyKey())) {
+            Optional<TransactionLog> existingTx = transactionLogRepository.findByIdempotencyKey(request.getIdempotencyKey());
+            if (existingTx.isPresent()) {
+                return idempotencyRegistry.replay(request, existingTx.get());
+            }
+        }
+
+        OutboxEntry entry = OutboxEntry.builder()
+            .id(TimeOrderedUuid.next())
+            .fromAccountId(request.getFromAccountId())
+            .toAccountId(request.getToAccountId())
+            .amount(request.getAmount())
+            .idempotencyKey(request.getIdempotencyKey())
+            .status(TransactionStatus.PENDING)
+            .createdOn(Instant.now())
+            .build();
+        try {
+            outboxRepository.insert(entry);
+        } catch (DataIntegrityViolationException e) {
+            OutboxEntry existing = outboxRepository.findByIdempotencyKey(request.getIdempotencyKey())
+                .orElseThrow(() -> e);
+            if (!sameTransfer(existing, request)) {
+                throw new DuplicateTransferException(request.getIdempotencyKey(), existing.getId().toString());
+            }
+            return toResponse(existing);
+        }
+
+        log.info("Transfer queued: transactionId={}, idempotencyKey={}", entry.getId(), entry.getIdempotencyKey());
+        outboxWorker.wakeUp();
+        return toResponse(entry);
+    }
+
+    /**
+     * @throws TransactionNotFoundException if no queued or executed transfer has this id
+     */
+    public TransferResponse getTransfer(String transactionId) {
+        UUID id;
+        try {
+            id = UUID.fromString(transactionId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid transaction id: " + transactionId);
+        }
+
+        Optional<OutboxEntry> queued = outboxRepository.findById(id);
+        if (queued.isPresent()) {
+            return toResponse(queued.get());
+        }
+        return transactionLogRepository.findById(id)
+            .map(TransferOutboxService::toResponse)
+            .orElseThrow(() -> new TransactionNotFoundException(transactionId));
+    }
+
+    private static boolean sameTransfer(OutboxEntry entry, TransferRequest request) {
+        return entry.getFromAccountId().equals(request.getFromAccountId())
+            && entry.getToAccountId().equals(request.getToAccountId())
+            && entry.getAmount().equals(request.getAmount());
+    }
+
+    private static TransferResponse toResponse(OutboxEntry entry) {
+        return TransferResponse.builder()
+            .transactionId(entry.getId().toString())
+            .status(entry.getStatus().name())
+            .message(message(entry.getStatus(), entry.getFailureReason()))
+            .debitedFrom(entry.getFromAccountId())
+            .creditedTo(entry.getToAccountId())
+            .amount(entry.getAmount())
+            .build();
+    }
+
+    private static TransferResponse toResponse(TransactionLog transactionLog) {
+        return TransferResponse.builder()
+            .transactionId(transactionLog.getId().toString())
+            .status(transactionLog.getStatus().name())
+            .message(message(transactionLog.getStatus(), transactionLog.getFailureReason()))
+            .debitedFrom(transactionLog.getFromAccountId())
+            .creditedTo(transactionLog.getToAccountId())
+            .amount(transactionLog.getAmount())
+            .build();
+    }
+
+    private static String message(TransactionStatus status, String failureReason) {
+        return switch (status) {
+            case PENDING -> "Transfer accepted for processing";
+            case SUCCESS -> "Transfer completed successfully";
+            case FAILED -> failureReason;
+        };
+    }
+}
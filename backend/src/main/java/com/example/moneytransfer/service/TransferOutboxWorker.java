@@ -0,0 +1,237 @@
+package com.example.moneytransfer.service;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.exception.TransferConflictException;
+import com.example.moneytransfer.repository.OutboxEntry;
+import com.example.moneytransfer.repository.TransactionLogRepository;
+import com.example.moneytransfer.repository.TransferOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains {@code transfer_outbox}: a poller thread claims batches of pending transfers and runs
+ * them on a fixed pool of workers through {@link TransferService}, so the database sees at most
+ * {@code workers} concurrent transfers from this node no matter how fast they are submitted.
+ * <p>
+ * Each transfer runs under the outbox entry's id and idempotency key. If a worker dies after the
+ * transfer committed but before the outcome was recorded, the entry is claimed again once its
+ * lease expires and the repeated transfer replays the original result.
+ * <p>
+ * A transfer that fails for good is also recorded as a FAILED transaction log, because finished
+ * outbox entries are purged after {@code retention}: the log keeps answering status polls for the
+ * id and replaying the failure to a resubmitted idempotency key instead of executing it again.
+ * Only failures that cannot be logged, such as a transfer naming an account that does not exist,
+ * are forgotten with their outbox entry.
+ * <p>
+ * On a node whose database has no {@code transfer_outbox} table the poller keeps running but backs
+ * off to {@value #MAX_BACKOFF_MILLIS} ms between polls and logs the condition once.
+ */
+@Component
+@Slf4j
+public class TransferOutboxWorker {
+
+    private static final int MAX_REASON_LENGTH = 255;
+    private static final int PURGE_LIMIT = 1000;
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private final TransferService transferService;
+    private final TransferOutboxRepository outboxRepository;
+    private final TransactionLogRepository transactionLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferProperties.Outbox config;
+    private final Semaphore wakeUps = new Semaphore(0);
+
+    private ExecutorService workers;
+    private Thread poller;
+    private volatile boolean running;
+    private long nextPurgeAt;
+
+    public TransferOutboxWorker(TransferService transferService,
+                                TransferOutboxRepository outboxRepository,
+                                TransactionLogRepository transactionLogRepository,
+                                TransactionTemplate transactionTemplate,
+                                TransferProperties transferProperties) {
+        this.transferService = transferService;
+        this.outboxRepository = outboxRepository;
+        this.transactionLogRepository = transactionLogRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.config = transferProperties.getOutbox();
+    }
+
+    @PostConstruct
+    void start() {
+        if (config.getWorkers() <= 0) {
+            log.info("Transfer outbox workers disabled on this node");
+            return;
+        }
+        AtomicInteger sequence = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(config.getWorkers(), runnable -> {
+            Thread thread = new Thread(runnable, "transfer-outbox-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        poller = new Thread(this::pollLoop, "transfer-outbox-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (poller != null) {
+            poller.interrupt();
+            poller.join(TimeUnit.SECONDS.toMillis(10));
+            workers.shutdown();
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Signals that a transfer was submitted, so the poller need not wait out its interval.
+     */
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    private void pollLoop() {
+        long pollMillis = Math.max(1, config.getPollInterval().toMillis());
+        long backoffMillis = pollMillis;
+        while (running) {
+            try {
+                int claimed = pollOnce();
+                backoffMillis = pollMillis;
+                if (claimed < config.getBatchSize()) {
+                    wakeUps.tryAcquire(pollMillis, TimeUnit.MILLISECONDS);
+                    wakeUps.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                if (e instanceof BadSqlGrammarException) {
+                    // Most likely a database without the outbox table; say so once, not every poll
+                    if (backoffMillis == pollMillis) {
+                        log.info("Transfer outbox is unavailable, polling less often: {}", e.getMessage());
+                    }
+                } else {
+                    log.warn("Transfer outbox poll failed: {}", e.getMessage());
+                }
+                backoffMillis = Math.min(backoffMillis * 2, Math.max(pollMillis, MAX_BACKOFF_MILLIS));
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims one batch and waits until every claimed transfer has been processed.
+     *
+     * @return the number of transfers claimed
+     */
+    int pollOnce() throws InterruptedException {
+        Instant now = Instant.now();
+        List<OutboxEntry> entries = transactionTemplate.execute(status ->
+            outboxRepository.claim(Math.max(1, config.getBatchSize()), now, now.plus(config.getLease())));
+        if (entries != null && !entries.isEmpty()) {
+            List<Callable<Void>> tasks = entries.stream()
+                .<Callable<Void>>map(entry -> () -> {
+                    process(entry);
+                    return null;
+                })
+                .toList();
+            workers.invokeAll(tasks);
+        }
+        purgeIfDue();
+        return entries == null ? 0 : entries.size();
+    }
+
+    /**
+     * Runs one claimed transfer. An entry claimed again after its lease ran out may already have
+     * been transferred; every transfer path replays a repeated key with the same payload, so it
+     * completes with the original outcome instead of failing as a duplicate.
+     */
+    void process(OutboxEntry entry) {
+        try {
+            TransferResponse response = transferService.transfer(entry.toRequest(), entry.getId());
+            TransactionStatus status = TransactionStatus.valueOf(response.getStatus());
+            outboxRepository.complete(entry.getId(), status,
+                status == TransactionStatus.SUCCESS ? null : truncate(response.getMessage()));
+        } catch (TransferConflictException | DataAccessException | TransactionException e) {
+            if (entry.getAttempts() >= config.getMaxAttempts()) {
+                log.warn("Outbox transfer {} failed after {} attempts: {}", entry.getId(), entry.getAttempts(),
+                    e.getMessage());
+                fail(entry, e.getMessage());
+            } else {
+                log.debug("Outbox transfer {} attempt {} failed, retrying later: {}", entry.getId(),
+                    entry.getAttempts(), e.getMessage());
+                outboxRepository.release(entry.getId(), Instant.now().plus(config.getRetryDelay()));
+            }
+        } catch (RuntimeException e) {
+            // Business rejections (insufficient balance, inactive account, ...) are final
+            fail(entry, e.getMessage());
+        }
+    }
+
+    private void fail(OutboxEntry entry, String reason) {
+        String failureReason = truncate(reason);
+        try {
+            transactionLogRepository.save(TransactionLog.builder()
+                .id(entry.getId())
+                .fromAccountId(entry.getFromAccountId())
+                .toAccountId(entry.getToAccountId())
+                .amount(entry.getAmount())
+                .idempotencyKey(entry.getIdempotencyKey())
+                .status(TransactionStatus.FAILED)
+                .failureReason(failureReason)
+                .build());
+        } catch (DataIntegrityViolationException e) {
+            // An unknown account, or the key already has a transaction log that answers for it
+            log.debug("Outbox transfer {} failure not logged: {}", entry.getId(), e.getMessage());
+        }
+        outboxRepository.complete(entry.getId(), TransactionStatus.FAILED, failureReason);
+    }
+
+    private void purgeIfDue() {
+        long now = System.currentTimeMillis();
+        if (now < nextPurgeAt) {
+            return;
+        }
+        nextPurgeAt = now + PURGE_INTERVAL_MILLIS;
+        int purged = outboxRepository.deleteCompletedBefore(Instant.now().minus(config.getRetention()), PURGE_LIMIT);
+        if (purged > 0) {
+            log.info("Purged {} finished transfer outbox entries", purged);
+        }
+    }
+
+    private static String truncate(String reason) {
+        if (reason == null || reason.length() <= MAX_REASON_LENGTH) {
+            return reason;
+        }
+        return reason.substring(0, MAX_REASON_LENGTH);
+    }
+}
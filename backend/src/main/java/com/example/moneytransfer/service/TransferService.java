@@ -1,5 +1,11 @@
 package com.example.moneytransfer.service;
 
+import com.example.moneytransfer.audit.AuditOutcome;
+import com.example.moneytransfer.audit.TransferAuditJournal;
+import com.example.moneytransfer.balance.HotAccountBalances;
+import com.example.moneytransfer.cache.AccountCache;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.directory.AccountDirectory;
 import com.example.moneytransfer.domain.dto.TransferRequest;
 import com.example.moneytransfer.domain.dto.TransferResponse;
 import com.example.moneytransfer.domain.entity.Account;
@@ -9,13 +15,25 @@ import com.example.moneytransfer.domain.exception.AccountNotActiveException;
 import com.example.moneytransfer.domain.exception.AccountNotFoundException;
 import com.example.moneytransfer.domain.exception.DuplicateTransferException;
 import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.exception.TransferConflictException;
+import com.example.moneytransfer.domain.exception.TransferRejectedException;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.idempotency.IdempotencyRegistry;
+import com.example.moneytransfer.journal.DoubleEntryJournal;
+import com.example.moneytransfer.ledger.ShardedLedger;
 import com.example.moneytransfer.repository.AccountRepository;
 import com.example.moneytransfer.repository.TransactionLogRepository;
+import com.example.moneytransfer.rollup.AccountRollups;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -25,41 +43,235 @@ public class TransferService {
 
     private final AccountRepository accountRepository;
     private final TransactionLogRepository transactionLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferProperties transferProperties;
+    private final IdempotencyRegistry idempotencyRegistry;
+    private final AccountCache accountCache;
+    private final HotAccountBalances hotAccountBalances;
+    private final Optional<ShardedLedger> shardedLedger;
+    private final Optional<GroupCommitter> groupCommitter;
+    private final Optional<DoubleEntryJournal> doubleEntryJournal;
+    private final Optional<AccountRollups> accountRollups;
+    private final Optional<TransferAuditJournal> auditJournal;
+    private final Optional<AccountDirectory> accountDirectory;
 
-    @Transactional
+    /**
+     * Executes a transfer, either on the in-memory ledger when it is enabled or directly against
+     * the database. On the database path the whole unit of work is retried on optimistic/pessimistic
+     * lock conflicts; each attempt runs in its own transaction so a retry starts from freshly loaded rows.
+     * With group commit enabled the transfer instead shares a transaction with concurrent ones;
+     * with the journal enabled it appends entries instead of updating balances. Accounts the
+     * {@link AccountDirectory} knows to be missing or inactive are rejected up front. A repeated
+     * idempotency key with the same payload replays the original response. Every attempt,
+     * successful or not, is recorded in the audit journal when it is enabled.
+     *
+     * @throws TransferConflictException if every attempt within the retry budget hit a conflict
+     * @throws DuplicateTransferException if the idempotency key was used for a different transfer
+     */
     public TransferResponse transfer(TransferRequest request) {
-        log.info("Processing transfer request: fromAccountId={}, toAccountId={}, amount={}, idempotencyKey={}",
+        return transfer(request, null);
+    }
+
+    /**
+     * Executes a transfer as {@link #transfer(TransferRequest)} does, recording it under a
+     * transaction id the caller has already handed out.
+     *
+     * @param transactionId id for the transaction log, or null to generate one
+     */
+    public TransferResponse transfer(TransferRequest request, UUID transactionId) {
+        try {
+            return doTransfer(request, transactionId);
+        } catch (RuntimeException e) {
+            if (auditJournal.isPresent()) {
+                auditJournal.get().record(request, transactionId, AuditOutcome.of(e));
+            }
+            throw e;
+        }
+    }
+
+    private TransferResponse doTransfer(TransferRequest request, UUID transactionId) {
+        log.debug("Processing transfer request: fromAccountId={}, toAccountId={}, amount={}, idempotencyKey={}",
             request.getFromAccountId(), request.getToAccountId(), request.getAmount(), request.getIdempotencyKey());
 
-        // Check for duplicate transfer using idempotency key
-        transactionLogRepository.findByIdempotencyKey(request.getIdempotencyKey())
-            .ifPresent(existingTx -> {
-                throw new DuplicateTransferException(
-                    request.getIdempotencyKey(),
-                    existingTx.getId().toString()
-                );
-            });
+        // A retry of a transfer this node recently completed is answered from memory
+        Optional<TransferResponse> cached = idempotencyRegistry.cachedResponse(request);
+        if (cached.isPresent()) {
+            log.debug("Replaying transfer response for idempotencyKey={}", request.getIdempotencyKey());
+            if (auditJournal.isPresent()) {
+                auditJournal.get().record(request, cached.get().getTransactionId(), AuditOutcome.REPLAYED);
+            }
+            return cached.get();
+        }
+
+        // Accounts known to be missing or inactive are rejected before any database work. A key
+        // this node may have seen still goes to the database, where a retry is replayed instead.
+        if (accountDirectory.isPresent() && !idempotencyRegistry.mightExist(request.getIdempotencyKey())) {
+            accountDirectory.get().verifyActive(request.getFromAccountId());
+            accountDirectory.get().verifyActive(request.getToAccountId());
+        }
+
+        TransferResponse response;
+        if (shardedLedger.isPresent()) {
+            response = shardedLedger.get().transfer(request, transactionId);
+        } else {
+            try {
+                response = groupCommitter.isPresent()
+                    ? groupCommitter.get().submit(request, transactionId)
+                    : transferWithRetry(request, transactionId);
+            } catch (DataIntegrityViolationException e) {
+                // The bloom filter let an existing key through; the unique index caught it
+                response = transactionLogRepository.findByIdempotencyKey(request.getIdempotencyKey())
+                    .map(existingTx -> idempotencyRegistry.replay(request, existingTx))
+                    .orElseThrow(() -> e);
+            }
+        }
 
-        // Validate transfer
-        validateTransfer(request);
+        boolean succeeded = TransactionStatus.SUCCESS.name().equals(response.getStatus());
+        if (succeeded) {
+            idempotencyRegistry.record(request.getIdempotencyKey(), response);
+        }
+        if (auditJournal.isPresent()) {
+            auditJournal.get().record(request, response.getTransactionId(),
+                succeeded ? AuditOutcome.COMPLETED : AuditOutcome.ERROR);
+        }
+        return response;
+    }
 
-        // Execute transfer
-        return executeTransfer(request);
+    private TransferResponse transferWithRetry(TransferRequest request, UUID transactionId) {
+        int maxAttempts = Math.max(1, transferProperties.getRetry().getMaxAttempts());
+        DoubleEntryJournal journal = doubleEntryJournal.orElse(null);
+        TransactionTemplate template = journal != null ? journal.transactionTemplate() : transactionTemplate;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return template.execute(status -> journal != null
+                    ? journalTransferOnce(request, transactionId, journal)
+                    : transferOnce(request, transactionId));
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Transfer conflict not resolved after {} attempts. idempotencyKey={}",
+                        attempt, request.getIdempotencyKey());
+                    throw new TransferConflictException(request.getIdempotencyKey(), attempt, e);
+                }
+                log.debug("Transfer attempt {} hit a concurrency conflict, retrying. idempotencyKey={}",
+                    attempt, request.getIdempotencyKey());
+                backoff(attempt);
+            }
+        }
     }
 
-    private void validateTransfer(TransferRequest request) {
+    private TransferResponse transferOnce(TransferRequest request, UUID transactionId) {
+        Optional<TransferResponse> replayed = replayExisting(request);
+        if (replayed.isPresent()) {
+            return replayed.get();
+        }
+
         // Source and destination accounts must differ
         if (request.getFromAccountId().equals(request.getToAccountId())) {
             throw new IllegalArgumentException("Source and destination accounts must be different");
         }
 
-        // Both accounts must exist
-        Account fromAccount = accountRepository.findById(request.getFromAccountId())
-            .orElseThrow(() -> new AccountNotFoundException(request.getFromAccountId()));
+        // Load and lock both accounts exactly once, always in ascending id order so that
+        // two opposing transfers between the same pair can never deadlock
+        Account fromAccount;
+        Account toAccount;
+        if (hotAccountBalances.isHot(request.getToAccountId())) {
+            // A hot account is credited through one of its balance buckets, so its row is only read
+            fromAccount = lockAccount(request.getFromAccountId());
+            toAccount = accountRepository.findById(request.getToAccountId())
+                .orElseThrow(() -> new AccountNotFoundException(request.getToAccountId()));
+        } else if (request.getFromAccountId() < request.getToAccountId()) {
+            fromAccount = lockAccount(request.getFromAccountId());
+            toAccount = lockAccount(request.getToAccountId());
+        } else {
+            toAccount = lockAccount(request.getToAccountId());
+            fromAccount = lockAccount(request.getFromAccountId());
+        }
+
+        validateTransfer(request, fromAccount, toAccount);
+
+        return executeTransfer(request, fromAccount, toAccount, transactionId);
+    }
+
+    /**
+     * Journal variant of {@link #transferOnce}: the source row is locked exclusively so its
+     * balance can be summed, the destination only shared so credits to it run concurrently.
+     */
+    private TransferResponse journalTransferOnce(TransferRequest request, UUID transactionId,
+                                                 DoubleEntryJournal journal) {
+        Optional<TransferResponse> replayed = replayExisting(request);
+        if (replayed.isPresent()) {
+            return replayed.get();
+        }
+
+        // Source and destination accounts must differ
+        if (request.getFromAccountId().equals(request.getToAccountId())) {
+            throw new IllegalArgumentException("Source and destination accounts must be different");
+        }
+
+        Account fromAccount;
+        if (request.getFromAccountId() < request.getToAccountId()) {
+            fromAccount = lockAccount(request.getFromAccountId());
+            journal.lockForCredit(request.getToAccountId());
+        } else {
+            journal.lockForCredit(request.getToAccountId());
+            fromAccount = lockAccount(request.getFromAccountId());
+        }
+
+        if (!fromAccount.isActive()) {
+            throw new AccountNotActiveException(request.getFromAccountId());
+        }
+        if (!request.getAmount().isPositive()) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+        Money balance = journal.currentBalance(request.getFromAccountId());
+        if (balance.isLessThan(request.getAmount())) {
+            throw InsufficientBalanceException.instance();
+        }
+
+        TransactionLog transactionLog = transactionLogRepository.save(TransactionLog.builder()
+            .id(transactionId != null ? transactionId : TimeOrderedUuid.next())
+            .fromAccountId(request.getFromAccountId())
+            .toAccountId(request.getToAccountId())
+            .amount(request.getAmount())
+            .idempotencyKey(request.getIdempotencyKey())
+            .status(TransactionStatus.SUCCESS)
+            .build());
+        journal.append(transactionLog.getId(), request.getFromAccountId(), request.getToAccountId(), request.getAmount());
+        // The destination is only share-locked, so its credit goes to a rollup stripe
+        if (accountRollups.isPresent()) {
+            accountRollups.get().record(transactionLog, false);
+        }
 
-        Account toAccount = accountRepository.findById(request.getToAccountId())
-            .orElseThrow(() -> new AccountNotFoundException(request.getToAccountId()));
+        log.debug("Transfer journaled successfully. Transaction ID: {}", transactionLog.getId());
 
+        return TransferResponse.builder()
+            .transactionId(transactionLog.getId().toString())
+            .status(TransactionStatus.SUCCESS.name())
+            .message("Transfer completed successfully")
+            .debitedFrom(request.getFromAccountId())
+            .creditedTo(request.getToAccountId())
+            .amount(request.getAmount())
+            .build();
+    }
+
+    private Optional<TransferResponse> replayExisting(TransferRequest request) {
+        // Check for duplicate transfer using idempotency key; keys this node has never seen
+        // skip the lookup and rely on the unique index instead
+        if (idempotencyRegistry.mightExist(request.getIdempotencyKey())) {
+            Optional<TransactionLog> existingTx = transactionLogRepository.findByIdempotencyKey(request.getIdempotencyKey());
+            if (existingTx.isPresent()) {
+                return Optional.of(idempotencyRegistry.replay(request, existingTx.get()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Account lockAccount(Long accountId) {
+        return accountRepository.findByIdForUpdate(accountId)
+            .orElseThrow(() -> new AccountNotFoundException(accountId));
+    }
+
+    static void validateTransfer(TransferRequest request, Account fromAccount, Account toAccount) {
         // Both must be ACTIVE
         if (!fromAccount.isActive()) {
             throw new AccountNotActiveException(request.getFromAccountId());
@@ -70,28 +282,20 @@ public class TransferService {
         }
 
         // Amount > 0 (already validated by Bean Validation, but double-check)
-        if (request.getAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
+        if (!request.getAmount().isPositive()) {
             throw new IllegalArgumentException("Amount must be greater than zero");
         }
 
-        // Balance >= amount
-        if (fromAccount.getBalance().compareTo(request.getAmount()) < 0) {
-            throw new InsufficientBalanceException(
-                String.format("Insufficient balance. Current balance: %s, Required: %s",
-                    fromAccount.getBalance(), request.getAmount())
-            );
+        // Balance >= amount; part of a hot account's balance sits in buckets, so its debit checks the total
+        if (!fromAccount.isHot() && fromAccount.getBalance().isLessThan(request.getAmount())) {
+            throw InsufficientBalanceException.instance();
         }
     }
 
-    private TransferResponse executeTransfer(TransferRequest request) {
-        Account fromAccount = accountRepository.findById(request.getFromAccountId())
-            .orElseThrow(() -> new AccountNotFoundException(request.getFromAccountId()));
-
-        Account toAccount = accountRepository.findById(request.getToAccountId())
-            .orElseThrow(() -> new AccountNotFoundException(request.getToAccountId()));
-
+    private TransferResponse executeTransfer(TransferRequest request, Account fromAccount, Account toAccount,
+                                             UUID transactionId) {
         TransactionLog transactionLog = TransactionLog.builder()
-            .id(UUID.randomUUID())
+            .id(transactionId != null ? transactionId : TimeOrderedUuid.next())
             .fromAccountId(request.getFromAccountId())
             .toAccountId(request.getToAccountId())
             .amount(request.getAmount())
@@ -101,8 +305,8 @@ public class TransferService {
 
         try {
             // Debit first, then credit
-            fromAccount.debit(request.getAmount());
-            toAccount.credit(request.getAmount());
+            hotAccountBalances.debit(fromAccount, request.getAmount());
+            hotAccountBalances.credit(toAccount, request.getAmount());
 
             // Save accounts
             accountRepository.save(fromAccount);
@@ -110,8 +314,15 @@ public class TransferService {
 
             // Save transaction log
             transactionLog = transactionLogRepository.save(transactionLog);
+            // A hot destination is credited without its row lock
+            if (accountRollups.isPresent()) {
+                accountRollups.get().record(transactionLog, !toAccount.isHot());
+            }
+
+            // Cached balances are only refreshed once the new ones are committed
+            accountCache.putAfterCommit(List.of(fromAccount, toAccount));
 
-            log.info("Transfer completed successfully. Transaction ID: {}", transactionLog.getId());
+            log.debug("Transfer completed successfully. Transaction ID: {}", transactionLog.getId());
 
             return TransferResponse.builder()
                 .transactionId(transactionLog.getId().toString())
@@ -128,8 +339,25 @@ public class TransferService {
             transactionLog.setFailureReason(e.getMessage());
             transactionLogRepository.save(transactionLog);
 
-            log.error("Transfer failed. Transaction ID: {}, Error: {}", transactionLog.getId(), e.getMessage());
+            if (e instanceof TransferRejectedException) {
+                log.debug("Transfer rejected. Transaction ID: {}, Reason: {}", transactionLog.getId(), e.getMessage());
+            } else {
+                log.error("Transfer failed. Transaction ID: {}, Error: {}", transactionLog.getId(), e.getMessage());
+            }
             throw e;
         }
     }
+
+    private void backoff(int attempt) {
+        long delayMillis = transferProperties.getRetry().getBackoff().toMillis() * attempt;
+        if (delayMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferConflictException("Transfer retry interrupted");
+        }
+    }
 }
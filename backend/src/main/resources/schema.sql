@@ -4,11 +4,20 @@ CREATE TABLE IF NOT EXISTS accounts (
     balance DECIMAL(18,2) NOT NULL,
     status VARCHAR(20) NOT NULL,
     version INT DEFAULT 0,
-    last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+    last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    balance_buckets INT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS account_balance_buckets (
+    account_id BIGINT NOT NULL,
+    bucket INT NOT NULL,
+    balance DECIMAL(18,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (account_id, bucket),
+    FOREIGN KEY (account_id) REFERENCES accounts(id)
 );
 
 CREATE TABLE IF NOT EXISTS transaction_logs (
-    id VARCHAR(36) PRIMARY KEY,
+    id BINARY(16) PRIMARY KEY,
     from_account BIGINT NOT NULL,
     to_account BIGINT NOT NULL,
     amount DECIMAL(18,2) NOT NULL,
@@ -20,6 +29,58 @@ CREATE TABLE IF NOT EXISTS transaction_logs (
     FOREIGN KEY (to_account) REFERENCES accounts(id)
 );
 
-CREATE INDEX idx_transaction_logs_from_account ON transaction_logs(from_account);
-CREATE INDEX idx_transaction_logs_to_account ON transaction_logs(to_account);
-CREATE INDEX idx_transaction_logs_idempotency_key ON transaction_logs(idempotency_key);
+CREATE INDEX idx_transaction_logs_from_account ON transaction_logs(from_account, created_on, id);
+CREATE INDEX idx_transaction_logs_to_account ON transaction_logs(to_account, created_on, id);
+
+CREATE TABLE IF NOT EXISTS transfer_outbox (
+    id BINARY(16) PRIMARY KEY,
+    from_account BIGINT NOT NULL,
+    to_account BIGINT NOT NULL,
+    amount DECIMAL(18,2) NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL UNIQUE,
+    status VARCHAR(20) NOT NULL,
+    failure_reason VARCHAR(255),
+    attempts INT NOT NULL DEFAULT 0,
+    claimed_until TIMESTAMP(3) NULL,
+    created_on TIMESTAMP(3) NOT NULL,
+    updated_on TIMESTAMP(3) NOT NULL
+);
+
+CREATE INDEX idx_transfer_outbox_status ON transfer_outbox(status, created_on);
+
+CREATE TABLE IF NOT EXISTS account_entries (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    account_id BIGINT NOT NULL,
+    transaction_id BINARY(16) NOT NULL,
+    amount DECIMAL(18,2) NOT NULL,
+    created_on TIMESTAMP(6) NOT NULL,
+    FOREIGN KEY (account_id) REFERENCES accounts(id)
+);
+
+CREATE INDEX idx_account_entries_account ON account_entries(account_id, id);
+
+CREATE TABLE IF NOT EXISTS account_checkpoints (
+    account_id BIGINT NOT NULL,
+    entry_id BIGINT NOT NULL,
+    balance DECIMAL(18,2) NOT NULL,
+    created_on TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (account_id, entry_id),
+    FOREIGN KEY (account_id) REFERENCES accounts(id)
+);
+
+CREATE TABLE IF NOT EXISTS account_daily_rollups (
+    account_id BIGINT NOT NULL,
+    rollup_date DATE NOT NULL,
+    stripe INT NOT NULL,
+    credit_total DECIMAL(18,2) NOT NULL DEFAULT 0,
+    credit_count BIGINT NOT NULL DEFAULT 0,
+    debit_total DECIMAL(18,2) NOT NULL DEFAULT 0,
+    debit_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (account_id, rollup_date, stripe),
+    FOREIGN KEY (account_id) REFERENCES accounts(id)
+);
+
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id INT PRIMARY KEY,
+    beat TIMESTAMP(3) NOT NULL
+);
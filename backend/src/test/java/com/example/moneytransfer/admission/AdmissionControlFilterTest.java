@@ -0,0 +1,42 @@
+package com.example.moneytransfer.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private final AdmissionController admissionController = new AdmissionController(1, 0, Duration.ZERO);
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(admissionController, new ObjectMapper());
+
+    @Test
+    void testPermitIsReleasedWhenTheRequestReturns() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/accounts/1"), new MockHttpServletResponse(),
+            (request, response) -> assertEquals(1, admissionController.stats().getInFlight()));
+
+        assertEquals(0, admissionController.stats().getInFlight());
+    }
+
+    @Test
+    void testStreamingRequestHoldsItsPermitUntilAsyncCompletion() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/accounts/1/transactions/stream");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertEquals(1, admissionController.stats().getInFlight());
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/accounts/1"), rejected,
+            (req, res) -> fail("admitted while the stream holds the only permit"));
+        assertEquals(503, rejected.getStatus());
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertEquals(0, admissionController.stats().getInFlight());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.moneytransfer.admission;
+
+import com.example.moneytransfer.domain.dto.AdmissionStatsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+
+    @Test
+    void admitsUpToMaxConcurrentAndShedsAfterBudget() throws Exception {
+        AdmissionController controller = new AdmissionController(2, 10, Duration.ofMillis(20));
+
+        assertTrue(controller.tryAdmit());
+        assertTrue(controller.tryAdmit());
+        assertFalse(controller.tryAdmit());
+
+        AdmissionStatsResponse stats = controller.stats();
+        assertEquals(2, stats.getInFlight());
+        assertEquals(2, stats.getAdmitted());
+        assertEquals(1, stats.getShed());
+    }
+
+    @Test
+    void queuedRequestIsAdmittedWhenSlotIsReleasedWithinBudget() throws Exception {
+        AdmissionController controller = new AdmissionController(1, 10, Duration.ofSeconds(5));
+        assertTrue(controller.tryAdmit());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            Future<Boolean> waiter = executor.submit(() -> {
+                started.countDown();
+                return controller.tryAdmit();
+            });
+            started.await();
+            controller.release();
+
+            assertTrue(waiter.get(5, TimeUnit.SECONDS));
+            assertEquals(1, controller.stats().getQueued());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void fullQueueShedsImmediately() throws Exception {
+        AdmissionController controller = new AdmissionController(1, 0, Duration.ofSeconds(5));
+        assertTrue(controller.tryAdmit());
+
+        long start = System.nanoTime();
+        assertFalse(controller.tryAdmit());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, controller.stats().getShed());
+    }
+}
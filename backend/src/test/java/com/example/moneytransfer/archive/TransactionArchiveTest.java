@@ -0,0 +1,169 @@
+package com.example.moneytransfer.archive;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransactionResponse;
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.TransactionCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TransactionArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private TransferProperties transferProperties;
+
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        transferProperties.getArchive().setDirectory(directory.toString());
+        transferProperties.getArchive().setChunkPause(Duration.ZERO);
+    }
+
+    private static UUID id(String createdOn, int sequence) {
+        long millis = Instant.parse(createdOn).toEpochMilli();
+        return new UUID(millis << 16 | 0x7000L | sequence, 0x8000000000000000L | sequence);
+    }
+
+    private static ArchivedTransaction row(long from, long to, String amount, String createdOn, int sequence) {
+        return new ArchivedTransaction(id(createdOn, sequence), from, to, Money.parse(amount),
+            sequence % 2 == 0 ? "SUCCESS" : "FAILED", sequence % 2 == 0 ? null : "Insufficient balance",
+            "key-é-" + sequence, Instant.parse(createdOn));
+    }
+
+    private static List<String> ids(List<?> rows) {
+        return rows.stream()
+            .map(row -> row instanceof ArchivedTransaction archived ? archived.id().toString()
+                : ((TransactionResponse) row).getId())
+            .toList();
+    }
+
+    @Test
+    void testDirectoryMustBeAbsolute() {
+        transferProperties.getArchive().setDirectory("archive");
+        assertThrows(IllegalStateException.class, () -> new TransactionArchive(transferProperties));
+
+        transferProperties.getArchive().setDirectory(null);
+        assertThrows(IllegalStateException.class, () -> new TransactionArchive(transferProperties));
+    }
+
+    @Test
+    void testSegmentsRoundTripAndSurviveRestart() throws IOException {
+        TransactionArchive archive = new TransactionArchive(transferProperties);
+        List<ArchivedTransaction> january = List.of(
+            row(1, 2, "10.00", "2024-01-05T10:00:00.123456Z", 0),
+            row(2, 1, "0.01", "2024-01-05T10:00:01Z", 1),
+            row(3, 1, "92233720368547758.07", "2024-01-31T23:59:59Z", 2));
+        List<ArchivedTransaction> february = List.of(row(1, 3, "5.00", "2024-02-01T00:00:00Z", 3));
+        archive.append(january);
+        archive.append(february);
+
+        assertThrows(IllegalArgumentException.class, () -> archive.append(january));
+
+        TransactionArchive reopened = new TransactionArchive(transferProperties);
+        assertEquals(february.get(0).id(), reopened.watermark());
+        assertEquals(4, reopened.rowCount());
+        List<ArchivedTransaction> all = new ArrayList<>();
+        reopened.segmentRows().forEach(all::addAll);
+        assertEquals(Stream.concat(january.stream(), february.stream()).toList(), all);
+        try (Stream<Path> months = Files.list(directory)) {
+            assertEquals(List.of("2024-01", "2024-02"), months.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+    }
+
+    @Test
+    void testPagesSpanSegmentsAndMergeWithTableRows() throws IOException {
+        TransactionArchive archive = new TransactionArchive(transferProperties);
+        archive.append(List.of(
+            row(1, 2, "1.00", "2024-01-01T00:00:00Z", 0),
+            row(3, 4, "2.00", "2024-01-02T00:00:00Z", 1),
+            row(2, 1, "3.00", "2024-01-03T00:00:00Z", 2)));
+        archive.append(List.of(
+            row(1, 4, "4.00", "2024-01-04T00:00:00Z", 3),
+            row(1, 2, "5.00", "2024-01-04T00:00:00Z", 4)));
+
+        List<ArchivedTransaction> first = archive.findPage(1, null, 2);
+        assertEquals(ids(List.of(row(1, 2, "5.00", "2024-01-04T00:00:00Z", 4),
+            row(1, 4, "4.00", "2024-01-04T00:00:00Z", 3))), ids(first));
+        ArchivedTransaction last = first.get(1);
+        List<ArchivedTransaction> second = archive.findPage(1,
+            new TransactionCursor(last.createdOn(), last.id().toString()), 2);
+        assertEquals(List.of(id("2024-01-03T00:00:00Z", 2), id("2024-01-01T00:00:00Z", 0)),
+            second.stream().map(ArchivedTransaction::id).toList());
+        assertTrue(archive.findPage(4, null, 10).stream().allMatch(row -> row.involves(4)));
+
+        // A row still in the table after being archived is returned once
+        TransactionResponse archivedToo = row(1, 2, "5.00", "2024-01-04T00:00:00Z", 4).toResponse();
+        TransactionResponse newer = row(2, 1, "6.00", "2024-03-01T00:00:00Z", 5).toResponse();
+        List<TransactionResponse> merged = archive.mergePage(List.of(newer, archivedToo), 1, null, 3);
+        assertEquals(List.of(newer.getId(), archivedToo.getId(), id("2024-01-04T00:00:00Z", 3).toString()),
+            ids(merged));
+
+        // A full page newer than everything archived does not touch the archive
+        List<TransactionResponse> full = List.of(newer, newer);
+        assertSame(full, archive.mergePage(full, 1, null, 2));
+    }
+
+    @Test
+    void testDamagedSegmentIsRejected() throws IOException {
+        TransactionArchive archive = new TransactionArchive(transferProperties);
+        archive.append(List.of(row(1, 2, "1.00", "2024-01-01T00:00:00Z", 0)));
+        Path segment;
+        try (Stream<Path> files = Files.walk(directory)) {
+            segment = files.filter(Files::isRegularFile).findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 10] ^= 0x55;
+        Files.write(segment, bytes);
+
+        TransactionArchive reopened = new TransactionArchive(transferProperties);
+        assertThrows(UncheckedIOException.class, () -> reopened.findPage(1, null, 10));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testArchiverMovesOneMonthPerSegmentAndDeletesWhatItArchived() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionArchive archive = new TransactionArchive(transferProperties);
+        TransactionArchiver archiver = new TransactionArchiver(jdbcTemplate, archive, transferProperties);
+        ArchivedTransaction january = row(1, 2, "1.00", "2024-01-31T23:59:59Z", 0);
+        ArchivedTransaction february = row(2, 1, "2.00", "2024-02-01T00:00:00Z", 1);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any(), any()))
+            .thenReturn(List.of(january, february), List.of(february), List.of());
+
+        assertEquals(2, archiver.archiveAged(Instant.parse("2024-03-01T00:00:00Z")));
+
+        assertEquals(february.id(), archive.watermark());
+        verify(jdbcTemplate).update("DELETE FROM transaction_logs WHERE id > ? AND id <= ?",
+            new byte[16], TimeOrderedUuid.toBytes(january.id()));
+        verify(jdbcTemplate).update("DELETE FROM transaction_logs WHERE id > ? AND id <= ?",
+            TimeOrderedUuid.toBytes(january.id()), TimeOrderedUuid.toBytes(february.id()));
+        List<List<ArchivedTransaction>> segments = new ArrayList<>();
+        archive.segmentRows().forEach(segments::add);
+        assertEquals(List.of(List.of(january), List.of(february)), segments);
+
+        transferProperties.getArchive().setHotRetention(Duration.ofHours(1));
+        assertThrows(IllegalStateException.class,
+            () -> new TransactionArchiver(jdbcTemplate, archive, transferProperties));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.moneytransfer.audit;
+
+import com.example.moneytransfer.audit.AuditJournalReader.AuditEntry;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.money.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferAuditJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private TransferProperties transferProperties;
+
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        transferProperties.getAudit().setDirectory(directory.toString());
+        transferProperties.getAudit().setFlushPolicy(TransferProperties.Audit.FlushPolicy.OS);
+    }
+
+    private static TransferRequest request(long from, long to, String amount, String key) {
+        TransferRequest request = new TransferRequest();
+        request.setFromAccountId(from);
+        request.setToAccountId(to);
+        request.setAmount(Money.parse(amount));
+        request.setIdempotencyKey(key);
+        return request;
+    }
+
+    private List<AuditEntry> readAll() throws IOException {
+        List<AuditEntry> entries = new ArrayList<>();
+        AuditJournalReader.read(directory, entries::add);
+        return entries;
+    }
+
+    @Test
+    void testRecordsRoundTrip() throws IOException {
+        UUID transactionId = UUID.randomUUID();
+        TransferAuditJournal journal = new TransferAuditJournal(transferProperties);
+
+        journal.record(request(1, 2, "12.34", "key-1"), transactionId.toString(), AuditOutcome.COMPLETED);
+        journal.record(request(3, 4, "5.00", "key-2"), (UUID) null, AuditOutcome.INSUFFICIENT_BALANCE);
+        journal.close();
+
+        List<AuditEntry> entries = readAll();
+        assertEquals(2, entries.size());
+        AuditEntry first = entries.get(0);
+        assertEquals(0, first.sequence());
+        assertEquals(AuditOutcome.COMPLETED, first.outcome());
+        assertEquals(transactionId, first.transactionId());
+        assertEquals(1, first.fromAccountId());
+        assertEquals(2, first.toAccountId());
+        assertEquals(new BigDecimal("12.34"), first.amount());
+        assertEquals("key-1", first.idempotencyKey());
+        assertNull(entries.get(1).transactionId());
+        assertEquals(AuditOutcome.INSUFFICIENT_BALANCE, entries.get(1).outcome());
+    }
+
+    @Test
+    void testDirectoryMustBeAbsolute() {
+        transferProperties.getAudit().setDirectory("audit");
+        assertThrows(IllegalStateException.class, () -> new TransferAuditJournal(transferProperties));
+
+        transferProperties.getAudit().setDirectory(null);
+        assertThrows(IllegalStateException.class, () -> new TransferAuditJournal(transferProperties));
+    }
+
+    @Test
+    void testRotatesSegmentsAndResumesAfterRestart() throws IOException {
+        transferProperties.getAudit().setSegmentSize(DataSize.ofBytes(TransferAuditJournal.RECORD_SIZE * 3L));
+
+        TransferAuditJournal journal = new TransferAuditJournal(transferProperties);
+        for (int i = 0; i < 4; i++) {
+            journal.record(request(1, 2, "1.00", "a-" + i), (UUID) null, AuditOutcome.COMPLETED);
+        }
+        journal.close();
+
+        journal = new TransferAuditJournal(transferProperties);
+        journal.record(request(1, 2, "1.00", "b-0"), (UUID) null, AuditOutcome.COMPLETED);
+        journal.close();
+
+        List<AuditEntry> entries = readAll();
+        assertEquals(2, AuditJournalReader.segments(directory).size());
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), entries.stream().map(AuditEntry::sequence).toList());
+        assertEquals("b-0", entries.get(4).idempotencyKey());
+    }
+
+    @Test
+    void testMapsFailuresToOutcomes() {
+        assertEquals(AuditOutcome.INVALID_REQUEST, AuditOutcome.of(new IllegalArgumentException("same account")));
+        assertEquals(AuditOutcome.ERROR, AuditOutcome.of(new IllegalStateException("boom")));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.moneytransfer.balance;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.BalanceBucketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class HotAccountBalancesTest {
+
+    private BalanceBucketRepository bucketRepository;
+    private HotAccountBalances balances;
+
+    @BeforeEach
+    void setUp() {
+        bucketRepository = mock(BalanceBucketRepository.class);
+        balances = new HotAccountBalances(bucketRepository, new TransferProperties());
+    }
+
+    private static Account hotAccount(String balance) {
+        return Account.builder()
+            .id(7L)
+            .holderName("Merchant")
+            .balance(Money.parse(balance))
+            .status(AccountStatus.ACTIVE)
+            .balanceBuckets(4)
+            .build();
+    }
+
+    @Test
+    void testRegularAccountIsDebitedAndCreditedOnItsRow() {
+        Account account = hotAccount("100.00");
+        account.setBalanceBuckets(0);
+
+        balances.debit(account, Money.parse("30.00"));
+        balances.credit(account, Money.parse("5.00"));
+
+        assertEquals(Money.parse("75.00"), account.getBalance());
+        verifyNoInteractions(bucketRepository);
+    }
+
+    @Test
+    void testHotAccountCreditGoesToABucket() {
+        Account account = hotAccount("100.00");
+        when(bucketRepository.credit(eq(7L), anyInt(), any())).thenReturn(1);
+
+        balances.credit(account, Money.parse("5.00"));
+
+        assertEquals(Money.parse("100.00"), account.getBalance());
+        verify(bucketRepository).credit(eq(7L), intThat(bucket -> bucket >= 0 && bucket < 4), eq(Money.parse("5.00")));
+    }
+
+    @Test
+    void testHotAccountDebitUsesBucketWithFundsBeforeConsolidating() {
+        Account account = hotAccount("10.00");
+        when(bucketRepository.findBucketWithFunds(7L, Money.parse("30.00"))).thenReturn(2);
+        when(bucketRepository.debitIfSufficient(7L, 2, Money.parse("30.00"))).thenReturn(1);
+
+        balances.debit(account, Money.parse("30.00"));
+
+        assertEquals(Money.parse("10.00"), account.getBalance());
+        verify(bucketRepository, never()).drain(anyLong());
+    }
+
+    @Test
+    void testHotAccountDebitConsolidatesBucketsWhenNoneSuffices() {
+        Account account = hotAccount("10.00");
+        when(bucketRepository.findBucketWithFunds(anyLong(), any())).thenReturn(-1);
+        when(bucketRepository.drain(7L)).thenReturn(Money.parse("25.00"));
+
+        balances.debit(account, Money.parse("30.00"));
+
+        assertEquals(Money.parse("5.00"), account.getBalance());
+    }
+
+    @Test
+    void testHotAccountDebitFailsWhenTotalIsInsufficient() {
+        Account account = hotAccount("10.00");
+        when(bucketRepository.findBucketWithFunds(anyLong(), any())).thenReturn(-1);
+        when(bucketRepository.drain(7L)).thenReturn(Money.parse("5.00"));
+
+        assertThrows(InsufficientBalanceException.class, () -> balances.debit(account, Money.parse("30.00")));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.moneytransfer.cache;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.money.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountCacheTest {
+
+    private TransferProperties transferProperties;
+    private AccountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        cache = new AccountCache(transferProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static Account account(Long id, String balance, int version) {
+        return Account.builder()
+            .id(id)
+            .holderName("Holder " + id)
+            .balance(Money.parse(balance))
+            .status(AccountStatus.ACTIVE)
+            .version(version)
+            .build();
+    }
+
+    @Test
+    void testOlderVersionDoesNotReplaceNewer() {
+        cache.put(account(1L, "200.00", 6));
+        cache.put(account(1L, "100.00", 5));
+
+        assertEquals(Money.parse("200.00"), cache.get(1L).orElseThrow().getBalance());
+    }
+
+    @Test
+    void testPutAfterCommitOnlyPublishesOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.putAfterCommit(List.of(account(1L, "100.00", 1)));
+        assertTrue(cache.get(1L).isEmpty());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(Money.parse("100.00"), cache.get(1L).orElseThrow().getBalance());
+    }
+
+    @Test
+    void testStatsAndEviction() {
+        transferProperties.getAccountCache().setMaxSize(1);
+        cache = new AccountCache(transferProperties);
+
+        cache.put(account(1L, "100.00", 0));
+        cache.put(account(2L, "100.00", 0));
+        cache.get(1L);
+        cache.get(2L);
+
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+        assertEquals(1, cache.stats().getEvictions());
+        assertEquals(1, cache.stats().getSize());
+    }
+}
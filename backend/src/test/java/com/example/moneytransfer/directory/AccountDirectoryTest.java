@@ -0,0 +1,137 @@
+package com.example.moneytransfer.directory;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.exception.AccountNotActiveException;
+import com.example.moneytransfer.domain.exception.AccountNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AccountDirectoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransferProperties transferProperties;
+    // Stands in for the accounts table
+    private final TreeMap<Long, AccountStatus> accounts = new TreeMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transferProperties = new TransferProperties();
+        transferProperties.getAccountDirectory().setChunkSize(2);
+        when(jdbcTemplate.query(startsWith("SELECT id, status FROM accounts WHERE id > ?"), any(RowMapper.class),
+            anyLong(), anyInt()))
+            .thenAnswer(invocation -> {
+                long afterId = invocation.getArgument(2);
+                int limit = invocation.getArgument(3);
+                return rows(accounts.tailMap(afterId, false).entrySet().stream().limit(limit).toList());
+            });
+        when(jdbcTemplate.query(startsWith("SELECT id, status FROM accounts WHERE id IN"), any(RowMapper.class),
+            any(Object[].class)))
+            .thenAnswer(invocation -> {
+                List<Map.Entry<Long, AccountStatus>> found = new ArrayList<>();
+                for (int i = 2; i < invocation.getArguments().length; i++) {
+                    long id = invocation.getArgument(i);
+                    if (accounts.containsKey(id)) {
+                        found.add(Map.entry(id, accounts.get(id)));
+                    }
+                }
+                return rows(found);
+            });
+    }
+
+    private static List<long[]> rows(List<Map.Entry<Long, AccountStatus>> entries) {
+        return entries.stream()
+            .map(entry -> new long[]{entry.getKey(), entry.getValue().ordinal() + 1})
+            .toList();
+    }
+
+    @Test
+    void testStatusesArePackedPerAccount() {
+        AccountDirectory directory = new AccountDirectory(jdbcTemplate, transferProperties);
+        directory.put(1L, AccountStatus.ACTIVE);
+        directory.put(2L, AccountStatus.CLOSED);
+        directory.put(3L, AccountStatus.LOCKED);
+        directory.put(70_000L, AccountStatus.ACTIVE);
+        directory.put(-1L, AccountStatus.ACTIVE);
+
+        assertEquals(AccountStatus.ACTIVE, directory.statusOf(1L));
+        assertEquals(AccountStatus.CLOSED, directory.statusOf(2L));
+        assertEquals(AccountStatus.LOCKED, directory.statusOf(3L));
+        assertEquals(AccountStatus.ACTIVE, directory.statusOf(70_000L));
+        assertNull(directory.statusOf(4L));
+        assertNull(directory.statusOf(-1L));
+        assertNull(directory.statusOf(Long.MAX_VALUE));
+        assertEquals(4, directory.size());
+
+        directory.updateAfterCommit(2L, AccountStatus.ACTIVE);
+        directory.updateAfterCommit(1L, AccountStatus.LOCKED);
+        assertEquals(AccountStatus.ACTIVE, directory.statusOf(2L));
+        assertEquals(AccountStatus.LOCKED, directory.statusOf(1L));
+        assertEquals(AccountStatus.LOCKED, directory.statusOf(3L));
+        assertEquals(4, directory.size());
+    }
+
+    @Test
+    void testMissingAccountsAreOnlyReportedOnceAnEarlierLoadCoveredThem() {
+        accounts.put(1L, AccountStatus.ACTIVE);
+        accounts.put(2L, AccountStatus.CLOSED);
+        accounts.put(4L, AccountStatus.ACTIVE);
+        AccountDirectory directory = new AccountDirectory(jdbcTemplate, transferProperties);
+
+        directory.load(0);
+        assertEquals(3, directory.size());
+        directory.verifyActive(1L);
+        // A lower id may still be committing while a higher one is already visible
+        directory.verifyActive(3L);
+        directory.verifyActive(null);
+        assertThrows(AccountNotActiveException.class, () -> directory.verifyActive(2L));
+
+        accounts.put(5L, AccountStatus.ACTIVE);
+        directory.load(4);
+        assertEquals(AccountStatus.ACTIVE, directory.statusOf(5L));
+        assertThrows(AccountNotFoundException.class, () -> directory.verifyActive(3L));
+        assertThrows(AccountNotFoundException.class, () -> directory.verifyActive(0L));
+        directory.verifyActive(5L);
+        directory.verifyActive(6L);
+    }
+
+    @Test
+    void testInactiveAccountsAreReadAgain() {
+        accounts.put(1L, AccountStatus.LOCKED);
+        accounts.put(2L, AccountStatus.LOCKED);
+        accounts.put(3L, AccountStatus.ACTIVE);
+        accounts.put(4L, AccountStatus.CLOSED);
+        AccountDirectory directory = new AccountDirectory(jdbcTemplate, transferProperties);
+        directory.load(0);
+        directory.put(70_000L, AccountStatus.LOCKED);
+
+        // Changed through another node
+        accounts.put(1L, AccountStatus.ACTIVE);
+        accounts.put(3L, AccountStatus.CLOSED);
+        accounts.put(4L, AccountStatus.ACTIVE);
+        directory.recheckInactive();
+
+        assertEquals(AccountStatus.ACTIVE, directory.statusOf(1L));
+        assertEquals(AccountStatus.LOCKED, directory.statusOf(2L));
+        // A stale ACTIVE entry waits for the full refresh; the transfer path checks the row
+        assertEquals(AccountStatus.ACTIVE, directory.statusOf(3L));
+        // A reactivated CLOSED account is accepted again without waiting for the full refresh
+        assertEquals(AccountStatus.ACTIVE, directory.statusOf(4L));
+        directory.verifyActive(4L);
+        // Not in the database; kept until the full refresh, and the transfer path checks the row
+        assertEquals(AccountStatus.LOCKED, directory.statusOf(70_000L));
+    }
+}
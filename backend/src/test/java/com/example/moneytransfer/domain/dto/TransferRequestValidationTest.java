@@ -1,5 +1,6 @@
 package com.example.moneytransfer.domain.dto;
 
+import com.example.moneytransfer.domain.money.Money;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
@@ -7,7 +8,6 @@ import jakarta.validation.ValidatorFactory;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,7 +27,7 @@ class TransferRequestValidationTest {
         TransferRequest request = new TransferRequest();
         request.setFromAccountId(1L);
         request.setToAccountId(2L);
-        request.setAmount(new BigDecimal("100.00"));
+        request.setAmount(Money.parse("100.00"));
         request.setIdempotencyKey("test-key-123");
 
         Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
@@ -52,7 +52,7 @@ class TransferRequestValidationTest {
         TransferRequest request = new TransferRequest();
         request.setFromAccountId(1L);
         request.setToAccountId(2L);
-        request.setAmount(new BigDecimal("0.00")); // Less than 0.01
+        request.setAmount(Money.parse("0.00")); // Less than 0.01
         request.setIdempotencyKey("test-key-123");
 
         Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
@@ -65,7 +65,7 @@ class TransferRequestValidationTest {
         TransferRequest request = new TransferRequest();
         request.setFromAccountId(1L);
         request.setToAccountId(2L);
-        request.setAmount(new BigDecimal("-100.00"));
+        request.setAmount(Money.parse("-100.00"));
         request.setIdempotencyKey("test-key-123");
 
         Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
@@ -78,7 +78,7 @@ class TransferRequestValidationTest {
         TransferRequest request = new TransferRequest();
         request.setFromAccountId(null);
         request.setToAccountId(2L);
-        request.setAmount(new BigDecimal("100.00"));
+        request.setAmount(Money.parse("100.00"));
         request.setIdempotencyKey("test-key-123");
 
         Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
@@ -91,7 +91,7 @@ class TransferRequestValidationTest {
         TransferRequest request = new TransferRequest();
         request.setFromAccountId(1L);
         request.setToAccountId(null);
-        request.setAmount(new BigDecimal("100.00"));
+        request.setAmount(Money.parse("100.00"));
         request.setIdempotencyKey("test-key-123");
 
         Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
@@ -104,7 +104,7 @@ class TransferRequestValidationTest {
         TransferRequest request = new TransferRequest();
         request.setFromAccountId(1L);
         request.setToAccountId(2L);
-        request.setAmount(new BigDecimal("100.00"));
+        request.setAmount(Money.parse("100.00"));
         request.setIdempotencyKey(null);
 
         Set<ConstraintViolation<TransferRequest>> violations = validator.validate(request);
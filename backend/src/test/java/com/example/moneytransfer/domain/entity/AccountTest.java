@@ -2,11 +2,10 @@ package com.example.moneytransfer.domain.entity;
 
 import com.example.moneytransfer.domain.enums.AccountStatus;
 import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.money.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
-
 import static org.junit.jupiter.api.Assertions.*;
 
 class AccountTest {
@@ -18,7 +17,7 @@ class AccountTest {
         account = Account.builder()
             .id(1L)
             .holderName("John Doe")
-            .balance(new BigDecimal("1000.00"))
+            .balance(Money.parse("1000.00"))
             .status(AccountStatus.ACTIVE)
             .version(0)
             .build();
@@ -26,8 +25,8 @@ class AccountTest {
 
     @Test
     void testDebitSuccess() {
-        BigDecimal amount = new BigDecimal("500.00");
-        BigDecimal expectedBalance = new BigDecimal("500.00");
+        Money amount = Money.parse("500.00");
+        Money expectedBalance = Money.parse("500.00");
 
         account.debit(amount);
 
@@ -36,19 +35,19 @@ class AccountTest {
 
     @Test
     void testDebitInsufficientBalance() {
-        BigDecimal amount = new BigDecimal("1500.00");
+        Money amount = Money.parse("1500.00");
 
         assertThrows(InsufficientBalanceException.class, () -> {
             account.debit(amount);
         });
 
         // Balance should remain unchanged
-        assertEquals(new BigDecimal("1000.00"), account.getBalance());
+        assertEquals(Money.parse("1000.00"), account.getBalance());
     }
 
     @Test
     void testDebitZeroAmount() {
-        BigDecimal amount = BigDecimal.ZERO;
+        Money amount = Money.ZERO;
 
         assertThrows(IllegalArgumentException.class, () -> {
             account.debit(amount);
@@ -57,7 +56,7 @@ class AccountTest {
 
     @Test
     void testDebitNegativeAmount() {
-        BigDecimal amount = new BigDecimal("-100.00");
+        Money amount = Money.parse("-100.00");
 
         assertThrows(IllegalArgumentException.class, () -> {
             account.debit(amount);
@@ -66,8 +65,8 @@ class AccountTest {
 
     @Test
     void testCreditSuccess() {
-        BigDecimal amount = new BigDecimal("500.00");
-        BigDecimal expectedBalance = new BigDecimal("1500.00");
+        Money amount = Money.parse("500.00");
+        Money expectedBalance = Money.parse("1500.00");
 
         account.credit(amount);
 
@@ -76,7 +75,7 @@ class AccountTest {
 
     @Test
     void testCreditZeroAmount() {
-        BigDecimal amount = BigDecimal.ZERO;
+        Money amount = Money.ZERO;
 
         assertThrows(IllegalArgumentException.class, () -> {
             account.credit(amount);
@@ -85,7 +84,7 @@ class AccountTest {
 
     @Test
     void testCreditNegativeAmount() {
-        BigDecimal amount = new BigDecimal("-100.00");
+        Money amount = Money.parse("-100.00");
 
         assertThrows(IllegalArgumentException.class, () -> {
             account.credit(amount);
@@ -103,4 +102,13 @@ class AccountTest {
         account.setStatus(AccountStatus.CLOSED);
         assertFalse(account.isActive());
     }
+
+    @Test
+    void testInsufficientBalanceRejectionIsStackless() {
+        InsufficientBalanceException ex = assertThrows(InsufficientBalanceException.class,
+            () -> account.debit(Money.parse("1500.00")));
+
+        assertEquals(0, ex.getStackTrace().length);
+        assertSame(InsufficientBalanceException.instance(), ex);
+    }
 }
@@ -0,0 +1,59 @@
+package com.example.moneytransfer.domain.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    void testVersionAndVariant() {
+        UUID uuid = TimeOrderedUuid.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void testEmbedsCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuid.next();
+        long after = System.currentTimeMillis();
+
+        long millis = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= after + 1);
+    }
+
+    @Test
+    void testBinaryFormIsStrictlyIncreasing() {
+        byte[] previous = TimeOrderedUuid.toBytes(TimeOrderedUuid.next());
+        for (int i = 0; i < 10_000; i++) {
+            byte[] current = TimeOrderedUuid.toBytes(TimeOrderedUuid.next());
+            assertTrue(Arrays.compareUnsigned(previous, current) < 0);
+            previous = current;
+        }
+    }
+
+    @Test
+    void testBytesRoundTrip() {
+        UUID uuid = TimeOrderedUuid.next();
+
+        assertEquals(uuid, TimeOrderedUuid.fromBytes(TimeOrderedUuid.toBytes(uuid)));
+        assertThrows(IllegalArgumentException.class, () -> TimeOrderedUuid.fromBytes(new byte[8]));
+    }
+
+    @Test
+    void testLowerBoundSortsBeforeIdsFromThatTimeOn() {
+        UUID uuid = TimeOrderedUuid.next();
+        Instant created = TimeOrderedUuid.timestampOf(uuid);
+        byte[] bytes = TimeOrderedUuid.toBytes(uuid);
+
+        assertTrue(Arrays.compareUnsigned(TimeOrderedUuid.toBytes(TimeOrderedUuid.lowerBound(created)), bytes) < 0);
+        assertTrue(Arrays.compareUnsigned(
+            TimeOrderedUuid.toBytes(TimeOrderedUuid.lowerBound(created.plusMillis(1))), bytes) > 0);
+    }
+}
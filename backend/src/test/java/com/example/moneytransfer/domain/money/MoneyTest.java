@@ -0,0 +1,55 @@
+package com.example.moneytransfer.domain.money;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testParseIsStrictAboutScale() {
+        assertEquals(12345, Money.parse("123.45").minorUnits());
+        assertEquals(12340, Money.parse("123.4").minorUnits());
+        assertEquals(12345, Money.parse("123.4500").minorUnits());
+
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("123.456"));
+        assertThrows(IllegalArgumentException.class, () -> Money.parse("abc"));
+        assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void testArithmeticIsExact() {
+        Money balance = Money.parse("100.00");
+        Money amount = Money.parse("0.01");
+
+        assertEquals(Money.parse("99.99"), balance.minus(amount));
+        assertEquals(Money.parse("100.01"), balance.plus(amount));
+        assertTrue(amount.isLessThan(balance));
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(amount));
+    }
+
+    @Test
+    void testToStringAlwaysHasTwoDecimals() {
+        assertEquals("1200.00", Money.parse("1200").toString());
+        assertEquals("-0.05", Money.ofMinor(-5).toString());
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals(new BigDecimal("-12.30"), Money.parse("-12.3").toBigDecimal());
+    }
+
+    @Test
+    void testJsonRoundTrip() throws Exception {
+        assertEquals("125.50", objectMapper.writeValueAsString(Money.parse("125.5")));
+        assertEquals(Money.parse("125.50"), objectMapper.readValue("125.5", Money.class));
+        assertEquals(Money.parse("125.00"), objectMapper.readValue("125", Money.class));
+        assertEquals(Money.parse("125.50"), objectMapper.readValue("\"125.50\"", Money.class));
+
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("125.505", Money.class));
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("true", Money.class));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.moneytransfer.ingress;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.service.TransferService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class BinaryTransferServerTest {
+
+    private TransferService transferService;
+    private TransferProperties transferProperties;
+    private BinaryTransferServer server;
+    private SocketChannel client;
+
+    @BeforeEach
+    void setUp() {
+        transferService = mock(TransferService.class);
+        transferProperties = new TransferProperties();
+        transferProperties.getBinaryIngress().setPort(0);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (client != null) {
+            client.close();
+        }
+        server.stop();
+    }
+
+    private void connect() throws IOException {
+        server = new BinaryTransferServer(transferService,
+            Validation.buildDefaultValidatorFactory().getValidator(), Optional.empty(), transferProperties);
+        server.start();
+        client = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.port()));
+    }
+
+    private static TransferRequest request(long from, long to, long minorUnits, String key) {
+        return new TransferRequest(from, to, Money.ofMinor(minorUnits), key);
+    }
+
+    private Map<Integer, BinaryTransferCodec.Result> readResults(int count) throws IOException {
+        Map<Integer, BinaryTransferCodec.Result> results = new HashMap<>();
+        ByteBuffer header = ByteBuffer.allocate(BinaryTransferCodec.HEADER);
+        while (results.size() < count) {
+            header.clear();
+            readFully(header);
+            ByteBuffer payload = ByteBuffer.allocate(header.flip().getInt());
+            readFully(payload);
+            BinaryTransferCodec.Result result = BinaryTransferCodec.decodeResult(payload.flip());
+            results.put(result.requestId(), result);
+        }
+        return results;
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (client.read(buffer) < 0) {
+                throw new IOException("Connection closed");
+            }
+        }
+    }
+
+    @Test
+    void testPipelinedRequestsAreAnsweredByRequestId() throws IOException {
+        String transactionId = UUID.randomUUID().toString();
+        when(transferService.transfer(argThat(r -> r != null && "ok".equals(r.getIdempotencyKey()))))
+            .thenReturn(TransferResponse.builder()
+                .transactionId(transactionId)
+                .status(TransactionStatus.SUCCESS.name())
+                .message("Transfer completed successfully")
+                .debitedFrom(1L)
+                .creditedTo(2L)
+                .amount(Money.ofMinor(1050))
+                .build());
+        when(transferService.transfer(argThat(r -> r != null && "poor".equals(r.getIdempotencyKey()))))
+            .thenThrow(InsufficientBalanceException.instance());
+        connect();
+
+        ByteBuffer malformed = ByteBuffer.allocate(BinaryTransferCodec.HEADER + 5).putInt(5).putInt(13).put((byte) 9);
+        ByteBuffer[] pipeline = {
+            BinaryTransferCodec.encodeRequest(10, request(1, 2, 1050, "ok")),
+            BinaryTransferCodec.encodeRequest(11, request(1, 2, 99_999, "poor")),
+            BinaryTransferCodec.encodeRequest(12, request(1, 2, 0, null)),
+            malformed.flip()
+        };
+        client.write(pipeline);
+
+        Map<Integer, BinaryTransferCodec.Result> results = readResults(4);
+        TransferResponse response = results.get(10).response();
+        assertEquals(transactionId, response.getTransactionId());
+        assertEquals("SUCCESS", response.getStatus());
+        assertEquals(Money.ofMinor(1050), response.getAmount());
+        assertEquals(2L, response.getCreditedTo());
+        assertEquals("TRX-400", results.get(11).error().getErrorCode());
+        assertEquals("VAL-422", results.get(12).error().getErrorCode());
+        assertEquals("Validation failed: {amount=Amount must be at least 0.01, "
+            + "idempotencyKey=Idempotency key cannot be null}", results.get(12).error().getMessage());
+        assertEquals("Malformed request: unknown request type 9", results.get(13).error().getMessage());
+        verify(transferService, times(2)).transfer(any(TransferRequest.class));
+    }
+
+    @Test
+    void testRequestsBeyondTheWorkerQueueAreShed() throws Exception {
+        transferProperties.getBinaryIngress().setWorkers(1);
+        transferProperties.getBinaryIngress().setQueueSize(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(transferService.transfer(any(TransferRequest.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            TransferRequest request = invocation.getArgument(0);
+            return TransferResponse.builder()
+                .status(TransactionStatus.SUCCESS.name())
+                .debitedFrom(request.getFromAccountId())
+                .creditedTo(request.getToAccountId())
+                .amount(request.getAmount())
+                .build();
+        });
+        connect();
+
+        client.write(BinaryTransferCodec.encodeRequest(1, request(1, 2, 100, "a")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // One waits in the queue, the other finds it full
+        client.write(new ByteBuffer[] {
+            BinaryTransferCodec.encodeRequest(2, request(1, 2, 100, "b")),
+            BinaryTransferCodec.encodeRequest(3, request(1, 2, 100, "c"))
+        });
+        assertEquals("SYS-503", readResults(1).get(3).error().getErrorCode());
+
+        release.countDown();
+        Map<Integer, BinaryTransferCodec.Result> results = readResults(2);
+        assertEquals("SUCCESS", results.get(1).response().getStatus());
+        assertNull(results.get(1).response().getTransactionId());
+        assertEquals("SUCCESS", results.get(2).response().getStatus());
+    }
+
+    @Test
+    void testOversizedFrameClosesTheConnection() throws IOException {
+        connect();
+
+        client.write(ByteBuffer.allocate(BinaryTransferCodec.HEADER)
+            .putInt(BinaryTransferCodec.MAX_FRAME + 1).flip());
+
+        assertEquals(-1, client.read(ByteBuffer.allocate(1)));
+        verifyNoInteractions(transferService);
+    }
+}
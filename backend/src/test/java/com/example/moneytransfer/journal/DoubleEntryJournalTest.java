@@ -0,0 +1,131 @@
+package com.example.moneytransfer.journal;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.exception.AccountNotActiveException;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.AccountEntryRepository;
+import com.example.moneytransfer.repository.AccountEntryRepository.Checkpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class DoubleEntryJournalTest {
+
+    private AccountEntryRepository entryRepository;
+    private TransferProperties transferProperties;
+    private DoubleEntryJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        entryRepository = mock(AccountEntryRepository.class);
+        transferProperties = new TransferProperties();
+        journal = new DoubleEntryJournal(entryRepository, mock(PlatformTransactionManager.class), transferProperties);
+    }
+
+    @Test
+    void testCurrentBalanceIsCheckpointPlusLaterEntries() {
+        when(entryRepository.findLatestCheckpoint(1L)).thenReturn(Optional.of(new Checkpoint(10, Money.parse("100.00"))));
+        when(entryRepository.sumAfter(eq(1L), eq(10L), isNull())).thenReturn(new Checkpoint(14, Money.parse("-25.00")));
+
+        assertEquals(Money.parse("75.00"), journal.currentBalance(1L));
+    }
+
+    @Test
+    void testBalanceAsOfSumsOnlyEntriesUpToThatTime() {
+        Instant asOf = Instant.parse("2024-01-01T00:00:00Z");
+        when(entryRepository.findCheckpoint(1L, asOf)).thenReturn(Optional.of(new Checkpoint(3, Money.parse("40.00"))));
+        when(entryRepository.sumAfter(1L, 3L, asOf)).thenReturn(new Checkpoint(5, Money.parse("10.00")));
+
+        assertEquals(Money.parse("50.00"), journal.balanceAsOf(1L, asOf));
+    }
+
+    @Test
+    void testBalanceAsOfBeforeHistoryIsRejected() {
+        when(entryRepository.findCheckpoint(eq(1L), any())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> journal.balanceAsOf(1L, Instant.EPOCH));
+    }
+
+    @Test
+    void testCheckpointFoldsEntriesAndMirrorsBalance() {
+        when(entryRepository.lockExclusive(1L)).thenReturn(Optional.of("ACTIVE"));
+        when(entryRepository.findLatestCheckpoint(1L)).thenReturn(Optional.of(new Checkpoint(10, Money.parse("100.00"))));
+        when(entryRepository.sumAfter(eq(1L), eq(10L), isNull())).thenReturn(new Checkpoint(20, Money.parse("5.00")));
+
+        assertTrue(journal.checkpoint(1L));
+
+        verify(entryRepository).insertCheckpoint(eq(1L), eq(new Checkpoint(20, Money.parse("105.00"))), any());
+        verify(entryRepository).updateAccountBalance(1L, Money.parse("105.00"));
+    }
+
+    @Test
+    void testCheckpointSkippedWithoutNewEntries() {
+        when(entryRepository.lockExclusive(1L)).thenReturn(Optional.of("ACTIVE"));
+        when(entryRepository.findLatestCheckpoint(1L)).thenReturn(Optional.of(new Checkpoint(10, Money.parse("100.00"))));
+        when(entryRepository.sumAfter(eq(1L), eq(10L), isNull())).thenReturn(new Checkpoint(10, Money.ZERO));
+
+        assertFalse(journal.checkpoint(1L));
+        verify(entryRepository, never()).insertCheckpoint(anyLong(), any(), any());
+    }
+
+    @Test
+    void testStopCheckpointsAccountsWithPendingEntries() throws InterruptedException {
+        when(entryRepository.lockExclusive(anyLong())).thenReturn(Optional.of("ACTIVE"));
+        when(entryRepository.findLatestCheckpoint(anyLong())).thenReturn(Optional.of(new Checkpoint(0, Money.ZERO)));
+        when(entryRepository.sumAfter(eq(1L), eq(0L), isNull())).thenReturn(new Checkpoint(2, Money.parse("-5.00")));
+        when(entryRepository.sumAfter(eq(2L), eq(0L), isNull())).thenReturn(new Checkpoint(2, Money.parse("5.00")));
+        journal.append(UUID.randomUUID(), 1L, 2L, Money.parse("5.00"));
+
+        journal.stop();
+
+        verify(entryRepository).updateAccountBalance(1L, Money.parse("-5.00"));
+        verify(entryRepository).updateAccountBalance(2L, Money.parse("5.00"));
+    }
+
+    @Test
+    void testStartingWithoutTheJournalIsRefusedWhileEntriesAreUnfolded() {
+        UncheckpointedEntriesGuard guard = new UncheckpointedEntriesGuard(entryRepository);
+        when(entryRepository.findAccountsWithUncheckpointedEntries()).thenReturn(List.of());
+        guard.check();
+
+        when(entryRepository.findAccountsWithUncheckpointedEntries()).thenReturn(List.of(7L));
+        assertThrows(IllegalStateException.class, guard::check);
+    }
+
+    @Test
+    void testGuardPassesOnADatabaseWithoutJournalTables() {
+        when(entryRepository.findAccountsWithUncheckpointedEntries()).thenThrow(new BadSqlGrammarException(
+            "findAccountsWithUncheckpointedEntries", "SELECT ...", new SQLException("Table 'account_entries' doesn't exist")));
+
+        new UncheckpointedEntriesGuard(entryRepository).check();
+    }
+
+    @Test
+    void testCreditToInactiveAccountIsRejected() {
+        when(entryRepository.lockShared(2L)).thenReturn(Optional.of("LOCKED"));
+
+        assertThrows(AccountNotActiveException.class, () -> journal.lockForCredit(2L));
+    }
+
+    @Test
+    void testCannotBeCombinedWithLedger() {
+        transferProperties.getLedger().setEnabled(true);
+
+        assertThrows(IllegalStateException.class,
+            () -> new DoubleEntryJournal(entryRepository, mock(PlatformTransactionManager.class), transferProperties));
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.moneytransfer.ledger;
+
+import com.example.moneytransfer.domain.id.TimeOrderedUuid;
+import com.example.moneytransfer.domain.money.Money;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerWalTest {
+
+    @TempDir
+    Path directory;
+
+    private static JournalEntry entry(String key) {
+        return new JournalEntry(TimeOrderedUuid.next(), 1L, 2L, Money.parse("12.34"), key,
+            Instant.parse("2024-03-01T10:15:30.123456789Z"));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void testEntriesRoundTripAndATornTailIsIgnored() throws IOException {
+        LedgerWal wal = new LedgerWal(directory, 1 << 20);
+        assertEquals(List.of(), wal.recover());
+        wal.open();
+        JournalEntry first = entry("k1");
+        JournalEntry second = entry("ключ-2");
+        wal.append(first);
+        wal.sync(wal.append(second));
+        wal.close();
+        // A crash in the middle of writing a third record
+        byte[] third = LedgerWal.encode(entry("k3")).array();
+        Files.write(segments().get(0), Arrays.copyOf(third, third.length - 3), StandardOpenOption.APPEND);
+
+        assertEquals(List.of(first, second), new LedgerWal(directory, 1 << 20).recover());
+    }
+
+    @Test
+    void testSegmentsAreReleasedOnceTheirEntriesArePersisted() throws IOException {
+        int recordSize = LedgerWal.encode(entry("k1")).remaining();
+        LedgerWal wal = new LedgerWal(directory, 2L * recordSize);
+        wal.recover();
+        wal.open();
+        long[] offsets = new long[5];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = wal.append(entry("k" + i));
+        }
+        wal.sync(offsets[4]);
+        assertEquals(3, segments().size());
+
+        wal.release(offsets[2]);
+        assertEquals(2, segments().size(), "only the first segment lies entirely before the offset");
+        wal.release(offsets[4]);
+        assertEquals(1, segments().size(), "the current segment is kept");
+        wal.close();
+
+        LedgerWal reopened = new LedgerWal(directory, 2L * recordSize);
+        assertEquals(List.of("k4"), reopened.recover().stream().map(JournalEntry::getIdempotencyKey).toList());
+        reopened.open();
+        assertEquals(List.of(directory.resolve(String.format("ledger-%020d.wal", offsets[4]))), segments());
+    }
+}
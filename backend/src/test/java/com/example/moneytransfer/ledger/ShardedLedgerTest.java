@@ -0,0 +1,202 @@
+package com.example.moneytransfer.ledger;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.exception.AccountNotActiveException;
+import com.example.moneytransfer.domain.exception.DuplicateTransferException;
+import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.idempotency.IdempotencyRegistry;
+import com.example.moneytransfer.repository.AccountRepository;
+import com.example.moneytransfer.repository.BalanceBucketRepository;
+import com.example.moneytransfer.repository.TransactionLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class ShardedLedgerTest {
+
+    @TempDir
+    Path walDirectory;
+
+    private AccountRepository accountRepository;
+    private TransactionLogRepository transactionLogRepository;
+    private TransferProperties properties;
+    private ShardedLedger ledger;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        accountRepository = mock(AccountRepository.class);
+        transactionLogRepository = mock(TransactionLogRepository.class);
+        properties = new TransferProperties();
+        properties.getLedger().setShards(2);
+        properties.getLedger().setWalDirectory(walDirectory.toString());
+
+        ledger = startLedger();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ledger.stop();
+    }
+
+    private ShardedLedger startLedger() throws IOException {
+        when(transactionLogRepository.findByIdempotencyKey(any())).thenReturn(Optional.empty());
+        when(accountRepository.findAll()).thenReturn(List.of(
+            account(1L, "100.00", AccountStatus.ACTIVE),
+            account(2L, "100.00", AccountStatus.ACTIVE),
+            account(3L, "100.00", AccountStatus.ACTIVE),
+            account(4L, "100.00", AccountStatus.CLOSED)
+        ));
+        ShardedLedger started = new ShardedLedger(accountRepository, mock(BalanceBucketRepository.class),
+            transactionLogRepository, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            mock(JdbcTemplate.class), new IdempotencyRegistry(properties), properties, Optional.empty());
+        started.start();
+        return started;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 seconds");
+            Thread.sleep(10);
+        }
+    }
+
+    private static Account account(Long id, String balance, AccountStatus status) {
+        return Account.builder().id(id).holderName("Holder " + id).balance(Money.parse(balance)).status(status).build();
+    }
+
+    @Test
+    void testSameShardTransfer() {
+        ledger.transfer(new TransferRequest(1L, 3L, Money.parse("40.00"), "k1"));
+
+        assertEquals(Money.parse("60.00"), ledger.getAccount(1L).getBalance());
+        assertEquals(Money.parse("140.00"), ledger.getAccount(3L).getBalance());
+    }
+
+    @Test
+    void testCrossShardTransfer() {
+        ledger.transfer(new TransferRequest(1L, 2L, Money.parse("40.00"), "k1"));
+
+        assertEquals(Money.parse("60.00"), ledger.getAccount(1L).getBalance());
+        assertEquals(Money.parse("140.00"), ledger.getAccount(2L).getBalance());
+    }
+
+    @Test
+    void testRejectedTransferLeavesBalancesUnchanged() {
+        assertThrows(InsufficientBalanceException.class,
+            () -> ledger.transfer(new TransferRequest(1L, 2L, Money.parse("500.00"), "k1")));
+        assertThrows(AccountNotActiveException.class,
+            () -> ledger.transfer(new TransferRequest(1L, 4L, Money.parse("10.00"), "k2")));
+
+        assertEquals(Money.parse("100.00"), ledger.getAccount(1L).getBalance());
+        assertEquals(Money.parse("100.00"), ledger.getAccount(2L).getBalance());
+    }
+
+    @Test
+    void testRepeatedIdempotencyKeyReplaysTheTransfer() throws InterruptedException {
+        TransferResponse first = ledger.transfer(new TransferRequest(1L, 2L, Money.parse("10.00"), "k1"));
+
+        assertEquals(first, ledger.transfer(new TransferRequest(1L, 2L, Money.parse("10.00"), "k1")));
+        assertThrows(DuplicateTransferException.class,
+            () -> ledger.transfer(new TransferRequest(1L, 2L, Money.parse("20.00"), "k1")));
+        assertEquals(Money.parse("90.00"), ledger.getAccount(1L).getBalance());
+
+        // Once persisted, the key is answered from the database
+        TransactionLog persisted = TransactionLog.builder()
+            .id(UUID.fromString(first.getTransactionId()))
+            .fromAccountId(1L)
+            .toAccountId(2L)
+            .amount(Money.parse("10.00"))
+            .idempotencyKey("k1")
+            .status(TransactionStatus.SUCCESS)
+            .build();
+        when(transactionLogRepository.findByIdempotencyKey("k1")).thenReturn(Optional.of(persisted));
+        await(() -> ledger.pendingJournalEntries() == 0);
+        assertEquals(first, ledger.transfer(new TransferRequest(1L, 2L, Money.parse("10.00"), "k1")));
+        ledger.transfer(new TransferRequest(1L, 2L, Money.parse("10.00"), "k2"));
+        verify(transactionLogRepository, never()).findByIdempotencyKey("k2");
+    }
+
+    @Test
+    void testAcknowledgedTransfersSurviveARestartBeforeReachingTheDatabase() throws Exception {
+        when(transactionLogRepository.saveAll(any())).thenThrow(new DataAccessResourceFailureException("down"));
+        TransferResponse response = ledger.transfer(new TransferRequest(1L, 2L, Money.parse("40.00"), "k1"));
+        ledger.stop();
+
+        transactionLogRepository = mock(TransactionLogRepository.class);
+        accountRepository = mock(AccountRepository.class);
+        ledger = startLedger();
+
+        verify(accountRepository).adjustBalance(1L, new BigDecimal("-40.00"));
+        verify(accountRepository).adjustBalance(2L, new BigDecimal("40.00"));
+        verify(transactionLogRepository).saveAll(argThat((List<TransactionLog> logs) -> logs.size() == 1
+            && logs.get(0).getId().toString().equals(response.getTransactionId())
+            && logs.get(0).getIdempotencyKey().equals("k1")));
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            assertEquals(1, files.count(), "old segments are deleted once recovered");
+        }
+    }
+
+    @Test
+    void testEntryRejectedByTheDatabaseIsQuarantined() throws Exception {
+        ledger.stop();
+        properties.getLedger().setJournalMaxAttempts(1);
+        ledger = startLedger();
+        when(transactionLogRepository.saveAll(argThat((List<TransactionLog> logs) ->
+            logs.stream().anyMatch(log -> log.getIdempotencyKey().equals("bad")))))
+            .thenThrow(new DataIntegrityViolationException("Duplicate entry 'bad'"));
+
+        ledger.transfer(new TransferRequest(1L, 2L, Money.parse("10.00"), "bad"));
+        ledger.transfer(new TransferRequest(1L, 3L, Money.parse("10.00"), "good"));
+
+        await(() -> ledger.pendingJournalEntries() == 0);
+        verify(transactionLogRepository, timeout(5000)).saveAll(argThat((List<TransactionLog> logs) ->
+            logs.size() == 1 && logs.get(0).getIdempotencyKey().equals("good")));
+        List<JournalEntry> quarantined = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(walDirectory.resolve(LedgerWal.QUARANTINE_FILE)))) {
+            LedgerWal.read(in, walDirectory, quarantined);
+        }
+        assertEquals(List.of("bad"), quarantined.stream().map(JournalEntry::getIdempotencyKey).toList());
+    }
+
+    @Test
+    void testWalDirectoryIsRequired() {
+        properties.getLedger().setWalDirectory(" ");
+
+        assertThrows(IllegalStateException.class, () -> new ShardedLedger(accountRepository,
+            mock(BalanceBucketRepository.class), transactionLogRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(JdbcTemplate.class),
+            new IdempotencyRegistry(properties), properties, Optional.empty()));
+    }
+}
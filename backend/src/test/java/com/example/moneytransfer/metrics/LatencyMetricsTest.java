@@ -0,0 +1,43 @@
+package com.example.moneytransfer.metrics;
+
+import com.example.moneytransfer.domain.dto.MethodLatencyResponse;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyMetricsTest {
+
+    @Test
+    void testPercentilesAndErrors() throws NoSuchMethodException {
+        LatencyMetrics metrics = new LatencyMetrics();
+        Method method = String.class.getMethod("length");
+
+        for (int i = 1; i <= 1000; i++) {
+            metrics.record(method, i * 1_000L, i % 100 == 0);
+        }
+
+        List<MethodLatencyResponse> snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.size());
+        MethodLatencyResponse stats = snapshot.get(0);
+        assertEquals("String.length", stats.getMethod());
+        assertEquals(1000, stats.getCount());
+        assertEquals(10, stats.getErrors());
+        assertEquals(500_000, stats.getP50Nanos(), 10_000);
+        assertEquals(990_000, stats.getP99Nanos(), 20_000);
+    }
+
+    @Test
+    void testSnapshotsAreCumulative() throws NoSuchMethodException {
+        LatencyMetrics metrics = new LatencyMetrics();
+        Method method = String.class.getMethod("length");
+
+        metrics.record(method, 100, false);
+        metrics.snapshot();
+        metrics.record(method, 200, false);
+
+        assertEquals(2, metrics.snapshot().get(0).getCount());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.moneytransfer.replica;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRouterTest {
+
+    private DataSource primary;
+    private DataSource first;
+    private DataSource second;
+    private ReplicaHeartbeat heartbeat;
+    private ReplicaRouter router;
+
+    @BeforeEach
+    void setUp() {
+        primary = mock(DataSource.class);
+        first = mock(DataSource.class);
+        second = mock(DataSource.class);
+        heartbeat = mock(ReplicaHeartbeat.class);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("first", first);
+        replicas.put("second", second);
+        router = new ReplicaRouter(primary, replicas, heartbeat, Duration.ofSeconds(1), Duration.ofSeconds(1),
+            Duration.ofSeconds(5));
+        ReplicaRouter.REPLICA_SCOPE.set(Boolean.TRUE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRouter.REPLICA_SCOPE.remove();
+        router.close();
+    }
+
+    @Test
+    void testCloseClosesReplicaPoolsButNotThePrimary() throws Exception {
+        DataSource pool = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+        ReplicaRouter closing = new ReplicaRouter(primary, Map.of("replica-0", pool), heartbeat,
+            Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ZERO);
+
+        closing.close();
+
+        verify((AutoCloseable) pool).close();
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void testReadsOutsideReplicaScopeUsePrimary() {
+        when(heartbeat.lagMillis(any())).thenReturn(10L);
+        router.checkReplicas();
+        ReplicaRouter.REPLICA_SCOPE.remove();
+
+        assertSame(primary, router.route());
+        verify(heartbeat).beat(primary);
+    }
+
+    @Test
+    void testUsableReplicasTakeReadsInTurn() {
+        when(heartbeat.lagMillis(any())).thenReturn(10L);
+        router.checkReplicas();
+
+        DataSource a = router.route();
+        DataSource b = router.route();
+
+        assertNotSame(primary, a);
+        assertNotSame(primary, b);
+        assertNotSame(a, b);
+        assertEquals(2, router.stats().getReplicaReads());
+    }
+
+    @Test
+    void testLaggingOrFailingReplicaFallsBackToPrimary() {
+        when(heartbeat.lagMillis(first)).thenReturn(5_000L);
+        when(heartbeat.lagMillis(second)).thenThrow(new DataAccessResourceFailureException("connection refused"));
+        router.checkReplicas();
+
+        assertSame(primary, router.route());
+        assertEquals(1, router.stats().getPrimaryFallbacks());
+        assertEquals("connection refused", router.stats().getReplicas().get(1).getLastError());
+
+        // A replica without a heartbeat row is not used either
+        when(heartbeat.lagMillis(first)).thenReturn(-1L);
+        router.checkReplicas();
+        assertSame(primary, router.route());
+    }
+
+    @Test
+    void testReadWriteTransactionsStayOnPrimary() {
+        when(heartbeat.lagMillis(any())).thenReturn(10L);
+        router.checkReplicas();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertSame(primary, router.route());
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertNotSame(primary, router.route());
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void testWritingClientIsPinnedForTheConfiguredWindow() {
+        assertFalse(router.isPinned("admin"));
+        router.pin("admin");
+        assertTrue(router.isPinned("admin"));
+        assertFalse(router.isPinned("other"));
+
+        ReplicaRouter unpinned = new ReplicaRouter(primary, Map.of("first", first), heartbeat,
+            Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ZERO);
+        unpinned.pin("admin");
+        assertFalse(unpinned.isPinned("admin"));
+        unpinned.close();
+    }
+
+    @Test
+    void testWriteRequestPinsBeforeTheHandlerWrites() {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(router);
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/v1/accounts/1");
+        read.setUserPrincipal(() -> "reader");
+        MockHttpServletRequest write = new MockHttpServletRequest("POST", "/api/v1/transfers");
+        write.setUserPrincipal(() -> "writer");
+
+        assertTrue(interceptor.preHandle(read, new MockHttpServletResponse(), new Object()));
+        assertTrue(interceptor.preHandle(write, new MockHttpServletResponse(), new Object()));
+
+        assertFalse(router.isPinned("reader"));
+        assertTrue(router.isPinned("writer"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.moneytransfer.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        TransactionCursor cursor = new TransactionCursor(
+            Instant.parse("2024-01-15T10:30:00Z"), "0b8f7a4e-3f0e-4c57-9d1a-6f3b2f1e9c42");
+
+        assertEquals(cursor, TransactionCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void testInvalidCursorRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> TransactionCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.moneytransfer.repository;
+
+import com.example.moneytransfer.domain.dto.TransactionResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransactionHistoryRepositoryTest {
+
+    private static List<TransactionResponse> rows(int count, Instant newest) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> TransactionResponse.builder()
+                .id(UUID.randomUUID().toString())
+                .createdOn(newest.minusSeconds(i))
+                .build())
+            .toList();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamReadsKeysetPagesUntilAShortPage() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        Instant now = Instant.parse("2024-01-15T10:30:00Z");
+        List<TransactionResponse> first = rows(500, now);
+        List<TransactionResponse> second = rows(3, now.minusSeconds(500));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+            .thenReturn(first, second);
+
+        List<TransactionResponse> streamed = new ArrayList<>();
+        new TransactionHistoryRepository(jdbcTemplate).stream(7L, streamed::add);
+
+        assertEquals(503, streamed.size());
+        assertEquals(second.get(2), streamed.get(502));
+        // The second page continues after the last row of the first
+        TransactionResponse last = first.get(499);
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class),
+            eq(7L), eq(Timestamp.from(last.getCreatedOn())), eq(Timestamp.from(last.getCreatedOn())), any(byte[].class),
+            eq(500), eq(7L), any(Timestamp.class), any(Timestamp.class), any(byte[].class), eq(500), eq(500));
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.moneytransfer.rollup;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.AccountRollupRepository;
+import com.example.moneytransfer.repository.AccountRollupRepository.Increment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccountRollupsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private AccountRollupRepository rollupRepository;
+    private AccountRollups accountRollups;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(AccountRollupRepository.class);
+        TransferProperties properties = new TransferProperties();
+        properties.getRollups().setCreditStripes(4);
+        accountRollups = new AccountRollups(rollupRepository, properties);
+    }
+
+    private static TransactionLog log(Long from, Long to, String amount, String createdOn) {
+        return TransactionLog.builder()
+            .fromAccountId(from)
+            .toAccountId(to)
+            .amount(Money.parse(amount))
+            .status(TransactionStatus.SUCCESS)
+            .createdOn(Instant.parse(createdOn))
+            .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Increment> written() {
+        ArgumentCaptor<List<Increment>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupRepository).add(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void testRecordAllNetsTransfersPerAccountAndDayInKeyOrder() {
+        accountRollups.recordAll(List.of(
+            log(2L, 1L, "10.00", "2024-03-01T08:00:00Z"),
+            log(1L, 2L, "2.50", "2024-03-01T09:00:00Z"),
+            log(2L, 1L, "5.00", "2024-03-01T23:59:59Z")));
+
+        assertEquals(List.of(
+            new Increment(1L, DAY, 0, Money.parse("15.00"), 2, Money.parse("2.50"), 1),
+            new Increment(2L, DAY, 0, Money.parse("2.50"), 1, Money.parse("15.00"), 2)
+        ), written());
+    }
+
+    @Test
+    void testDaysAreUtcDaysOfCreation() {
+        accountRollups.recordAll(List.of(
+            log(1L, 2L, "1.00", "2024-02-29T23:59:59.999Z"),
+            log(1L, 2L, "1.00", "2024-03-01T00:00:00Z")));
+
+        List<LocalDate> days = written().stream().filter(i -> i.accountId() == 1L).map(Increment::date).toList();
+        assertEquals(List.of(DAY.minusDays(1), DAY), days);
+    }
+
+    @Test
+    void testUnlockedCreditGoesToANonZeroStripe() {
+        accountRollups.record(log(1L, 2L, "3.00", "2024-03-01T12:00:00Z"), false);
+
+        List<Increment> increments = written();
+        assertEquals(0, increments.get(0).stripe());
+        int creditStripe = increments.get(1).stripe();
+        assertTrue(creditStripe >= 1 && creditStripe <= 4);
+        assertEquals(Money.parse("3.00"), increments.get(1).credited());
+    }
+}
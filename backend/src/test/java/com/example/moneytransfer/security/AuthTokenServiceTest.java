@@ -0,0 +1,57 @@
+package com.example.moneytransfer.security;
+
+import com.example.moneytransfer.config.TransferProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T12:00:00Z");
+
+    private TransferProperties transferProperties;
+
+    @BeforeEach
+    void setUp() {
+        transferProperties = new TransferProperties();
+        transferProperties.getAuth().setTokenSecret("0123456789abcdef0123456789abcdef");
+        transferProperties.getAuth().setTokenTtl(Duration.ofMinutes(15));
+    }
+
+    private AuthTokenService at(Instant now) {
+        return new AuthTokenService(transferProperties, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testTokenIsAcceptedByAnyNodeWithTheSameSecretUntilItExpires() {
+        String token = at(NOW).issue("admin.user").getToken();
+
+        assertEquals(Optional.of("admin.user"), at(NOW.plusSeconds(899)).verify(token));
+        assertEquals(Optional.empty(), at(NOW.plusSeconds(900)).verify(token));
+    }
+
+    @Test
+    void testTamperedOrForeignTokensAreRejected() {
+        AuthTokenService service = at(NOW);
+        String token = service.issue("admin").getToken();
+        String[] parts = token.split("\\.");
+
+        assertTrue(service.verify(parts[0] + "." + (Long.parseLong(parts[1]) + 3600) + "." + parts[2]).isEmpty());
+        assertTrue(service.verify("YWRtaW5pc3RyYXRvcg." + parts[1] + "." + parts[2]).isEmpty());
+        assertTrue(service.verify("garbage").isEmpty());
+        assertTrue(service.verify("a.b.!!").isEmpty());
+
+        transferProperties.getAuth().setTokenSecret("another-secret-another-secret-0123");
+        assertTrue(at(NOW).verify(token).isEmpty());
+
+        transferProperties.getAuth().setTokenSecret("too-short");
+        assertThrows(IllegalStateException.class, () -> at(NOW));
+    }
+}
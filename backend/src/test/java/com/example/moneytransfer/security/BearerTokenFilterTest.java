@@ -0,0 +1,64 @@
+package com.example.moneytransfer.security;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BearerTokenFilterTest {
+
+    private BearerTokenFilter filter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        TransferProperties transferProperties = new TransferProperties();
+        transferProperties.getAuth().setTokenSecret("0123456789abcdef0123456789abcdef");
+        AuthTokenService authTokenService = new AuthTokenService(transferProperties);
+        filter = new BearerTokenFilter(authTokenService,
+            new InMemoryUserDetailsManager(User.withUsername("admin").password("{noop}x").roles("USER").build()),
+            new ObjectMapper());
+        token = authTokenService.issue("admin").getToken();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    @Test
+    void testValidTokenAuthenticatesTheRequest() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("GET", "/api/v1/accounts/1"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals("admin", SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    @Test
+    void testTokenCannotBeUsedToIssueAnotherToken() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("POST", BearerTokenFilter.TOKEN_PATH), response, chain);
+
+        assertEquals(403, response.getStatus());
+        assertNull(chain.getRequest(), "the controller must not be reached");
+    }
+}
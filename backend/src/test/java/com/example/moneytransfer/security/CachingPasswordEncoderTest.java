@@ -0,0 +1,64 @@
+package com.example.moneytransfer.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingPasswordEncoderTest {
+
+    private PasswordEncoder delegate;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(PasswordEncoder.class);
+        when(delegate.matches("secret", "hash")).thenReturn(true);
+        when(delegate.matches("secret", "new-hash")).thenReturn(false);
+        when(delegate.matches("wrong", "hash")).thenReturn(false);
+    }
+
+    @Test
+    void testVerifiedCredentialSkipsTheDelegateUntilItExpires() throws InterruptedException {
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, 10, Duration.ofMinutes(5));
+
+        assertTrue(encoder.matches("secret", "hash"));
+        assertTrue(encoder.matches("secret", "hash"));
+        assertTrue(encoder.matches(new StringBuilder("secret"), "hash"));
+        verify(delegate, times(1)).matches("secret", "hash");
+
+        CachingPasswordEncoder shortLived = new CachingPasswordEncoder(delegate, 10, Duration.ofMillis(1));
+        shortLived.matches("secret", "hash");
+        Thread.sleep(5);
+        shortLived.matches("secret", "hash");
+        verify(delegate, times(3)).matches("secret", "hash");
+    }
+
+    @Test
+    void testFailuresAndChangedHashesAlwaysReachTheDelegate() {
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, 10, Duration.ofMinutes(5));
+        encoder.matches("secret", "hash");
+
+        assertFalse(encoder.matches("wrong", "hash"));
+        assertFalse(encoder.matches("wrong", "hash"));
+        verify(delegate, times(2)).matches("wrong", "hash");
+
+        // The remembered credential does not carry over to a new password hash
+        assertFalse(encoder.matches("secret", "new-hash"));
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, 1, Duration.ofMinutes(5));
+        when(delegate.matches("other", "other-hash")).thenReturn(true);
+
+        encoder.matches("secret", "hash");
+        encoder.matches("other", "other-hash");
+        encoder.matches("secret", "hash");
+
+        verify(delegate, times(2)).matches("secret", "hash");
+    }
+}
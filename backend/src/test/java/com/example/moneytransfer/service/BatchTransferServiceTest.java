@@ -0,0 +1,153 @@
+package com.example.moneytransfer.service;
+
+import com.example.moneytransfer.balance.HotAccountBalances;
+import com.example.moneytransfer.cache.AccountCache;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.idempotency.IdempotencyRegistry;
+import com.example.moneytransfer.repository.AccountRepository;
+import com.example.moneytransfer.repository.BalanceBucketRepository;
+import com.example.moneytransfer.repository.TransactionLogRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BatchTransferServiceTest {
+
+    private AccountRepository accountRepository;
+    private TransactionLogRepository transactionLogRepository;
+    private BalanceBucketRepository balanceBucketRepository;
+    private TransferProperties transferProperties;
+    private TransferService transferService;
+    private BatchTransferService batchTransferService;
+    private Account first;
+    private Account second;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        transactionLogRepository = mock(TransactionLogRepository.class);
+        balanceBucketRepository = mock(BalanceBucketRepository.class);
+        transferProperties = new TransferProperties();
+        transferService = mock(TransferService.class);
+
+        first = Account.builder().id(1L).holderName("A").balance(Money.parse("100.00")).status(AccountStatus.ACTIVE).build();
+        second = Account.builder().id(2L).holderName("B").balance(Money.parse("100.00")).status(AccountStatus.ACTIVE).build();
+        when(accountRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(first, second));
+        when(transactionLogRepository.findByIdempotencyKeyIn(anyCollection())).thenReturn(List.of());
+
+        batchTransferService = new BatchTransferService(
+            accountRepository,
+            transactionLogRepository,
+            transferService,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            transferProperties,
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            new IdempotencyRegistry(transferProperties),
+            new AccountCache(transferProperties),
+            new HotAccountBalances(balanceBucketRepository, transferProperties),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty()
+        );
+    }
+
+    @Test
+    void testFailedItemsDoNotFailTheBatch() {
+        List<TransferResponse> responses = batchTransferService.transferBatch(List.of(
+            new TransferRequest(1L, 2L, Money.parse("30.00"), "k1"),
+            new TransferRequest(1L, 2L, Money.parse("500.00"), "k2"),
+            new TransferRequest(1L, 2L, Money.parse("10.00"), "k1"),
+            new TransferRequest(1L, 2L, null, "k3"),
+            new TransferRequest(2L, 1L, Money.parse("5.00"), "k4")
+        ));
+
+        assertEquals(List.of("SUCCESS", "FAILED", "FAILED", "FAILED", "SUCCESS"),
+            responses.stream().map(TransferResponse::getStatus).toList());
+        assertEquals(Money.parse("75.00"), first.getBalance());
+        assertEquals(Money.parse("125.00"), second.getBalance());
+    }
+
+    @Test
+    void testRepeatedKeysReplayTheOriginalTransfer() {
+        TransactionLog committed = TransactionLog.builder()
+            .id(UUID.randomUUID())
+            .fromAccountId(1L)
+            .toAccountId(2L)
+            .amount(Money.parse("20.00"))
+            .idempotencyKey("k0")
+            .status(TransactionStatus.SUCCESS)
+            .build();
+        when(transactionLogRepository.findByIdempotencyKeyIn(anyCollection())).thenReturn(List.of(committed));
+
+        List<TransferResponse> responses = batchTransferService.transferBatch(List.of(
+            new TransferRequest(1L, 2L, Money.parse("20.00"), "k0"),
+            new TransferRequest(1L, 2L, Money.parse("30.00"), "k1"),
+            new TransferRequest(1L, 2L, Money.parse("30.00"), "k1")
+        ));
+
+        assertEquals(List.of("SUCCESS", "SUCCESS", "SUCCESS"),
+            responses.stream().map(TransferResponse::getStatus).toList());
+        assertEquals(committed.getId().toString(), responses.get(0).getTransactionId());
+        assertEquals(responses.get(1).getTransactionId(), responses.get(2).getTransactionId());
+        // Only the one new transfer moved money
+        assertEquals(Money.parse("70.00"), first.getBalance());
+        assertEquals(Money.parse("130.00"), second.getBalance());
+    }
+
+    @Test
+    void testRequestsAreProcessedInChunks() {
+        transferProperties.getBatch().setChunkSize(2);
+
+        batchTransferService.transferBatch(List.of(
+            new TransferRequest(1L, 2L, Money.parse("1.00"), "k1"),
+            new TransferRequest(1L, 2L, Money.parse("1.00"), "k2"),
+            new TransferRequest(1L, 2L, Money.parse("1.00"), "k3")
+        ));
+
+        verify(accountRepository, times(2)).findAllByIdForUpdate(anyCollection());
+        verify(transactionLogRepository, times(2)).saveAll(any());
+    }
+
+    @Test
+    void testFailedBucketWriteFallsBackToSingleTransfers() {
+        second.setBalanceBuckets(4);
+        when(balanceBucketRepository.credit(eq(2L), anyInt(), any(Money.class)))
+            .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+        when(transferService.transfer(any(TransferRequest.class))).thenAnswer(invocation -> {
+            TransferRequest request = invocation.getArgument(0);
+            return TransferResponse.builder().status("SUCCESS").amount(request.getAmount()).build();
+        });
+        List<TransferRequest> requests = List.of(
+            new TransferRequest(1L, 2L, Money.parse("30.00"), "k1"),
+            new TransferRequest(2L, 1L, Money.parse("5.00"), "k2"));
+
+        List<TransferResponse> responses = batchTransferService.transferBatch(requests);
+
+        assertEquals(List.of("SUCCESS", "SUCCESS"), responses.stream().map(TransferResponse::getStatus).toList());
+        verify(transferService).transfer(requests.get(0));
+        verify(transferService).transfer(requests.get(1));
+        verify(transactionLogRepository, never()).saveAll(any());
+    }
+}
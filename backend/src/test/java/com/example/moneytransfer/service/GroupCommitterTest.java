@@ -0,0 +1,157 @@
+package com.example.moneytransfer.service;
+
+import com.example.moneytransfer.balance.HotAccountBalances;
+import com.example.moneytransfer.cache.AccountCache;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.exception.TransferConflictException;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.idempotency.IdempotencyRegistry;
+import com.example.moneytransfer.repository.AccountRepository;
+import com.example.moneytransfer.repository.BalanceBucketRepository;
+import com.example.moneytransfer.repository.TransactionLogRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GroupCommitterTest {
+
+    private AccountRepository accountRepository;
+    private TransactionLogRepository transactionLogRepository;
+    private BalanceBucketRepository bucketRepository;
+    private GroupCommitter groupCommitter;
+    private ExecutorService callers;
+    private Account first;
+    private Account second;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        transactionLogRepository = mock(TransactionLogRepository.class);
+        bucketRepository = mock(BalanceBucketRepository.class);
+        TransferProperties transferProperties = new TransferProperties();
+        transferProperties.getGroupCommit().setMaxSize(3);
+        transferProperties.getGroupCommit().setMaxWait(Duration.ofSeconds(5));
+
+        first = Account.builder().id(1L).holderName("A").balance(Money.parse("100.00")).status(AccountStatus.ACTIVE).build();
+        second = Account.builder().id(2L).holderName("B").balance(Money.parse("100.00")).status(AccountStatus.ACTIVE).build();
+        when(accountRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(first, second));
+        when(transactionLogRepository.findByIdempotencyKeyIn(anyCollection())).thenReturn(List.of());
+
+        groupCommitter = new GroupCommitter(
+            accountRepository,
+            transactionLogRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            new IdempotencyRegistry(transferProperties),
+            new AccountCache(transferProperties),
+            new HotAccountBalances(bucketRepository, transferProperties),
+            Optional.empty(),
+            transferProperties
+        );
+        groupCommitter.start();
+        callers = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        callers.shutdownNow();
+        groupCommitter.stop();
+    }
+
+    @Test
+    void testConcurrentTransfersShareOneTransactionAndFailIndividually() throws Exception {
+        Future<TransferResponse> ok = callers.submit(() ->
+            groupCommitter.submit(new TransferRequest(1L, 2L, Money.parse("30.00"), "g1"), null));
+        Future<TransferResponse> rejected = callers.submit(() ->
+            groupCommitter.submit(new TransferRequest(1L, 2L, Money.parse("500.00"), "g2"), null));
+        Future<TransferResponse> reverse = callers.submit(() ->
+            groupCommitter.submit(new TransferRequest(2L, 1L, Money.parse("5.00"), "g3"), null));
+
+        assertEquals("SUCCESS", ok.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals("SUCCESS", reverse.get(5, TimeUnit.SECONDS).getStatus());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(InsufficientBalanceException.class, failure.getCause());
+
+        assertEquals(Money.parse("75.00"), first.getBalance());
+        assertEquals(Money.parse("125.00"), second.getBalance());
+        verify(accountRepository, times(1)).findAllByIdForUpdate(anyCollection());
+        verify(transactionLogRepository, times(1)).saveAll(anyCollection());
+    }
+
+    @Test
+    void testFailedBucketWriteRollsBackTheGroupAndRetriesEachTransfer() throws Exception {
+        // Every transaction loads its own copies of the rows
+        when(accountRepository.findAllByIdForUpdate(anyCollection())).thenAnswer(invocation -> List.of(
+            Account.builder().id(1L).holderName("A").balance(Money.parse("100.00")).status(AccountStatus.ACTIVE).build(),
+            Account.builder().id(2L).holderName("B").balance(Money.parse("100.00")).status(AccountStatus.ACTIVE)
+                .balanceBuckets(4).build()));
+        when(bucketRepository.credit(eq(2L), anyInt(), any(Money.class)))
+            .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"))
+            .thenReturn(1);
+
+        List<Future<TransferResponse>> results = List.of(
+            callers.submit(() -> groupCommitter.submit(new TransferRequest(1L, 2L, Money.parse("10.00"), "h1"), null)),
+            callers.submit(() -> groupCommitter.submit(new TransferRequest(1L, 2L, Money.parse("10.00"), "h2"), null)),
+            callers.submit(() -> groupCommitter.submit(new TransferRequest(1L, 2L, Money.parse("10.00"), "h3"), null)));
+
+        for (Future<TransferResponse> result : results) {
+            assertEquals("SUCCESS", result.get(5, TimeUnit.SECONDS).getStatus());
+        }
+        // The failed group saved nothing; each transfer was then committed on its own
+        verify(transactionLogRepository, times(3)).saveAll(anyCollection());
+        verify(bucketRepository, times(4)).credit(eq(2L), anyInt(), any(Money.class));
+    }
+
+    @Test
+    void testTransferAppliedAloneIsRetriedOnDeadlock() throws Exception {
+        when(accountRepository.findAllByIdForUpdate(anyCollection())).thenAnswer(invocation -> List.of(
+            Account.builder().id(1L).holderName("A").balance(Money.parse("100.00")).status(AccountStatus.ACTIVE).build(),
+            Account.builder().id(2L).holderName("B").balance(Money.parse("100.00")).status(AccountStatus.ACTIVE).build()));
+        // The group fails, then the first transfer applied alone deadlocks once more
+        when(transactionLogRepository.saveAll(anyCollection()))
+            .thenThrow(new CannotAcquireLockException("Deadlock found"))
+            .thenThrow(new CannotAcquireLockException("Deadlock found"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Future<TransferResponse>> results = List.of(
+            callers.submit(() -> groupCommitter.submit(new TransferRequest(1L, 2L, Money.parse("10.00"), "d1"), null)),
+            callers.submit(() -> groupCommitter.submit(new TransferRequest(1L, 2L, Money.parse("10.00"), "d2"), null)),
+            callers.submit(() -> groupCommitter.submit(new TransferRequest(1L, 2L, Money.parse("10.00"), "d3"), null)));
+
+        for (Future<TransferResponse> result : results) {
+            assertEquals("SUCCESS", result.get(5, TimeUnit.SECONDS).getStatus());
+        }
+        verify(transactionLogRepository, times(5)).saveAll(anyCollection());
+    }
+
+    @Test
+    void testSubmitIsRefusedOnceStopped() throws InterruptedException {
+        groupCommitter.stop();
+
+        assertThrows(TransferConflictException.class,
+            () -> groupCommitter.submit(new TransferRequest(1L, 2L, Money.parse("10.00"), "s1"), null));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.moneytransfer.service;
+
+import com.example.moneytransfer.cache.AccountCache;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.ImportResultResponse;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.BalanceBucketRepository;
+import com.example.moneytransfer.repository.LedgerImportRepository;
+import com.example.moneytransfer.repository.LedgerImportRepository.AccountState;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class LedgerImportServiceTest {
+
+    private LedgerImportRepository ledgerImportRepository;
+    private BalanceBucketRepository bucketRepository;
+    private LedgerImportService ledgerImportService;
+
+    @BeforeEach
+    void setUp() {
+        ledgerImportRepository = mock(LedgerImportRepository.class);
+        bucketRepository = mock(BalanceBucketRepository.class);
+        TransferProperties transferProperties = new TransferProperties();
+
+        when(ledgerImportRepository.findExistingKeys(anyCollection())).thenReturn(new HashSet<>(List.of("done")));
+        when(ledgerImportRepository.lockAccounts(anyCollection())).thenReturn(Map.of(
+            1L, new AccountState(Money.parse("100.00"), AccountStatus.ACTIVE, false),
+            2L, new AccountState(Money.parse("0.00"), AccountStatus.ACTIVE, false),
+            3L, new AccountState(Money.parse("50.00"), AccountStatus.ACTIVE, false),
+            4L, new AccountState(Money.parse("10.00"), AccountStatus.ACTIVE, true)));
+        when(bucketRepository.sumBalance(4L)).thenReturn(Money.parse("40.00"));
+        when(bucketRepository.drain(4L)).thenReturn(Money.parse("40.00"));
+
+        ledgerImportService = new LedgerImportService(
+            ledgerImportRepository,
+            bucketRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            transferProperties,
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            new AccountCache(transferProperties),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty()
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testImportNetsBalanceChangesPerAccount() throws Exception {
+        String csv = String.join("\n",
+            "fromAccountId,toAccountId,amount,idempotencyKey",
+            "1,2,60.00,a",
+            "2,3,50.00,b",
+            "1,2,60.00,c",
+            "3,1,0.00,d",
+            "1,2,10.00,done",
+            "1,2,10.00,a",
+            "3,2,20.00,e");
+
+        ImportResultResponse result = ledgerImportService.importTransfers(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(7, result.getLines());
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(2, result.getRejected());
+        assertTrue(result.getErrors().stream().anyMatch(error -> error.startsWith("line 4: Insufficient balance")));
+
+        ArgumentCaptor<List<TransactionLog>> logs = ArgumentCaptor.forClass(List.class);
+        verify(ledgerImportRepository).insertLogs(logs.capture());
+        assertEquals(List.of("a", "b", "e"), logs.getValue().stream().map(TransactionLog::getIdempotencyKey).toList());
+
+        ArgumentCaptor<Map<Long, Money>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(ledgerImportRepository).applyDeltas(deltas.capture());
+        assertEquals(Map.of(1L, Money.parse("-60.00"), 2L, Money.parse("30.00"), 3L, Money.parse("30.00")),
+            deltas.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testHotSourceBucketsAreDrainedOnceTheRowFallsShort() throws Exception {
+        String csv = String.join("\n",
+            "4,2,5.00,a",
+            "4,2,30.00,b",
+            "4,2,20.00,c");
+
+        ImportResultResponse result = ledgerImportService.importTransfers(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getImported());
+        assertTrue(result.getErrors().stream().anyMatch(error -> error.startsWith("line 3: Insufficient balance")));
+        verify(bucketRepository, times(1)).drain(4L);
+        ArgumentCaptor<Map<Long, Money>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(ledgerImportRepository).applyDeltas(deltas.capture());
+        // 40.00 moved from the buckets, 35.00 debited: the row ends at 15.00 and never goes negative
+        assertEquals(Map.of(4L, Money.parse("5.00"), 2L, Money.parse("35.00")), deltas.getValue());
+    }
+}
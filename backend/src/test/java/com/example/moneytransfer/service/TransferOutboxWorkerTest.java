@@ -0,0 +1,137 @@
+package com.example.moneytransfer.service;
+
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.entity.TransactionLog;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.exception.TransferConflictException;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.OutboxEntry;
+import com.example.moneytransfer.repository.TransactionLogRepository;
+import com.example.moneytransfer.repository.TransferOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransferOutboxWorkerTest {
+
+    private TransferService transferService;
+    private TransferOutboxRepository outboxRepository;
+    private TransactionLogRepository transactionLogRepository;
+    private TransferOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        transferService = mock(TransferService.class);
+        outboxRepository = mock(TransferOutboxRepository.class);
+        transactionLogRepository = mock(TransactionLogRepository.class);
+        TransferProperties transferProperties = new TransferProperties();
+        transferProperties.getOutbox().setMaxAttempts(2);
+        worker = new TransferOutboxWorker(transferService, outboxRepository, transactionLogRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), transferProperties);
+    }
+
+    private static OutboxEntry entry(int attempts) {
+        return OutboxEntry.builder()
+            .id(UUID.randomUUID())
+            .fromAccountId(1L)
+            .toAccountId(2L)
+            .amount(Money.parse("10.00"))
+            .idempotencyKey("async-1")
+            .status(TransactionStatus.PENDING)
+            .attempts(attempts)
+            .createdOn(Instant.now())
+            .build();
+    }
+
+    @Test
+    void testSuccessfulTransferRunsUnderOutboxIdAndCompletes() {
+        OutboxEntry entry = entry(1);
+        when(transferService.transfer(any(), eq(entry.getId()))).thenReturn(TransferResponse.builder()
+            .transactionId(entry.getId().toString())
+            .status(TransactionStatus.SUCCESS.name())
+            .build());
+
+        worker.process(entry);
+
+        verify(outboxRepository).complete(entry.getId(), TransactionStatus.SUCCESS, null);
+        verify(transactionLogRepository, never()).save(any());
+    }
+
+    @Test
+    void testReclaimedEntryWhoseTransferAlreadyRanCompletesWithTheReplay() {
+        // The lease ran out after the transfer went through; the retry is replayed under the same key
+        OutboxEntry entry = entry(2);
+        when(transferService.transfer(any(), eq(entry.getId()))).thenReturn(TransferResponse.builder()
+            .transactionId(entry.getId().toString())
+            .status(TransactionStatus.SUCCESS.name())
+            .message("Transfer completed successfully")
+            .build());
+
+        worker.process(entry);
+
+        verify(outboxRepository).complete(entry.getId(), TransactionStatus.SUCCESS, null);
+    }
+
+    @Test
+    void testBusinessRejectionFailsImmediately() {
+        OutboxEntry entry = entry(1);
+        when(transferService.transfer(any(), any())).thenThrow(new InsufficientBalanceException("Insufficient balance"));
+
+        worker.process(entry);
+
+        verify(outboxRepository).complete(entry.getId(), TransactionStatus.FAILED, "Insufficient balance");
+        verify(outboxRepository, never()).release(any(), any());
+    }
+
+    @Test
+    void testFinalFailureOutlivesTheOutboxEntryAsATransactionLog() {
+        OutboxEntry entry = entry(1);
+        when(transferService.transfer(any(), any())).thenThrow(new InsufficientBalanceException("Insufficient balance"));
+
+        worker.process(entry);
+
+        ArgumentCaptor<TransactionLog> logged = ArgumentCaptor.forClass(TransactionLog.class);
+        verify(transactionLogRepository).save(logged.capture());
+        assertEquals(entry.getId(), logged.getValue().getId());
+        assertEquals("async-1", logged.getValue().getIdempotencyKey());
+        assertEquals(TransactionStatus.FAILED, logged.getValue().getStatus());
+        assertEquals("Insufficient balance", logged.getValue().getFailureReason());
+    }
+
+    @Test
+    void testFailureThatCannotBeLoggedStillCompletesTheEntry() {
+        OutboxEntry entry = entry(1);
+        when(transferService.transfer(any(), any())).thenThrow(new InsufficientBalanceException("Insufficient balance"));
+        when(transactionLogRepository.save(any())).thenThrow(new DataIntegrityViolationException("fk"));
+
+        worker.process(entry);
+
+        verify(outboxRepository).complete(entry.getId(), TransactionStatus.FAILED, "Insufficient balance");
+    }
+
+    @Test
+    void testConflictIsRetriedUntilAttemptsAreExhausted() {
+        when(transferService.transfer(any(), any())).thenThrow(new TransferConflictException("conflict"));
+
+        OutboxEntry first = entry(1);
+        worker.process(first);
+        verify(outboxRepository).release(eq(first.getId()), any());
+
+        OutboxEntry last = entry(2);
+        worker.process(last);
+        verify(outboxRepository).complete(last.getId(), TransactionStatus.FAILED, "conflict");
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.moneytransfer.service;
+
+import com.example.moneytransfer.balance.HotAccountBalances;
+import com.example.moneytransfer.cache.AccountCache;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.directory.AccountDirectory;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.exception.AccountNotActiveException;
+import com.example.moneytransfer.domain.exception.DuplicateTransferException;
+import com.example.moneytransfer.domain.exception.InsufficientBalanceException;
+import com.example.moneytransfer.domain.exception.TransferConflictException;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.idempotency.IdempotencyRegistry;
+import com.example.moneytransfer.journal.DoubleEntryJournal;
+import com.example.moneytransfer.repository.AccountRepository;
+import com.example.moneytransfer.repository.BalanceBucketRepository;
+import com.example.moneytransfer.repository.TransactionLogRepository;
+import com.example.moneytransfer.rollup.AccountRollups;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransferServiceTest {
+
+    private AccountRepository accountRepository;
+    private TransactionLogRepository transactionLogRepository;
+    private BalanceBucketRepository balanceBucketRepository;
+    private AccountRollups accountRollups;
+    private TransferProperties transferProperties;
+    private AccountDirectory accountDirectory;
+    private TransferService transferService;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository = mock(AccountRepository.class);
+        transactionLogRepository = mock(TransactionLogRepository.class);
+        balanceBucketRepository = mock(BalanceBucketRepository.class);
+        accountRollups = mock(AccountRollups.class);
+        transferProperties = new TransferProperties();
+        transferProperties.getRetry().setBackoff(Duration.ZERO);
+        accountDirectory = new AccountDirectory(mock(JdbcTemplate.class), transferProperties);
+
+        when(transactionLogRepository.findByIdempotencyKey(any())).thenReturn(Optional.empty());
+        when(transactionLogRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        transferService = new TransferService(
+            accountRepository,
+            transactionLogRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            transferProperties,
+            new IdempotencyRegistry(transferProperties),
+            new AccountCache(transferProperties),
+            new HotAccountBalances(balanceBucketRepository, transferProperties),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.of(accountRollups),
+            Optional.empty(),
+            Optional.of(accountDirectory)
+        );
+    }
+
+    private static Account account(Long id, String balance) {
+        return Account.builder()
+            .id(id)
+            .holderName("Holder " + id)
+            .balance(Money.parse(balance))
+            .status(AccountStatus.ACTIVE)
+            .version(0)
+            .build();
+    }
+
+    private static TransferRequest request(Long from, Long to, String amount) {
+        return new TransferRequest(from, to, Money.parse(amount), "key-" + from + "-" + to);
+    }
+
+    @Test
+    void testLocksAccountsInAscendingIdOrder() {
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account(1L, "100.00")));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(account(2L, "100.00")));
+
+        transferService.transfer(request(2L, 1L, "10.00"));
+
+        InOrder inOrder = inOrder(accountRepository);
+        inOrder.verify(accountRepository).findByIdForUpdate(1L);
+        inOrder.verify(accountRepository).findByIdForUpdate(2L);
+    }
+
+    @Test
+    void testLoadsEachAccountOnce() {
+        Account from = account(1L, "100.00");
+        Account to = account(2L, "50.00");
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(from));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(to));
+
+        TransferResponse response = transferService.transfer(request(1L, 2L, "25.00"));
+
+        assertEquals("SUCCESS", response.getStatus());
+        assertEquals(Money.parse("75.00"), from.getBalance());
+        assertEquals(Money.parse("75.00"), to.getBalance());
+        verify(accountRepository, times(2)).findByIdForUpdate(anyLong());
+        verify(accountRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testRetriesOnOptimisticLockConflict() {
+        when(accountRepository.findByIdForUpdate(1L))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L))
+            .thenReturn(Optional.of(account(1L, "100.00")));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(account(2L, "0.00")));
+
+        TransferResponse response = transferService.transfer(request(1L, 2L, "10.00"));
+
+        assertEquals("SUCCESS", response.getStatus());
+        verify(accountRepository, times(2)).findByIdForUpdate(1L);
+    }
+
+    @Test
+    void testConflictSurfacedAfterRetryBudgetExhausted() {
+        transferProperties.getRetry().setMaxAttempts(2);
+        when(accountRepository.findByIdForUpdate(1L))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Account.class, 1L));
+
+        assertThrows(TransferConflictException.class, () -> transferService.transfer(request(1L, 2L, "10.00")));
+        verify(accountRepository, times(2)).findByIdForUpdate(1L);
+    }
+
+    @Test
+    void testNewIdempotencyKeySkipsDatabaseLookup() {
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account(1L, "100.00")));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(account(2L, "100.00")));
+
+        transferService.transfer(request(1L, 2L, "10.00"));
+
+        verify(transactionLogRepository, never()).findByIdempotencyKey(any());
+    }
+
+    @Test
+    void testRetryReplaysOriginalResponse() {
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account(1L, "100.00")));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(account(2L, "100.00")));
+
+        TransferResponse original = transferService.transfer(request(1L, 2L, "10.00"));
+        TransferResponse replayed = transferService.transfer(request(1L, 2L, "10.00"));
+
+        assertEquals(original.getTransactionId(), replayed.getTransactionId());
+        verify(accountRepository, times(1)).findByIdForUpdate(1L);
+    }
+
+    @Test
+    void testReusedKeyWithDifferentPayloadRejected() {
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account(1L, "100.00")));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(account(2L, "100.00")));
+
+        transferService.transfer(request(1L, 2L, "10.00"));
+
+        assertThrows(DuplicateTransferException.class, () -> transferService.transfer(request(1L, 2L, "20.00")));
+    }
+
+    @Test
+    void testCreditToHotAccountDoesNotLockItsRow() {
+        Account hot = account(2L, "50.00");
+        hot.setBalanceBuckets(4);
+        when(balanceBucketRepository.findBucketCounts()).thenReturn(Map.of(2L, 4));
+        when(balanceBucketRepository.credit(eq(2L), anyInt(), any())).thenReturn(1);
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account(1L, "100.00")));
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(hot));
+
+        transferService.transfer(request(1L, 2L, "10.00"));
+
+        verify(accountRepository, never()).findByIdForUpdate(2L);
+        verify(balanceBucketRepository).credit(eq(2L), anyInt(), eq(Money.parse("10.00")));
+        assertEquals(Money.parse("50.00"), hot.getBalance());
+        // The unlocked credit goes to a rollup stripe rather than the row-locked one
+        verify(accountRollups).record(any(), eq(false));
+    }
+
+    @Test
+    void testRollupsOnlyCountSuccessfulTransfers() {
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account(1L, "100.00")));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(account(2L, "0.00")));
+
+        transferService.transfer(request(1L, 2L, "10.00"));
+        assertThrows(InsufficientBalanceException.class,
+            () -> transferService.transfer(new TransferRequest(1L, 2L, Money.parse("500.00"), "key-too-much")));
+
+        verify(accountRollups, times(1)).record(argThat(log -> log.getAmount().equals(Money.parse("10.00"))), eq(true));
+        verifyNoMoreInteractions(accountRollups);
+    }
+
+    @Test
+    void testJournalAppendsEntriesInsteadOfUpdatingBalances() {
+        DoubleEntryJournal journal = journalService();
+        Account from = account(1L, "100.00");
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(from));
+        when(journal.currentBalance(1L)).thenReturn(Money.parse("30.00"));
+
+        TransferResponse response = transferService.transfer(request(1L, 2L, "10.00"));
+
+        assertEquals("SUCCESS", response.getStatus());
+        verify(journal).lockForCredit(2L);
+        verify(journal).append(any(), eq(1L), eq(2L), eq(Money.parse("10.00")));
+        verify(accountRepository, never()).findByIdForUpdate(2L);
+        verify(accountRepository, never()).save(any());
+        assertEquals(Money.parse("100.00"), from.getBalance());
+    }
+
+    @Test
+    void testJournalChecksSummedBalance() {
+        DoubleEntryJournal journal = journalService();
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account(1L, "100.00")));
+        when(journal.currentBalance(1L)).thenReturn(Money.parse("5.00"));
+
+        assertThrows(InsufficientBalanceException.class, () -> transferService.transfer(request(1L, 2L, "10.00")));
+        verify(journal, never()).append(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void testAccountKnownInactiveIsRejectedWithoutDatabaseWork() {
+        accountDirectory.updateAfterCommit(2L, AccountStatus.CLOSED);
+
+        assertThrows(AccountNotActiveException.class, () -> transferService.transfer(request(1L, 2L, "10.00")));
+        verifyNoInteractions(accountRepository, transactionLogRepository);
+    }
+
+    @Test
+    void testRetryOfCompletedTransferIsReplayedAfterAccountClosed() {
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(account(1L, "100.00")));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(account(2L, "100.00")));
+        TransferResponse first = transferService.transfer(request(1L, 2L, "10.00"));
+
+        accountDirectory.updateAfterCommit(2L, AccountStatus.CLOSED);
+
+        assertEquals(first, transferService.transfer(request(1L, 2L, "10.00")));
+        assertThrows(AccountNotActiveException.class,
+            () -> transferService.transfer(new TransferRequest(1L, 2L, Money.parse("10.00"), "key-after-close")));
+    }
+
+    private DoubleEntryJournal journalService() {
+        DoubleEntryJournal journal = mock(DoubleEntryJournal.class);
+        when(journal.transactionTemplate()).thenReturn(new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        transferService = new TransferService(
+            accountRepository,
+            transactionLogRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            transferProperties,
+            new IdempotencyRegistry(transferProperties),
+            new AccountCache(transferProperties),
+            new HotAccountBalances(balanceBucketRepository, transferProperties),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.of(journal),
+            Optional.empty(),
+            Optional.empty(),
+            Optional.empty()
+        );
+        return journal;
+    }
+}
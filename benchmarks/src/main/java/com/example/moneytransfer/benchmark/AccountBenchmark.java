@@ -0,0 +1,64 @@
+package com.example.moneytransfer.benchmark;
+
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.money.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance arithmetic on the debit/credit path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountBenchmark {
+
+    private Account account;
+    private Money balance;
+    private Money amount;
+
+    @Setup
+    public void setUp() {
+        account = Account.builder()
+            .id(1L)
+            .holderName("Benchmark")
+            .balance(Money.parse("1000000.00"))
+            .status(AccountStatus.ACTIVE)
+            .version(0)
+            .build();
+        balance = Money.parse("1000000.00");
+        amount = Money.parse("12.34");
+    }
+
+    @Benchmark
+    public void debitThenCredit() {
+        account.debit(amount);
+        account.credit(amount);
+    }
+
+    @Benchmark
+    public int compareBalance() {
+        return balance.compareTo(amount);
+    }
+
+    @Benchmark
+    public void addAndSubtract(Blackhole blackhole) {
+        blackhole.consume(balance.minus(amount));
+        blackhole.consume(balance.plus(amount));
+    }
+}
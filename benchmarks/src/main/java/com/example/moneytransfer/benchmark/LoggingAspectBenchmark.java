@@ -0,0 +1,66 @@
+package com.example.moneytransfer.benchmark;
+
+import com.example.moneytransfer.aspect.LoggingAspect;
+import com.example.moneytransfer.config.TransferProperties;
+import com.example.moneytransfer.metrics.LatencyMetrics;
+import com.example.moneytransfer.service.NoOpBenchmarkService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the {@link LoggingAspect} around advice (latency recording, sampled logging
+ * off), against an unproxied call and a proxy without advice.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingAspectBenchmark {
+
+    private NoOpBenchmarkService direct;
+    private NoOpBenchmarkService plainProxy;
+    private NoOpBenchmarkService advisedProxy;
+    private long value;
+
+    @Setup
+    public void setUp() {
+        direct = new NoOpBenchmarkService();
+
+        AspectJProxyFactory plainFactory = new AspectJProxyFactory(new NoOpBenchmarkService());
+        plainFactory.setProxyTargetClass(true);
+        plainProxy = plainFactory.getProxy();
+
+        AspectJProxyFactory advisedFactory = new AspectJProxyFactory(new NoOpBenchmarkService());
+        advisedFactory.setProxyTargetClass(true);
+        advisedFactory.addAspect(new LoggingAspect(new LatencyMetrics(), new TransferProperties()));
+        advisedProxy = advisedFactory.getProxy();
+    }
+
+    @Benchmark
+    public long directCall() {
+        return direct.echo(value++);
+    }
+
+    @Benchmark
+    public long proxyWithoutAdvice() {
+        return plainProxy.echo(value++);
+    }
+
+    @Benchmark
+    public long proxyWithLoggingAspect() {
+        return advisedProxy.echo(value++);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.moneytransfer.benchmark;
+
+import com.example.moneytransfer.MoneyTransferApplication;
+import com.example.moneytransfer.domain.dto.TransferRequest;
+import com.example.moneytransfer.domain.dto.TransferResponse;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.AccountRepository;
+import com.example.moneytransfer.service.TransferService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end {@link TransferService#transfer} through the full Spring context (aspects,
+ * transactions, JPA) against an in-memory H2 database in MySQL mode. H2 has no network or fsync
+ * cost, so absolute numbers are a lower bound; use the results to compare code changes.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferServiceBenchmark {
+
+    private static final int ACCOUNTS = 64;
+
+    @State(Scope.Benchmark)
+    public static class Context {
+
+        ConfigurableApplicationContext applicationContext;
+        TransferService transferService;
+        List<Long> accountIds;
+        final AtomicLong sequence = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void start() {
+            SpringApplication application = new SpringApplication(MoneyTransferApplication.class);
+            application.setWebApplicationType(WebApplicationType.NONE);
+            // Command-line arguments take precedence over the application.yml MySQL settings
+            applicationContext = application.run(
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                // schema.sql also creates the tables JPA does not map, such as the rollups
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.sql.init.mode=always",
+                "--transfer.outbox.workers=0",
+                "--transfer.audit.enabled=false",
+                "--logging.level.root=WARN"
+            );
+            transferService = applicationContext.getBean(TransferService.class);
+
+            AccountRepository accountRepository = applicationContext.getBean(AccountRepository.class);
+            accountIds = new ArrayList<>();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                Account account = accountRepository.save(Account.builder()
+                    .holderName("Benchmark " + i)
+                    .balance(Money.parse("1000000000.00"))
+                    .status(AccountStatus.ACTIVE)
+                    .build());
+                accountIds.add(account.getId());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            applicationContext.close();
+        }
+    }
+
+    private static final Money AMOUNT = Money.parse("1.00");
+
+    /**
+     * Transfers between a different pair of accounts on every call, so threads rarely contend.
+     */
+    @Benchmark
+    @Threads(4)
+    public TransferResponse transferSpread(Context context) {
+        long n = context.sequence.incrementAndGet();
+        int from = (int) (n % ACCOUNTS);
+        int to = (int) ((n * 7 + 1) % ACCOUNTS);
+        if (from == to) {
+            to = (to + 1) % ACCOUNTS;
+        }
+        return context.transferService.transfer(new TransferRequest(
+            context.accountIds.get(from), context.accountIds.get(to), AMOUNT, "bench-spread-" + n));
+    }
+
+    /**
+     * Every call moves money back and forth between the same two accounts (hot-row contention).
+     */
+    @Benchmark
+    @Threads(4)
+    public TransferResponse transferHotPair(Context context) {
+        long n = context.sequence.incrementAndGet();
+        Long first = context.accountIds.get(0);
+        Long second = context.accountIds.get(1);
+        boolean forward = (n & 1) == 0;
+        return context.transferService.transfer(new TransferRequest(
+            forward ? first : second, forward ? second : first, AMOUNT, "bench-hot-" + n));
+    }
+}
@@ -0,0 +1,387 @@
+package com.example.moneytransfer.loadtest;
+
+import com.example.moneytransfer.MoneyTransferApplication;
+import com.example.moneytransfer.domain.dto.TransactionPageResponse;
+import com.example.moneytransfer.domain.dto.TransactionResponse;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.enums.TransactionStatus;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.AccountRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@code POST /api/v1/transfers} on an embedded instance of the application and then
+ * checks that no money was created or lost. Run it after changes to the transfer path to measure
+ * contention and to catch lost updates before they reach production.
+ * <pre>
+ * java -Daccounts=1000 -Drequests=100000 -Dconcurrency=64 -Drate=2000 -Dmode=open -Dskew=1.2 \
+ *     -cp benchmarks/target/benchmarks.jar com.example.moneytransfer.loadtest.LoadGenerator \
+ *     [--spring.datasource.url=jdbc:mysql://... --transfer.group-commit.enabled=true ...]
+ * </pre>
+ * Both ends of each transfer are drawn from a Zipf distribution over the accounts with exponent
+ * {@code skew} (0 is uniform), so a few accounts take most of the traffic. With
+ * {@code mode=closed}, {@code concurrency} clients each send one transfer at a time; with
+ * {@code mode=open}, transfers are started at {@code rate} per second whether or not earlier
+ * ones have completed, with at most {@code concurrency} outstanding. When a rate is set, each
+ * transfer has an intended start time and its latency is measured from that time, so a stall
+ * is charged to every transfer it delayed rather than only to the one that hit it (coordinated
+ * omission). The service time from actual send to response is reported alongside.
+ * <p>
+ * Afterwards, every account's balance is read through the API and must equal its initial
+ * balance plus the successful transfers in its history, the balances must add up to what was
+ * created, and every transfer answered with 201 must be in the history. Any violation makes
+ * the process exit with status 1.
+ * <p>
+ * Arguments are passed to the application and override its defaults here: an in-memory H2
+ * database in MySQL mode and no outbox workers.
+ */
+public final class LoadGenerator {
+
+    private static final String AUTHORIZATION = "Basic "
+        + Base64.getEncoder().encodeToString("admin:admin123".getBytes(StandardCharsets.UTF_8));
+    private static final int HISTORY_PAGE_SIZE = 1000;
+    private static final int MAX_REPORTED_VIOLATIONS = 10;
+
+    private final int requests = Integer.getInteger("requests", 20_000);
+    private final int concurrency = Integer.getInteger("concurrency", 64);
+    private final double rate = Double.parseDouble(System.getProperty("rate", "0"));
+    private final boolean open = "open".equalsIgnoreCase(System.getProperty("mode", "closed"));
+    private final long maxAmountMinor = Money.parse(System.getProperty("maxAmount", "1.00")).minorUnits();
+
+    private final ObjectMapper objectMapper;
+    private final Money initialBalance;
+    private final HttpClient client;
+    private final String baseUrl;
+    private final List<Long> accountIds;
+    private final ZipfSampler sampler;
+
+    private final Histogram latency = new Histogram(TimeUnit.MINUTES.toNanos(10), 3);
+    private final Histogram serviceTime = new Histogram(TimeUnit.MINUTES.toNanos(10), 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final Set<String> acknowledged = ConcurrentHashMap.newKeySet();
+
+    private LoadGenerator(ObjectMapper objectMapper, String baseUrl, List<Long> accountIds, Money initialBalance) {
+        this.objectMapper = objectMapper;
+        this.initialBalance = initialBalance;
+        this.baseUrl = baseUrl;
+        this.accountIds = accountIds;
+        this.sampler = new ZipfSampler(accountIds.size(), Double.parseDouble(System.getProperty("skew", "1.0")));
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int accounts = Integer.getInteger("accounts", 1000);
+        Money initialBalance = Money.parse(System.getProperty("initialBalance", "1000000.00"));
+        if (accounts < 2) {
+            throw new IllegalArgumentException("Transfers need at least 2 accounts");
+        }
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:load;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.hibernate.ddl-auto", "none");
+        properties.put("spring.sql.init.mode", "always");
+        properties.put("transfer.outbox.workers", "0");
+        properties.put("transfer.audit.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            properties.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+
+        boolean violated;
+        ConfigurableApplicationContext context = new SpringApplication(MoneyTransferApplication.class).run(
+            properties.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+        try {
+            AccountRepository accountRepository = context.getBean(AccountRepository.class);
+            List<Long> accountIds = new ArrayList<>(accounts);
+            for (int i = 0; i < accounts; i++) {
+                accountIds.add(accountRepository.save(Account.builder()
+                    .holderName("Load " + i)
+                    .balance(initialBalance)
+                    .status(AccountStatus.ACTIVE)
+                    .build()).getId());
+            }
+
+            LoadGenerator generator = new LoadGenerator(context.getBean(ObjectMapper.class),
+                "http://localhost:" + context.getEnvironment().getProperty("local.server.port"), accountIds,
+                initialBalance);
+            generator.run();
+            violated = !generator.verify();
+        } finally {
+            context.close();
+        }
+        System.exit(violated ? 1 : 0);
+    }
+
+    private void run() throws InterruptedException {
+        if (open && rate <= 0) {
+            throw new IllegalArgumentException("mode=open needs a rate");
+        }
+        System.out.printf("%s loop, %d transfers over %d accounts, concurrency %d, rate %s%n",
+            open ? "Open" : "Closed", requests, accountIds.size(), concurrency,
+            rate > 0 ? rate + "/s" : "unlimited");
+
+        long start = System.nanoTime();
+        if (open) {
+            runOpen(start);
+        } else {
+            runClosed(start);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%n%-7s %10s%n", "status", "count");
+        statuses.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(e -> System.out.printf("%-7s %10d%n", e.getKey() < 0 ? "error" : e.getKey(), e.getValue().sum()));
+        System.out.printf("%nthroughput %.0f transfers/s (%d ok)%n", requests / (elapsed / 1e9), acknowledged.size());
+        System.out.printf("%n%-22s %9s %9s %9s %9s %9s%n", "ms", "p50", "p90", "p99", "p99.9", "max");
+        System.out.println(percentiles(rate > 0 ? "latency (intended)" : "latency", latency));
+        if (rate > 0) {
+            System.out.println(percentiles("service time", serviceTime));
+        }
+    }
+
+    // Each client sends its next transfer once the previous one is answered, at the earliest at its slot
+    private void runClosed(long start) throws InterruptedException {
+        AtomicLong sequence = new AtomicLong();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            clients.execute(() -> {
+                long n;
+                while ((n = sequence.getAndIncrement()) < requests) {
+                    long intended = intendedStart(start, n);
+                    awaitNanos(intended);
+                    HttpRequest request = transferRequest(n);
+                    long sent = System.nanoTime();
+                    int status;
+                    String body = null;
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        status = response.statusCode();
+                        body = response.body();
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    record(rate > 0 ? intended : sent, sent, status, body);
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.DAYS);
+    }
+
+    // Transfers start on schedule no matter how long earlier ones take, up to the outstanding limit
+    private void runOpen(long start) throws InterruptedException {
+        Semaphore outstanding = new Semaphore(concurrency);
+        for (long n = 0; n < requests; n++) {
+            long intended = intendedStart(start, n);
+            awaitNanos(intended);
+            outstanding.acquire();
+            HttpRequest request = transferRequest(n);
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+                try {
+                    record(intended, sent, failure == null ? response.statusCode() : -1,
+                        failure == null ? response.body() : null);
+                } finally {
+                    outstanding.release();
+                }
+            });
+        }
+        outstanding.acquire(concurrency);
+    }
+
+    private long intendedStart(long start, long n) {
+        return rate > 0 ? start + (long) (n * 1e9 / rate) : System.nanoTime();
+    }
+
+    private static void awaitNanos(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private HttpRequest transferRequest(long n) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = sampler.next(random);
+        int to;
+        do {
+            to = sampler.next(random);
+        } while (to == from);
+        String body = "{\"fromAccountId\":" + accountIds.get(from)
+            + ",\"toAccountId\":" + accountIds.get(to)
+            + ",\"amount\":" + Money.ofMinor(1 + random.nextLong(maxAmountMinor))
+            + ",\"idempotencyKey\":\"load-" + n + "-" + random.nextLong() + "\"}";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/transfers"))
+            .header("Content-Type", "application/json")
+            .header("Authorization", AUTHORIZATION)
+            .timeout(Duration.ofSeconds(60))
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private void record(long intended, long sent, int status, String body) {
+        long now = System.nanoTime();
+        synchronized (latency) {
+            latency.recordValue(Math.min(now - intended, latency.getHighestTrackableValue()));
+            serviceTime.recordValue(Math.min(now - sent, serviceTime.getHighestTrackableValue()));
+        }
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (status == 201) {
+            try {
+                acknowledged.add(objectMapper.readTree(body).get("transactionId").asText());
+            } catch (IOException e) {
+                throw new IllegalStateException("Unreadable transfer response: " + body, e);
+            }
+        }
+    }
+
+    private static String percentiles(String label, Histogram histogram) {
+        return String.format("%-22s %9.2f %9.2f %9.2f %9.2f %9.2f", label,
+            millis(histogram.getValueAtPercentile(50)),
+            millis(histogram.getValueAtPercentile(90)),
+            millis(histogram.getValueAtPercentile(99)),
+            millis(histogram.getValueAtPercentile(99.9)),
+            millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * @return whether every invariant held
+     */
+    private boolean verify() throws IOException, InterruptedException {
+        long total = 0;
+        List<String> violations = new ArrayList<>();
+        Set<String> historyIds = new HashSet<>();
+        for (long accountId : accountIds) {
+            long balance = Money.parse(get("/api/v1/accounts/" + accountId + "/balance").trim()).minorUnits();
+            total += balance;
+
+            long expected = initialBalance.minorUnits();
+            for (TransactionResponse row : history(accountId)) {
+                if (!TransactionStatus.SUCCESS.name().equals(row.getStatus())) {
+                    continue;
+                }
+                historyIds.add(row.getId());
+                long amount = Money.of(row.getAmount()).minorUnits();
+                expected += row.getToAccountId() == accountId ? amount : -amount;
+            }
+            if (balance != expected) {
+                violations.add("account " + accountId + " holds " + Money.ofMinor(balance)
+                    + " but its history adds up to " + Money.ofMinor(expected));
+            }
+        }
+
+        long created = initialBalance.minorUnits() * accountIds.size();
+        if (total != created) {
+            violations.add(0, "balances add up to " + Money.ofMinor(total) + " instead of " + Money.ofMinor(created));
+        }
+        long missing = acknowledged.stream().filter(id -> !historyIds.contains(id)).count();
+        if (missing > 0) {
+            violations.add(0, missing + " transfers answered with 201 are not in any account's history");
+        }
+
+        System.out.printf("%nInvariants over %d accounts and %d successful transfers: %s%n",
+            accountIds.size(), historyIds.size(), violations.isEmpty() ? "OK" : violations.size() + " VIOLATED");
+        violations.stream().limit(MAX_REPORTED_VIOLATIONS).forEach(v -> System.out.println("  " + v));
+        return violations.isEmpty();
+    }
+
+    private List<TransactionResponse> history(long accountId) throws IOException, InterruptedException {
+        List<TransactionResponse> rows = new ArrayList<>();
+        String cursor = null;
+        do {
+            String path = "/api/v1/accounts/" + accountId + "/transactions?limit=" + HISTORY_PAGE_SIZE
+                + (cursor == null ? "" : "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+            TransactionPageResponse page = objectMapper.readValue(get(path), TransactionPageResponse.class);
+            rows.addAll(page.getTransactions());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return rows;
+    }
+
+    private String get(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Authorization", AUTHORIZATION)
+            .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            JsonNode error = objectMapper.readTree(response.body());
+            throw new IllegalStateException("GET " + path + " answered " + response.statusCode() + ": " + error);
+        }
+        return response.body();
+    }
+
+    /**
+     * Draws indexes {@code 0..n-1} with probability proportional to {@code 1 / (index + 1)^skew}
+     * by binary search over the cumulative distribution.
+     */
+    static final class ZipfSampler {
+
+        private final double[] cumulative;
+
+        ZipfSampler(int n, double skew) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1 / Math.pow(i + 1, skew);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int next(ThreadLocalRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.moneytransfer.loadtest;
+
+import com.example.moneytransfer.MoneyTransferApplication;
+import com.example.moneytransfer.domain.entity.Account;
+import com.example.moneytransfer.domain.enums.AccountStatus;
+import com.example.moneytransfer.domain.money.Money;
+import com.example.moneytransfer.repository.AccountRepository;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fires the same burst of concurrent transfers at the application twice, once with requests on
+ * Tomcat's platform thread pool and once on virtual threads, and prints throughput, latency and
+ * how many requests admission control shed with 503. Both runs use an in-memory H2 database, so
+ * the connection pool rather than the disk is the contended resource.
+ * <pre>
+ * java -Drequests=20000 -Dconcurrency=500 -cp benchmarks/target/benchmarks.jar \
+ *     com.example.moneytransfer.loadtest.ThreadModeComparison
+ * </pre>
+ * The virtual-thread run only differs from the platform run on a Java 21+ runtime.
+ */
+public final class ThreadModeComparison {
+
+    private static final String AUTHORIZATION = "Basic "
+        + Base64.getEncoder().encodeToString("admin:admin123".getBytes(StandardCharsets.UTF_8));
+
+    private ThreadModeComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int requests = Integer.getInteger("requests", 5000);
+        int concurrency = Integer.getInteger("concurrency", 400);
+        int accounts = Integer.getInteger("accounts", 32);
+        int tomcatThreads = Integer.getInteger("tomcatThreads", 200);
+
+        if (Runtime.version().feature() < 21) {
+            System.out.println("Running on Java " + Runtime.version().feature()
+                + ": virtual threads are unavailable, both runs use platform threads");
+        }
+
+        List<String> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            results.add(run(virtual, requests, concurrency, accounts, tomcatThreads));
+        }
+
+        System.out.printf("%n%-9s %8s %8s %8s %10s %9s %9s %9s%n",
+            "threads", "ok", "shed", "failed", "req/s", "p50 ms", "p99 ms", "max ms");
+        results.forEach(System.out::println);
+    }
+
+    private static String run(boolean virtual, int requests, int concurrency, int accounts, int tomcatThreads)
+            throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        ConfigurableApplicationContext context = new SpringApplication(MoneyTransferApplication.class).run(
+            "--server.port=0",
+            "--server.tomcat.threads.max=" + tomcatThreads,
+            "--spring.threads.virtual.enabled=" + virtual,
+            "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.jpa.hibernate.ddl-auto=none",
+            "--spring.sql.init.mode=always",
+            "--transfer.admission.enabled=true",
+            "--transfer.outbox.workers=0",
+            "--transfer.audit.enabled=false",
+            "--logging.level.root=WARN"
+        );
+        try {
+            AccountRepository accountRepository = context.getBean(AccountRepository.class);
+            List<Long> accountIds = new ArrayList<>();
+            for (int i = 0; i < accounts; i++) {
+                accountIds.add(accountRepository.save(Account.builder()
+                    .holderName("Load " + i)
+                    .balance(Money.parse("1000000000.00"))
+                    .status(AccountStatus.ACTIVE)
+                    .build()).getId());
+            }
+
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/api/v1/transfers");
+            return mode(mode, fire(uri, accountIds, requests, concurrency));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result fire(URI uri, List<Long> accountIds, int requests, int concurrency) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        Result result = new Result();
+        AtomicLong remaining = new AtomicLong(requests);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    send(client, uri, accountIds, result);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private static void send(HttpClient client, URI uri, List<Long> accountIds, Result result) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountIds.size());
+        int to = (from + 1 + random.nextInt(accountIds.size() - 1)) % accountIds.size();
+        String body = "{\"fromAccountId\":" + accountIds.get(from)
+            + ",\"toAccountId\":" + accountIds.get(to)
+            + ",\"amount\":1.00,\"idempotencyKey\":\"load-" + System.nanoTime() + "-" + random.nextLong() + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .header("Content-Type", "application/json")
+            .header("Authorization", AUTHORIZATION)
+            .timeout(Duration.ofSeconds(60))
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+
+        long started = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            status = -1;
+        }
+        long latency = System.nanoTime() - started;
+        synchronized (result.latency) {
+            result.latency.recordValue(latency);
+        }
+        if (status == 201) {
+            result.ok.increment();
+        } else if (status == 503) {
+            result.shed.increment();
+        } else {
+            result.failed.increment();
+        }
+    }
+
+    private static String mode(String mode, Result result) {
+        long total = result.ok.sum() + result.shed.sum() + result.failed.sum();
+        return String.format("%-9s %8d %8d %8d %10.0f %9.1f %9.1f %9.1f",
+            mode, result.ok.sum(), result.shed.sum(), result.failed.sum(),
+            total / (result.elapsedNanos / 1e9),
+            millis(result.latency.getValueAtPercentile(50)),
+            millis(result.latency.getValueAtPercentile(99)),
+            millis(result.latency.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Result {
+        final Histogram latency = new Histogram(TimeUnit.MINUTES.toNanos(1), 2);
+        final LongAdder ok = new LongAdder();
+        final LongAdder shed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        long elapsedNanos;
+    }
+}
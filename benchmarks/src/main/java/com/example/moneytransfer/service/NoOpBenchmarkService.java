@@ -0,0 +1,11 @@
+package com.example.moneytransfer.service;
+
+/**
+ * Trivial target living in the service package so it matches the {@code LoggingAspect} pointcut.
+ */
+public class NoOpBenchmarkService {
+
+    public long echo(long value) {
+        return value;
+    }
+}